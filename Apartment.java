@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * Apartment class represents an apartment, with number of rooms, area, pric
  * and a current resident.
@@ -10,9 +13,10 @@ public class Apartment {
     private int _noOfRooms; // Must be int and positive
     private double _area; // Must be double and positive
     private double _price; // Must be double and positive
-    private Person _tenant;
-    private Date _rentalStartDate;
-    private Date _rentalEndDate; // Must be after rentalStartDate
+    private ImmutablePerson _tenant;
+    private ImmutableDate _rentalStartDate;
+    private ImmutableDate _rentalEndDate; // Must be after rentalStartDate
+    private ApartmentListener[] _listeners; // Not copied by the copy constructor
 
     // Default values
     private final int DEFAULT_NO_OF_ROOMS = 3;
@@ -28,6 +32,20 @@ public class Apartment {
     private final int MIN_NO_OF_ROOMS = 0;
     private final int MIN_RENTAL_PREIOD_EXTENSION = 0;
 
+    private static final ApartmentListener[] NO_LISTENERS = new ApartmentListener[0];
+
+    // Lease operations are only measured when the JVM runs with
+    // -Dapartment.metrics=true. Otherwise this is a constant false and the JIT
+    // removes the measuring code.
+    private static final boolean METRICS_ENABLED = Boolean.getBoolean("apartment.metrics");
+    private static volatile ApartmentMetrics _metrics = ApartmentMetrics.NO_OP;
+
+    // Rules a changeTenant bid can fail, as bits of tenantChangeFailures
+    static final int START_DATE_NOT_AFTER = 1;
+    static final int OUTSIDE_WINDOW = 2;
+    static final int PRICE_TOO_LOW = 4;
+    static final int TENANT_NOT_YOUNGER = 8;
+
     /**
      * Apartment constructor accepts number of rooms, area, price, tenant, rental
      * dates.
@@ -41,6 +59,9 @@ public class Apartment {
      */
     public Apartment(int noOfRooms, double area, double price, Person p, int startDay, int startMonth, int startYear,
             int endDay, int endMonth, int endYear) {
+        // Set first, the setters below notify the listeners
+        _listeners = NO_LISTENERS;
+
         // Set number of rooms
         setAndValidateNoOfRooms(noOfRooms);
 
@@ -54,10 +75,10 @@ public class Apartment {
         setTenant(p);
 
         // Create new rental start date
-        Date rentalStartDate = new Date(startDay, startMonth, startYear);
+        ImmutableDate rentalStartDate = Date.of(startDay, startMonth, startYear);
 
         // Create new rental end date
-        Date rentalEndDate = new Date(endDay, endMonth, endYear);
+        ImmutableDate rentalEndDate = Date.of(endDay, endMonth, endYear);
 
         // Set rental dates
         setAndValidateRentalDates(rentalStartDate, rentalEndDate);
@@ -72,9 +93,150 @@ public class Apartment {
         _noOfRooms = other._noOfRooms;
         _area = other._area;
         _price = other._price;
-        _tenant = new Person(other._tenant);
-        _rentalStartDate = new Date(other._rentalStartDate);
-        _rentalEndDate = new Date(other._rentalEndDate);
+        // The tenant and rental dates are immutable, so they can be shared
+        _tenant = other._tenant;
+        _rentalStartDate = other._rentalStartDate;
+        _rentalEndDate = other._rentalEndDate;
+        _listeners = NO_LISTENERS;
+    }
+
+    /**
+     * Apartment with values read from the binary form or a loaded file, which
+     * were already checked, skipping the setters' validation.
+     * 
+     * @param noOfRooms
+     * @param area
+     * @param price
+     * @param tenant
+     * @param rentalStartDate
+     * @param rentalEndDate
+     */
+    Apartment(int noOfRooms, double area, double price, ImmutablePerson tenant,
+            ImmutableDate rentalStartDate, ImmutableDate rentalEndDate) {
+        _noOfRooms = noOfRooms;
+        _area = area;
+        _price = price;
+        _tenant = tenant;
+        _rentalStartDate = rentalStartDate;
+        _rentalEndDate = rentalEndDate;
+        _listeners = NO_LISTENERS;
+    }
+
+    /**
+     * Returns true if the JVM runs with -Dapartment.metrics=true, so lease
+     * operations are measured.
+     * 
+     * @return true if enabled, false otherwise
+     */
+    public static boolean isMetricsEnabled() {
+        return METRICS_ENABLED;
+    }
+
+    /**
+     * Returns the metrics that the lease operations of every apartment report to.
+     * 
+     * @return ApartmentMetrics
+     */
+    public static ApartmentMetrics getMetrics() {
+        return _metrics;
+    }
+
+    /**
+     * Sets the metrics that the lease operations of every apartment report to
+     * (changeTenant, daysLeft and extendRentalPeriod), when metrics are enabled.
+     * 
+     * @param metrics
+     */
+    public static void setMetrics(ApartmentMetrics metrics) {
+        _metrics = metrics == null ? ApartmentMetrics.NO_OP : metrics;
+    }
+
+    /**
+     * Adds a listener that is notified when the apartment changes.
+     * 
+     * @param listener
+     */
+    public void addListener(ApartmentListener listener) {
+        ApartmentListener[] listeners = new ApartmentListener[_listeners.length + 1];
+        System.arraycopy(_listeners, 0, listeners, 0, _listeners.length);
+        listeners[_listeners.length] = listener;
+        _listeners = listeners;
+    }
+
+    /**
+     * Removes a listener added with addListener.
+     * 
+     * @param listener
+     */
+    public void removeListener(ApartmentListener listener) {
+        for (int i = 0; i < _listeners.length; i++) {
+            if (_listeners[i] == listener) {
+                ApartmentListener[] listeners = new ApartmentListener[_listeners.length - 1];
+                System.arraycopy(_listeners, 0, listeners, 0, i);
+                System.arraycopy(_listeners, i + 1, listeners, i, listeners.length - i);
+                _listeners = listeners;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners that the rental period changed.
+     */
+    private void fireRentalPeriodChanged() {
+        for (ApartmentListener listener : _listeners) {
+            listener.rentalPeriodChanged(this);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the number of rooms changed.
+     */
+    private void fireNoOfRoomsChanged() {
+        for (ApartmentListener listener : _listeners) {
+            listener.noOfRoomsChanged(this);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the area changed.
+     */
+    private void fireAreaChanged() {
+        for (ApartmentListener listener : _listeners) {
+            listener.areaChanged(this);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the price changed.
+     */
+    private void firePriceChanged() {
+        for (ApartmentListener listener : _listeners) {
+            listener.priceChanged(this);
+        }
+    }
+
+    /**
+     * Notifies the listeners that the tenant changed.
+     */
+    private void fireTenantChanged() {
+        for (ApartmentListener listener : _listeners) {
+            listener.tenantChanged(this);
+        }
+    }
+
+    /**
+     * Notifies the listeners of the outcome of a changeTenant call.
+     * 
+     * @param startDate
+     * @param p
+     * @param price
+     * @param accepted
+     */
+    private void fireTenantChangeRequested(Date startDate, Person p, double price, boolean accepted) {
+        for (ApartmentListener listener : _listeners) {
+            listener.tenantChangeRequested(this, startDate, p, price, accepted);
+        }
     }
 
     /**
@@ -85,6 +247,7 @@ public class Apartment {
     public void setNoOfRooms(int num) {
         if (isNoOfRoomsValid(num)) {
             _noOfRooms = num;
+            fireNoOfRoomsChanged();
         }
     }
 
@@ -120,6 +283,7 @@ public class Apartment {
     public void setArea(double area) {
         if (isAreaValid(area)) {
             _area = area;
+            fireAreaChanged();
         }
     }
 
@@ -154,6 +318,7 @@ public class Apartment {
     public void setPrice(double price) {
         if (isPriceValid(price)) {
             _price = price;
+            firePriceChanged();
         }
     }
 
@@ -186,7 +351,8 @@ public class Apartment {
      * @param p
      */
     public void setTenant(Person p) {
-        _tenant = new Person(p);
+        _tenant = ImmutablePerson.of(p);
+        fireTenantChanged();
     }
 
     /**
@@ -196,7 +362,8 @@ public class Apartment {
      */
     public void setRentalStartDate(Date d) {
         if (isRentalDatesValid(d, _rentalEndDate)) {
-            _rentalStartDate = new Date(d);
+            _rentalStartDate = Date.intern(d);
+            fireRentalPeriodChanged();
         }
     }
 
@@ -207,7 +374,8 @@ public class Apartment {
      */
     public void setRentalEndDate(Date d) {
         if (isRentalDatesValid(_rentalStartDate, d)) {
-            _rentalEndDate = new Date(d);
+            _rentalEndDate = Date.intern(d);
+            fireRentalPeriodChanged();
         }
     }
 
@@ -218,13 +386,13 @@ public class Apartment {
      * @param startDate
      * @param endDate
      */
-    private void setAndValidateRentalDates(Date startDate, Date endDate) {
+    private void setAndValidateRentalDates(ImmutableDate startDate, ImmutableDate endDate) {
         _rentalStartDate = startDate;
 
         if (isRentalDatesValid(startDate, endDate)) {
             _rentalEndDate = endDate;
         } else {
-            _rentalEndDate = startDate.addYearsToDate(DEFAULT_RENTAL_YEARS_GAP);
+            _rentalEndDate = Date.intern(startDate.addYearsToDate(DEFAULT_RENTAL_YEARS_GAP));
         }
     }
 
@@ -246,10 +414,31 @@ public class Apartment {
      * @param years
      */
     public void extendRentalPeriod(int years) {
+        long start = METRICS_ENABLED ? System.nanoTime() : 0;
+        boolean isExtended = applyRentalExtension(years);
+        // Measured before the listeners are called, they aren't part of it
+        if (METRICS_ENABLED) {
+            _metrics.rentalPeriodExtended(System.nanoTime() - start);
+        }
+        if (isExtended) {
+            fireRentalPeriodChanged();
+        }
+    }
+
+    /**
+     * Extends the rental period like extendRentalPeriod, without measuring it
+     * or notifying the listeners.
+     * 
+     * @param years
+     * @return true if the rental period was extended, false otherwise
+     */
+    boolean applyRentalExtension(int years) {
         if (years > MIN_RENTAL_PREIOD_EXTENSION) {
             // Extend rental period by years
-            _rentalEndDate = _rentalEndDate.addYearsToDate(years);
+            _rentalEndDate = Date.intern(_rentalEndDate.addYearsToDate(years));
+            return true;
         }
+        return false;
     }
 
     /**
@@ -286,11 +475,17 @@ public class Apartment {
      * @return daysLeft
      */
     public int daysLeft(Date d) {
+        long start = METRICS_ENABLED ? System.nanoTime() : 0;
+        int daysLeft;
         if (d.after(_rentalEndDate)) {
-            return -1;
+            daysLeft = -1;
         } else {
-            return _rentalEndDate.difference(d);
+            daysLeft = _rentalEndDate.difference(d);
+        }
+        if (METRICS_ENABLED) {
+            _metrics.daysLeftMeasured(System.nanoTime() - start);
         }
+        return daysLeft;
     }
 
     /**
@@ -305,20 +500,81 @@ public class Apartment {
      * @return true if tenant was changed, false otherwise
      */
     public boolean changeTenant(Date startDate, Person p, double price) {
+        long start = METRICS_ENABLED ? System.nanoTime() : 0;
+        int failures = tenantChangeFailures(startDate, p, price);
+
+        if (failures == 0) {
+            applyTenantChange(startDate, p, price);
+            // Measured before the listeners are called, they aren't part of it
+            if (METRICS_ENABLED) {
+                reportTenantChange(System.nanoTime() - start, failures);
+            }
+            fireTenantChanged();
+            firePriceChanged();
+            fireRentalPeriodChanged();
+            fireTenantChangeRequested(startDate, p, price, true);
+            return true;
+        } else {
+            if (METRICS_ENABLED) {
+                reportTenantChange(System.nanoTime() - start, failures);
+            }
+            fireTenantChangeRequested(startDate, p, price, false);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the rules of changeTenant the bid fails, as START_DATE_NOT_AFTER,
+     * OUTSIDE_WINDOW, PRICE_TOO_LOW and TENANT_NOT_YOUNGER bits, 0 if it would
+     * be accepted.
+     * 
+     * @param startDate
+     * @param p
+     * @param price
+     * @return failures
+     */
+    int tenantChangeFailures(Date startDate, Person p, double price) {
         boolean isStartDateAfter = startDate.after(_rentalStartDate);
         boolean isNinetyDaysBeforeRentalEnd = _rentalEndDate.difference(startDate) <= MAX_RENTAL_DIFF_PERIOD;
 
         boolean isPriceGreaterOrEqual = price >= _price;
         boolean isNewTenantYounger = p.compareTo(_tenant) == -1;
 
-        if (isStartDateAfter && isNinetyDaysBeforeRentalEnd && isPriceGreaterOrEqual && isNewTenantYounger) {
-            _tenant = new Person(p);
-            _rentalStartDate = new Date(startDate);
-            _rentalEndDate = _rentalStartDate.addYearsToDate(DEFAULT_NEW_TENANT_LEASE_YEARS);
-            _price = price;
-            return true;
+        return (isStartDateAfter ? 0 : START_DATE_NOT_AFTER) | (isNinetyDaysBeforeRentalEnd ? 0 : OUTSIDE_WINDOW)
+                | (isPriceGreaterOrEqual ? 0 : PRICE_TOO_LOW) | (isNewTenantYounger ? 0 : TENANT_NOT_YOUNGER);
+    }
+
+    /**
+     * Changes the tenant like an accepted changeTenant, without checking the
+     * rules, measuring it or notifying the listeners.
+     * 
+     * @param startDate
+     * @param p
+     * @param price
+     */
+    void applyTenantChange(Date startDate, Person p, double price) {
+        _tenant = ImmutablePerson.of(p);
+        _rentalStartDate = Date.intern(startDate);
+        _rentalEndDate = Date.intern(_rentalStartDate.addYearsToDate(DEFAULT_NEW_TENANT_LEASE_YEARS));
+        _price = price;
+    }
+
+    /**
+     * Reports a changeTenant call to the metrics, if they are enabled.
+     * 
+     * @param nanos    time the call took
+     * @param failures the rules the bid failed, see tenantChangeFailures
+     */
+    static void reportTenantChange(long nanos, int failures) {
+        if (!METRICS_ENABLED) {
+            return;
+        }
+        if (failures == 0) {
+            _metrics.tenantChangeAccepted(nanos);
         } else {
-            return false;
+            _metrics.tenantChangeRejected(nanos, (failures & START_DATE_NOT_AFTER) != 0,
+                    (failures & OUTSIDE_WINDOW) != 0, (failures & PRICE_TOO_LOW) != 0,
+                    (failures & TENANT_NOT_YOUNGER) != 0);
         }
     }
 
@@ -351,38 +607,173 @@ public class Apartment {
 
     /**
      * Returns the tenant of the apartment.
+     * The returned person is shared and immutable.
      * 
      * @return tenant
      */
     public Person getTenant() {
-        return new Person(_tenant);
+        return _tenant;
     }
 
     /**
      * Returns the rental start date of the apartment.
+     * The returned date is shared and immutable.
      * 
      * @return rentalStartDate
      */
     public Date getRentalStartDate() {
-        return new Date(_rentalStartDate);
+        return _rentalStartDate;
     }
 
     /**
      * Returns the rental end date of the apartment.
+     * The returned date is shared and immutable.
      * 
      * @return rentalEndDate
      */
     public Date getRentalEndDate() {
-        return new Date(_rentalEndDate);
+        return _rentalEndDate;
     }
 
     /**
      * Returns a string representation of the apartment.
      */
     public String toString() {
-        return "Number of rooms: " + _noOfRooms + "\nArea: " + _area + "\nPrice: " + _price + " NIS" + "\nTenant name: "
-                + _tenant.getName()
-                + "\nRental start date: " + _rentalStartDate.toString() + "\nRental end date: "
-                + _rentalEndDate.toString();
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the string representation of the apartment.
+     * 
+     * @param out
+     * @throws IOException if out throws
+     */
+    public void appendTo(Appendable out) throws IOException {
+        out.append("Number of rooms: ");
+        TextFormat.appendInt(out, _noOfRooms);
+        out.append("\nArea: ");
+        TextFormat.appendDouble(out, _area);
+        out.append("\nPrice: ");
+        TextFormat.appendDouble(out, _price);
+        out.append(" NIS").append("\nTenant name: ").append(_tenant.getName()).append("\nRental start date: ");
+        _rentalStartDate.appendTo(out);
+        out.append("\nRental end date: ");
+        _rentalEndDate.appendTo(out);
+    }
+
+    /**
+     * Appends the string representation of the apartment.
+     * 
+     * @param sb
+     */
+    public void appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Writes the string representation of the apartment into the buffer as
+     * UTF-8, and returns the offset after it.
+     * 
+     * @param buf
+     * @param offset
+     * @return offset
+     */
+    public int writeTo(byte[] buf, int offset) {
+        offset = TextFormat.writeUtf8(buf, offset, "Number of rooms: ");
+        offset = TextFormat.writeInt(buf, offset, _noOfRooms);
+        offset = TextFormat.writeUtf8(buf, offset, "\nArea: ");
+        offset = TextFormat.writeDouble(buf, offset, _area);
+        offset = TextFormat.writeUtf8(buf, offset, "\nPrice: ");
+        offset = TextFormat.writeDouble(buf, offset, _price);
+        offset = TextFormat.writeUtf8(buf, offset, " NIS\nTenant name: ");
+        offset = TextFormat.writeUtf8(buf, offset, _tenant.getName());
+        offset = TextFormat.writeUtf8(buf, offset, "\nRental start date: ");
+        offset = _rentalStartDate.writeTo(buf, offset);
+        offset = TextFormat.writeUtf8(buf, offset, "\nRental end date: ");
+        return _rentalEndDate.writeTo(buf, offset);
+    }
+
+    /**
+     * Writes the apartment into the buffer in binary form, with the tenant's
+     * name in full. Listeners aren't written.
+     * 
+     * @param buf
+     * @throws java.nio.BufferOverflowException if the apartment doesn't fit
+     */
+    public void writeTo(ByteBuffer buf) {
+        writeTo(buf, null);
+    }
+
+    /**
+     * Writes the apartment into the buffer in binary form: the number of rooms
+     * as a varint, the area and the price (see BinaryFormat.putDecimal), the
+     * tenant (see Person.writeTo), the rental start date and the days until the
+     * rental end date as a varint. Listeners aren't written.
+     * 
+     * @param buf
+     * @param names the dictionary of the stream, or null
+     * @throws java.nio.BufferOverflowException if the apartment doesn't fit
+     */
+    public void writeTo(ByteBuffer buf, NameDictionary names) {
+        BinaryFormat.putVarint(buf, _noOfRooms);
+        BinaryFormat.putDecimal(buf, _area);
+        BinaryFormat.putDecimal(buf, _price);
+        _tenant.writeTo(buf, names);
+        _rentalStartDate.writeTo(buf);
+        BinaryFormat.putVarint(buf, _rentalStartDate.difference(_rentalEndDate));
+    }
+
+    /**
+     * Reads an apartment written by writeTo(ByteBuffer), and moves the buffer's
+     * position past it.
+     * 
+     * @param buf
+     * @return Apartment
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the
+     *                                           apartment
+     * @throws IllegalArgumentException          if the bytes aren't an apartment
+     */
+    public static Apartment readFrom(ByteBuffer buf) {
+        return readFrom(buf, null);
+    }
+
+    /**
+     * Reads an apartment written by writeTo(ByteBuffer, NameDictionary), and
+     * moves the buffer's position past it.
+     * 
+     * @param buf
+     * @param names the dictionary of the stream, or null
+     * @return Apartment
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the
+     *                                           apartment
+     * @throws IllegalArgumentException          if the bytes aren't an apartment
+     */
+    public static Apartment readFrom(ByteBuffer buf, NameDictionary names) {
+        int noOfRooms = BinaryFormat.getVarint(buf);
+        double area = BinaryFormat.getDecimal(buf);
+        double price = BinaryFormat.getDecimal(buf);
+        // Also rejects NaN and a varint over Integer.MAX_VALUE
+        if (noOfRooms <= 0 || !(area > 0) || !(price > 0)) {
+            throw new IllegalArgumentException("Invalid rooms, area or price at position " + buf.position());
+        }
+        ImmutablePerson tenant = ImmutablePerson.readFrom(buf, names);
+        int startKey = BinaryFormat.getDate(buf);
+        int days = BinaryFormat.getVarint(buf);
+        int endKey = CalendarTable.fromEpochDay(DateCodec.toEpochDay(startKey) + days);
+        if (days <= 0 || endKey < 0) {
+            throw new IllegalArgumentException("Invalid rental period at position " + buf.position());
+        }
+        return new Apartment(noOfRooms, area, price, tenant, date(startKey), date(endKey));
+    }
+
+    private static ImmutableDate date(int key) {
+        return Date.of(DateCodec.dayOf(key), DateCodec.monthOf(key), DateCodec.yearOf(key));
     }
 }
@@ -0,0 +1,859 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * ApartmentChangeLog records every change of the apartments it tracks in an
+ * append-only binary file, so their state can be audited and rebuilt.
+ * Tracking an apartment writes a snapshot of it, and from then on the log
+ * listens to it and appends a record for every change of its fields, and for
+ * every changeTenant call with its outcome.
+ * Records are collected in a batch and written to the file together, followed
+ * by a single force, when the batch is full or on flush (group commit), so
+ * records are only durable after a flush.
+ * Replay rebuilds the apartments by applying the recorded values, without
+ * running the rules of the operations again. Compaction rewrites the log as
+ * one snapshot per apartment so replay time doesn't grow with the history.
+ * Every record carries a CRC32 checksum, and the log is cut at the first record
+ * that fails its check.
+ * A failure while recording a change (the batch can't be written) never
+ * escapes from the apartment's setter, whose change was already made: the
+ * partial record is rolled back, the log stops recording, and the failure is
+ * thrown by the next call to track, untrack, flush, compact or close.
+ * The log is not thread-safe.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentChangeLog implements ApartmentListener, Closeable {
+    private final Path _path;
+    private FileChannel _channel;
+    private ByteBuffer _batch;
+    private final int _compactEvery;
+    private final IdentityHashMap<Apartment, Integer> _ids = new IdentityHashMap<Apartment, Integer>();
+    private int _nextId;
+    private int _records;
+    private int _recordsSinceCompaction;
+
+    // Start of the record being written in the batch, or -1
+    private int _recordStart = -1;
+    // The first failure while recording a change, the log stops recording after it
+    private IOException _failure;
+
+    // Reused to compute record checksums without allocating
+    private final CRC32 _crc = new CRC32();
+
+    // File header: magic, version. Version 1 stored the name and ID lengths of a
+    // person in a byte, version 2 stores them as varints.
+    private static final int MAGIC = 0x41434c31; // "ACL1"
+    private static final int VERSION = 2;
+    private static final int BYTE_LENGTHS_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int VERSION_OFFSET = 4;
+
+    // Record: payload length, type, apartment id, payload, checksum of type to
+    // payload
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int CHECKSUM_SIZE = 4;
+
+    // Record types, dates are DateCodec keys
+    private static final byte SNAPSHOT = 1;
+    private static final byte PRICE = 2;
+    private static final byte TENANT = 3;
+    private static final byte RENTAL_PERIOD = 4;
+    private static final byte TENANT_CHANGE = 5;
+    private static final byte REMOVED = 6;
+    private static final byte NO_OF_ROOMS = 7;
+    private static final byte AREA = 8;
+
+    private static final int DEFAULT_BATCH_BYTES = 64 * 1024;
+    private static final int DEFAULT_COMPACT_EVERY = 1_000_000;
+
+    // Payload sizes, without the person fields
+    private static final int SNAPSHOT_SIZE = 28;
+    private static final int TENANT_CHANGE_SIZE = 13;
+    private static final int RENTAL_PERIOD_SIZE = 8;
+
+    // The person fields of the last prepared person (see preparePerson)
+    private byte[] _personName;
+    private byte[] _personId;
+
+    /**
+     * ApartmentChangeLog constructor takes an open channel positioned at the end
+     * of the valid records, call open to create one.
+     *
+     * @param path
+     * @param channel
+     * @param batchBytes
+     * @param compactEvery
+     */
+    private ApartmentChangeLog(Path path, FileChannel channel, int batchBytes, int compactEvery) {
+        _path = path;
+        _channel = channel;
+        _batch = ByteBuffer.allocateDirect(batchBytes);
+        _compactEvery = compactEvery;
+    }
+
+    /**
+     * Opens the log file with the default batch size and compaction interval,
+     * creating it if it doesn't exist.
+     *
+     * @param path
+     * @return ApartmentChangeLog
+     * @throws IOException if the file can't be opened or isn't a change log
+     */
+    public static ApartmentChangeLog open(Path path) throws IOException {
+        return open(path, DEFAULT_BATCH_BYTES, DEFAULT_COMPACT_EVERY);
+    }
+
+    /**
+     * Opens the log file, creating it if it doesn't exist. Records after the
+     * first damaged one are cut from the file.
+     * A log of an older version is rewritten in the current format.
+     * The log is compacted every compactEvery records, never if it's 0.
+     *
+     * @param path
+     * @param batchBytes
+     * @param compactEvery
+     * @return ApartmentChangeLog
+     * @throws IOException if the file can't be opened or isn't a change log
+     */
+    public static ApartmentChangeLog open(Path path, int batchBytes, int compactEvery) throws IOException {
+        if (batchBytes <= 0 || compactEvery < 0) {
+            throw new IllegalArgumentException("batchBytes must be positive and compactEvery not negative");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ApartmentChangeLog log = new ApartmentChangeLog(path, channel, batchBytes, compactEvery);
+            if (channel.size() == 0) {
+                log.writeHeader();
+            } else {
+                log.recover();
+            }
+            if (log.version() != VERSION) {
+                // Rewrite an older log in the current format before appending to it
+                log.compact();
+            }
+            return log;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the file header to the empty file.
+     *
+     * @throws IOException
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            _channel.write(header);
+        }
+        _channel.force(false);
+    }
+
+    /**
+     * Returns the version of the log file.
+     *
+     * @return version
+     * @throws IOException
+     */
+    private int version() throws IOException {
+        ByteBuffer version = ByteBuffer.allocate(Integer.BYTES);
+        _channel.read(version, VERSION_OFFSET);
+        return version.getInt(0);
+    }
+
+    /**
+     * Checks the records of an existing file, cuts it after the last valid
+     * record and continues the apartment ids after the ones in it.
+     *
+     * @throws IOException if the file isn't a change log
+     */
+    private void recover() throws IOException {
+        ByteBuffer file = read(_channel, _path);
+        Replay replay = new Replay(null, file.getInt(VERSION_OFFSET));
+        int end = replay.run(file, _crc);
+        _nextId = replay._maxId + 1;
+        _records = replay._records;
+        _recordsSinceCompaction = replay._records;
+        if (end != _channel.size()) {
+            _channel.truncate(end);
+            _channel.force(false);
+        }
+        _channel.position(end);
+    }
+
+    /**
+     * Reads the whole log file and checks its header.
+     *
+     * @param channel
+     * @param path
+     * @return the file's bytes
+     * @throws IOException if the file isn't a change log
+     */
+    private static ByteBuffer read(FileChannel channel, Path path) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+            throw new IOException("Not a change log file: " + path);
+        }
+        ByteBuffer file = ByteBuffer.allocate((int) size);
+        while (file.hasRemaining()) {
+            if (channel.read(file, file.position()) < 0) {
+                break;
+            }
+        }
+        file.flip();
+        int magic = file.getInt();
+        int version = file.getInt();
+        if (magic != MAGIC || version != VERSION && version != BYTE_LENGTHS_VERSION) {
+            throw new IOException("Not a change log file: " + path);
+        }
+        return file;
+    }
+
+    /**
+     * Starts tracking the apartment under a new id and returns the id.
+     *
+     * @param apartment
+     * @return id
+     * @throws IOException if the records can't be written
+     */
+    public int track(Apartment apartment) throws IOException {
+        int id = _nextId;
+        track(id, apartment);
+        return id;
+    }
+
+    /**
+     * Starts tracking the apartment under the id, for example an apartment
+     * rebuilt by replay. The apartment's current state is recorded as a
+     * snapshot, replacing the state of the id.
+     *
+     * @param id
+     * @param apartment
+     * @throws IOException if the records can't be written
+     */
+    public void track(int id, Apartment apartment) throws IOException {
+        checkFailure();
+        if (id < 0) {
+            throw new IllegalArgumentException("id must not be negative: " + id);
+        }
+        if (_ids.containsKey(apartment)) {
+            throw new IllegalArgumentException("Apartment is already tracked as " + _ids.get(apartment));
+        }
+        _ids.put(apartment, id);
+        _nextId = Math.max(_nextId, id + 1);
+        putSnapshot(id, apartment);
+        apartment.addListener(this);
+    }
+
+    /**
+     * Stops tracking the apartment and records its removal.
+     *
+     * @param apartment
+     * @throws IOException if the record can't be written
+     */
+    public void untrack(Apartment apartment) throws IOException {
+        checkFailure();
+        Integer id = _ids.remove(apartment);
+        if (id != null) {
+            apartment.removeListener(this);
+            begin(REMOVED, id, 0);
+            end();
+        }
+    }
+
+    /**
+     * Returns the number of tracked apartments.
+     *
+     * @return size
+     */
+    public int size() {
+        return _ids.size();
+    }
+
+    /**
+     * Returns the number of records in the log, including the ones not flushed
+     * yet.
+     *
+     * @return records
+     */
+    public int getRecordCount() {
+        return _records;
+    }
+
+    /**
+     * Records the new rental period of the apartment.
+     *
+     * @param apartment
+     */
+    public void rentalPeriodChanged(Apartment apartment) {
+        if (_failure != null) {
+            return;
+        }
+        try {
+            begin(RENTAL_PERIOD, _ids.get(apartment), RENTAL_PERIOD_SIZE);
+            _batch.putInt(DateCodec.pack(apartment.getRentalStartDate()));
+            _batch.putInt(DateCodec.pack(apartment.getRentalEndDate()));
+            end();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the new number of rooms of the apartment.
+     *
+     * @param apartment
+     */
+    public void noOfRoomsChanged(Apartment apartment) {
+        if (_failure != null) {
+            return;
+        }
+        try {
+            begin(NO_OF_ROOMS, _ids.get(apartment), Integer.BYTES);
+            _batch.putInt(apartment.getNoOfRooms());
+            end();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the new area of the apartment.
+     *
+     * @param apartment
+     */
+    public void areaChanged(Apartment apartment) {
+        if (_failure != null) {
+            return;
+        }
+        try {
+            begin(AREA, _ids.get(apartment), Double.BYTES);
+            _batch.putDouble(apartment.getArea());
+            end();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the new price of the apartment.
+     *
+     * @param apartment
+     */
+    public void priceChanged(Apartment apartment) {
+        if (_failure != null) {
+            return;
+        }
+        try {
+            begin(PRICE, _ids.get(apartment), Double.BYTES);
+            _batch.putDouble(apartment.getPrice());
+            end();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the new tenant of the apartment.
+     *
+     * @param apartment
+     */
+    public void tenantChanged(Apartment apartment) {
+        if (_failure != null) {
+            return;
+        }
+        try {
+            begin(TENANT, _ids.get(apartment), preparePerson(apartment.getTenant()));
+            putPerson(apartment.getTenant());
+            end();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the changeTenant call and its outcome. Replay doesn't apply it,
+     * the changes of an accepted call have their own records.
+     *
+     * @param apartment
+     * @param startDate
+     * @param p
+     * @param price
+     * @param accepted
+     */
+    public void tenantChangeRequested(Apartment apartment, Date startDate, Person p, double price,
+            boolean accepted) {
+        if (_failure != null) {
+            return;
+        }
+        try {
+            begin(TENANT_CHANGE, _ids.get(apartment), TENANT_CHANGE_SIZE + preparePerson(p));
+            _batch.put((byte) (accepted ? 1 : 0));
+            _batch.putInt(DateCodec.pack(startDate));
+            _batch.putDouble(price);
+            putPerson(p);
+            end();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Rolls back the record being written and keeps the failure, so it's thrown
+     * by the next call that can throw instead of by the apartment's setter.
+     *
+     * @param e
+     */
+    private void fail(Exception e) {
+        if (_recordStart >= 0) {
+            _batch.position(_recordStart);
+            _recordStart = -1;
+        }
+        _failure = e instanceof IOException ? (IOException) e : new IOException(e);
+    }
+
+    /**
+     * Throws the failure of an earlier change, if there was one. The records of
+     * the changes after it weren't written.
+     *
+     * @throws IOException
+     */
+    private void checkFailure() throws IOException {
+        if (_failure != null) {
+            throw new IOException("Change log stopped recording after a failure: " + _path, _failure);
+        }
+    }
+
+    /**
+     * Writes the snapshot record of the apartment.
+     *
+     * @param id
+     * @param apartment
+     * @throws IOException
+     */
+    private void putSnapshot(int id, Apartment apartment) throws IOException {
+        begin(SNAPSHOT, id, SNAPSHOT_SIZE + preparePerson(apartment.getTenant()));
+        _batch.putInt(apartment.getNoOfRooms());
+        _batch.putDouble(apartment.getArea());
+        _batch.putDouble(apartment.getPrice());
+        _batch.putInt(DateCodec.pack(apartment.getRentalStartDate()));
+        _batch.putInt(DateCodec.pack(apartment.getRentalEndDate()));
+        putPerson(apartment.getTenant());
+        end();
+    }
+
+    /**
+     * Encodes the name and the ID of the person for putPerson, and returns the
+     * size of the person fields.
+     *
+     * @param p
+     * @return size
+     */
+    private int preparePerson(Person p) {
+        _personName = p.getName().getBytes(StandardCharsets.UTF_8);
+        _personId = p.getId().getBytes(StandardCharsets.UTF_8);
+        return BinaryFormat.varintSize(_personName.length) + _personName.length
+                + BinaryFormat.varintSize(_personId.length) + _personId.length + Integer.BYTES;
+    }
+
+    /**
+     * Writes the person fields of a record: the name and the ID, each with a
+     * varint length, and the birth date. The person must be the one passed to
+     * preparePerson last.
+     *
+     * @param p
+     */
+    private void putPerson(Person p) {
+        BinaryFormat.putVarint(_batch, _personName.length);
+        _batch.put(_personName);
+        BinaryFormat.putVarint(_batch, _personId.length);
+        _batch.put(_personId);
+        _batch.putInt(DateCodec.pack(p.getDateOfBirth()));
+    }
+
+    /**
+     * Reads the length of a name or an ID in the version of the log.
+     *
+     * @param buf
+     * @param version
+     * @return length
+     */
+    private static int getLength(ByteBuffer buf, int version) {
+        int length = version == BYTE_LENGTHS_VERSION ? buf.get() & 0xFF : BinaryFormat.getVarint(buf);
+        if (length < 0 || length > buf.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    /**
+     * Reads the person fields of a record, as they were recorded.
+     *
+     * @param buf
+     * @param version
+     * @return ImmutablePerson
+     */
+    private static ImmutablePerson getPerson(ByteBuffer buf, int version) {
+        byte[] name = new byte[getLength(buf, version)];
+        buf.get(name);
+        byte[] id = new byte[getLength(buf, version)];
+        buf.get(id);
+        int birthDate = buf.getInt();
+        return ImmutablePerson.restore(new String(name, StandardCharsets.UTF_8),
+                new String(id, StandardCharsets.UTF_8), birthDate);
+    }
+
+    /**
+     * Starts a record with the payload size in the batch, writing the batch to
+     * the file first if the record doesn't fit, and growing it if the record is
+     * larger than the whole batch.
+     *
+     * @param type
+     * @param id
+     * @param payloadSize
+     * @throws IOException
+     */
+    private void begin(byte type, int id, int payloadSize) throws IOException {
+        int size = RECORD_HEADER_SIZE + payloadSize + CHECKSUM_SIZE;
+        if (_batch.remaining() < size) {
+            flush();
+            if (_batch.capacity() < size) {
+                _batch = ByteBuffer.allocateDirect(size);
+            }
+        }
+        _recordStart = _batch.position();
+        _batch.putInt(0);
+        _batch.put(type);
+        _batch.putInt(id);
+    }
+
+    /**
+     * Ends the record started by begin, filling in its length and checksum, and
+     * compacts the log when it's time to.
+     *
+     * @throws IOException
+     */
+    private void end() throws IOException {
+        int position = _batch.position();
+        int start = _recordStart;
+        _batch.putInt(start, position - start - RECORD_HEADER_SIZE);
+
+        ByteBuffer checked = _batch.duplicate();
+        checked.limit(position).position(start + Integer.BYTES);
+        _crc.reset();
+        _crc.update(checked);
+        _batch.position(position);
+        _batch.putInt((int) _crc.getValue());
+        _recordStart = -1;
+
+        _records++;
+        _recordsSinceCompaction++;
+        if (_compactEvery > 0 && _recordsSinceCompaction >= _compactEvery) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes the batch to the file and forces it to the disk.
+     *
+     * @throws IOException
+     */
+    private void write() throws IOException {
+        _batch.flip();
+        while (_batch.hasRemaining()) {
+            _channel.write(_batch);
+        }
+        _batch.clear();
+        _channel.force(false);
+    }
+
+    /**
+     * Writes the records collected so far to the file and forces them to the
+     * disk.
+     *
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        checkFailure();
+        if (_batch.position() > 0) {
+            write();
+        }
+    }
+
+    /**
+     * Rewrites the log as one snapshot per apartment. The new log is written
+     * next to the old one and moved over it, so a crash leaves one of them
+     * complete.
+     *
+     * @throws IOException
+     */
+    public void compact() throws IOException {
+        flush();
+        Map<Integer, Apartment> apartments = replay(_path);
+
+        Path compacted = _path.resolveSibling(_path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel previous = _channel;
+        int records = _records;
+        int recordsSinceCompaction = _recordsSinceCompaction;
+        _channel = channel;
+        _records = 0;
+        // Don't compact again while writing the snapshots
+        _recordsSinceCompaction = Integer.MIN_VALUE;
+        try {
+            writeHeader();
+            for (Map.Entry<Integer, Apartment> entry : apartments.entrySet()) {
+                putSnapshot(entry.getKey(), entry.getValue());
+            }
+            flush();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            _channel = previous;
+            _records = records;
+            _recordsSinceCompaction = recordsSinceCompaction;
+            throw e;
+        }
+        previous.close();
+        _channel.close();
+
+        Files.move(compacted, _path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        _channel = FileChannel.open(_path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        _channel.position(_channel.size());
+        _recordsSinceCompaction = 0;
+    }
+
+    /**
+     * Flushes the records and closes the file. The tracked apartments stop being
+     * recorded.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            for (Apartment apartment : _ids.keySet()) {
+                apartment.removeListener(this);
+            }
+            _ids.clear();
+            _channel.close();
+        }
+    }
+
+    /**
+     * Rebuilds the apartments of the log file, by id.
+     *
+     * @param path
+     * @return apartments
+     * @throws IOException if the file can't be read or isn't a change log
+     */
+    public static Map<Integer, Apartment> replay(Path path) throws IOException {
+        return replay(path, null);
+    }
+
+    /**
+     * Rebuilds the apartments of the log file, by id, and adds the listener to
+     * every apartment as soon as it's created, so it sees every recorded change
+     * and changeTenant call, for example to audit them.
+     *
+     * @param path
+     * @param listener
+     * @return apartments
+     * @throws IOException if the file can't be read or isn't a change log
+     */
+    public static Map<Integer, Apartment> replay(Path path, ApartmentListener listener) throws IOException {
+        ByteBuffer file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            file = read(channel, path);
+        }
+        Replay replay = new Replay(listener, file.getInt(VERSION_OFFSET));
+        replay.run(file, new CRC32());
+        if (listener != null) {
+            for (Apartment apartment : replay._apartments.values()) {
+                apartment.removeListener(listener);
+            }
+        }
+        return replay._apartments;
+    }
+
+    /**
+     * Applies the records of a log file in order.
+     */
+    private static class Replay {
+        private final ApartmentListener _listener;
+        private final int _version;
+        private final Map<Integer, Apartment> _apartments = new LinkedHashMap<Integer, Apartment>();
+
+        // The people read so far by their record bytes, tenants and bidders repeat
+        private final HashMap<ByteBuffer, ImmutablePerson> _people = new HashMap<ByteBuffer, ImmutablePerson>();
+        private int _maxId = -1;
+        private int _records;
+
+        private Replay(ApartmentListener listener, int version) {
+            _listener = listener;
+            _version = version;
+        }
+
+        /**
+         * Applies the valid records of the file, positioned after its header, and
+         * returns the offset after the last valid one.
+         *
+         * @param file
+         * @param crc
+         * @return offset
+         */
+        private int run(ByteBuffer file, CRC32 crc) {
+            int end = file.position();
+            while (file.remaining() >= RECORD_HEADER_SIZE + CHECKSUM_SIZE) {
+                int start = file.position();
+                int length = file.getInt();
+                // The rest of the record header, the payload and the checksum must be in the file
+                if (length < 0 || length > file.remaining() - (RECORD_HEADER_SIZE - Integer.BYTES) - CHECKSUM_SIZE) {
+                    break;
+                }
+                int checksumOffset = start + RECORD_HEADER_SIZE + length;
+                ByteBuffer checked = file.duplicate();
+                checked.limit(checksumOffset).position(start + Integer.BYTES);
+                crc.reset();
+                crc.update(checked);
+                if (file.getInt(checksumOffset) != (int) crc.getValue()) {
+                    break;
+                }
+
+                byte type = file.get();
+                int id = file.getInt();
+                ByteBuffer payload = file.slice(file.position(), length);
+                try {
+                    apply(type, id, payload);
+                } catch (BufferUnderflowException e) {
+                    break;
+                }
+                _maxId = Math.max(_maxId, id);
+                _records++;
+                file.position(checksumOffset + CHECKSUM_SIZE);
+                end = file.position();
+            }
+            return end;
+        }
+
+        private void apply(byte type, int id, ByteBuffer payload) {
+            if (type == SNAPSHOT) {
+                int rooms = payload.getInt();
+                double area = payload.getDouble();
+                double price = payload.getDouble();
+                int start = payload.getInt();
+                int end = payload.getInt();
+                Person tenant = person(payload);
+                Apartment apartment = new Apartment(rooms, area, price, tenant, DateCodec.dayOf(start),
+                        DateCodec.monthOf(start), DateCodec.yearOf(start), DateCodec.dayOf(end),
+                        DateCodec.monthOf(end), DateCodec.yearOf(end));
+                Apartment previous = _apartments.put(id, apartment);
+                if (_listener != null) {
+                    if (previous != null) {
+                        previous.removeListener(_listener);
+                    }
+                    apartment.addListener(_listener);
+                }
+                return;
+            }
+
+            Apartment apartment = _apartments.get(id);
+            if (apartment == null) {
+                return;
+            }
+            if (type == PRICE) {
+                apartment.setPrice(payload.getDouble());
+            } else if (type == NO_OF_ROOMS) {
+                apartment.setNoOfRooms(payload.getInt());
+            } else if (type == AREA) {
+                apartment.setArea(payload.getDouble());
+            } else if (type == TENANT) {
+                apartment.setTenant(person(payload));
+            } else if (type == RENTAL_PERIOD) {
+                setRentalPeriod(apartment, payload.getInt(), payload.getInt());
+            } else if (type == TENANT_CHANGE && _listener != null) {
+                // Only the listener needs these, they don't change the apartment
+                boolean accepted = payload.get() != 0;
+                Date startDate = date(payload.getInt());
+                double price = payload.getDouble();
+                _listener.tenantChangeRequested(apartment, startDate, person(payload), price, accepted);
+            } else if (type == REMOVED) {
+                _apartments.remove(id);
+                if (_listener != null) {
+                    apartment.removeListener(_listener);
+                }
+            }
+        }
+
+        /**
+         * Reads the person fields of a record, reusing the person of earlier records
+         * with the same bytes.
+         *
+         * @param payload
+         * @return ImmutablePerson
+         */
+        private ImmutablePerson person(ByteBuffer payload) {
+            int position = payload.position();
+            int nameLength = getLength(payload, _version);
+            payload.position(payload.position() + nameLength);
+            int idLength = getLength(payload, _version);
+            payload.position(payload.position() + idLength);
+            if (payload.remaining() < Integer.BYTES) {
+                throw new BufferUnderflowException();
+            }
+            payload.position(payload.position() + Integer.BYTES);
+            ByteBuffer bytes = payload.slice(position, payload.position() - position);
+
+            ImmutablePerson p = _people.get(bytes);
+            if (p == null) {
+                payload.position(position);
+                p = getPerson(payload, _version);
+                _people.put(bytes, p);
+            }
+            return p;
+        }
+
+        /**
+         * Sets both rental dates, in the order that keeps the start before the end
+         * after each setter.
+         *
+         * @param apartment
+         * @param start
+         * @param end
+         */
+        private static void setRentalPeriod(Apartment apartment, int start, int end) {
+            if (DateCodec.compare(start, DateCodec.pack(apartment.getRentalEndDate())) < 0) {
+                apartment.setRentalStartDate(date(start));
+                apartment.setRentalEndDate(date(end));
+            } else {
+                apartment.setRentalEndDate(date(end));
+                apartment.setRentalStartDate(date(start));
+            }
+        }
+
+        private static Date date(int key) {
+            return Date.of(DateCodec.dayOf(key), DateCodec.monthOf(key), DateCodec.yearOf(key));
+        }
+    }
+}
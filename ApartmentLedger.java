@@ -0,0 +1,603 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * ApartmentLedger persists apartments as fixed-width binary records in a
+ * memory-mapped file. Fields are read from and updated in the mapped file
+ * directly, and reopening the file maps the existing records instead of
+ * rebuilding them.
+ * Every record carries a CRC32 checksum. An update first writes the whole new
+ * record to a journal slot in the header and flushes it, and only then
+ * overwrites the record, so when a ledger is opened a record torn by a crash
+ * is restored from the journal. Records that still fail their check are
+ * damaged: damaged records at the end of the file (a torn append) are dropped,
+ * and damaged records followed by valid ones are kept as damaged rows, so the
+ * rows after them stay readable.
+ * The tenant's ID and name are kept as UTF-8 in the record, so together they
+ * can take up to MAX_TENANT_BYTES bytes (a 9 digit ID leaves 208 bytes for the
+ * name, 104 Hebrew letters), and tenants are read back as they were written.
+ * The ledger is not thread-safe.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentLedger implements Closeable {
+    private final FileChannel _channel;
+    private MappedByteBuffer _buffer;
+    private int _size;
+    private int _droppedRecords;
+    private final BitSet _damaged = new BitSet();
+
+    // Reused to compute record checksums without allocating
+    private final CRC32 _crc = new CRC32();
+    private ByteBuffer _crcView;
+
+    // The tenant fields of the last prepared tenant (see prepareTenant)
+    private byte[] _tenantId;
+    private byte[] _tenantName;
+
+    // File header: magic, version, record size, record count and the journal,
+    // the row being updated (and its complement, so a torn row number is seen)
+    // and the new record of that row
+    private static final int MAGIC = 0x41505431; // "APT1"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 288;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int JOURNAL_ROW_OFFSET = 16;
+    private static final int JOURNAL_CHECK_OFFSET = 20;
+    private static final int JOURNAL_OFFSET = 32;
+    private static final int NO_JOURNAL_ROW = -1;
+
+    // Record layout, dates are DateCodec keys, the ID's UTF-8 bytes are
+    // followed by the name's
+    private static final int ROOMS_OFFSET = 0;
+    private static final int AREA_OFFSET = 4;
+    private static final int PRICE_OFFSET = 12;
+    private static final int START_OFFSET = 20;
+    private static final int END_OFFSET = 24;
+    private static final int BIRTH_OFFSET = 28;
+    private static final int ID_LENGTH_OFFSET = 32;
+    private static final int NAME_LENGTH_OFFSET = 33;
+    private static final int TEXT_OFFSET = 35;
+    private static final int CRC_OFFSET = 252;
+    private static final int RECORD_SIZE = 256;
+
+    /**
+     * The most UTF-8 bytes the tenant's ID and name can take together.
+     */
+    public static final int MAX_TENANT_BYTES = CRC_OFFSET - TEXT_OFFSET;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int MAX_RENTAL_DIFF_PERIOD = 90;
+    private static final int DEFAULT_NEW_TENANT_LEASE_YEARS = 1;
+    private static final int MIN_RENTAL_PREIOD_EXTENSION = 0;
+    private static final double MIN_PRICE = 0;
+
+    /**
+     * ApartmentLedger constructor maps the file, call open to create one.
+     *
+     * @param channel
+     * @param capacity
+     * @throws IOException
+     */
+    private ApartmentLedger(FileChannel channel, int capacity) throws IOException {
+        _channel = channel;
+        map(capacity);
+    }
+
+    /**
+     * Opens the ledger file, creating it if it doesn't exist.
+     * An existing file is mapped and checked, an update torn by a crash is
+     * completed from the journal and damaged records are dropped (at the end of
+     * the file) or marked damaged.
+     *
+     * @param path
+     * @return ApartmentLedger
+     * @throws IOException if the file can't be opened or isn't a ledger file
+     */
+    public static ApartmentLedger open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                ApartmentLedger ledger = new ApartmentLedger(channel, DEFAULT_CAPACITY);
+                ledger.writeHeader();
+                return ledger;
+            }
+
+            long capacity = (fileSize - HEADER_SIZE) / RECORD_SIZE;
+            if (fileSize < HEADER_SIZE || capacity > Integer.MAX_VALUE) {
+                throw new IOException("Not a ledger file: " + path);
+            }
+            ApartmentLedger ledger = new ApartmentLedger(channel, Math.max(1, (int) capacity));
+            ledger.recover(path);
+            return ledger;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the header and the given number of records.
+     *
+     * @param capacity
+     * @throws IOException
+     */
+    private void map(int capacity) throws IOException {
+        _buffer = _channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        _crcView = _buffer.duplicate();
+    }
+
+    /**
+     * Writes the file header with the current record count.
+     */
+    private void writeHeader() {
+        _buffer.putInt(MAGIC_OFFSET, MAGIC);
+        _buffer.putInt(VERSION_OFFSET, VERSION);
+        _buffer.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+        _buffer.putInt(COUNT_OFFSET, _size);
+        _buffer.putInt(JOURNAL_ROW_OFFSET, NO_JOURNAL_ROW);
+        _buffer.putInt(JOURNAL_CHECK_OFFSET, NO_JOURNAL_ROW);
+        _buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Checks the header and the records of an existing file.
+     *
+     * @param path
+     * @throws IOException if the file isn't a ledger file
+     */
+    private void recover(Path path) throws IOException {
+        if (_buffer.getInt(MAGIC_OFFSET) != MAGIC || _buffer.getInt(VERSION_OFFSET) != VERSION
+                || _buffer.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+            throw new IOException("Not a ledger file: " + path);
+        }
+
+        int count = Math.min(_buffer.getInt(COUNT_OFFSET), capacity());
+
+        // Complete an update that was journaled but maybe not written in place
+        int journalRow = _buffer.getInt(JOURNAL_ROW_OFFSET);
+        if (journalRow >= 0 && journalRow < count && _buffer.getInt(JOURNAL_CHECK_OFFSET) == ~journalRow
+                && isValid(JOURNAL_OFFSET)) {
+            copyJournal(journalRow);
+        }
+
+        // Only damaged records at the end are dropped, the rows after a damaged
+        // record in the middle are still good
+        int size = count;
+        while (size > 0 && !isValid(offset(size - 1))) {
+            size--;
+        }
+        for (int row = 0; row < size; row++) {
+            if (!isValid(offset(row))) {
+                _damaged.set(row);
+            }
+        }
+
+        _size = size;
+        _droppedRecords = count - size;
+        writeHeader();
+    }
+
+    /**
+     * Checks the checksum of the record at the offset.
+     *
+     * @param offset
+     * @return true if valid, false otherwise
+     */
+    private boolean isValid(int offset) {
+        return _buffer.getInt(offset + CRC_OFFSET) == checksum(offset);
+    }
+
+    /**
+     * Returns the number of records the current mapping can hold.
+     *
+     * @return capacity
+     */
+    private int capacity() {
+        return (_buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * Returns the offset of the record in the mapped file.
+     *
+     * @param row
+     * @return offset
+     */
+    private int offset(int row) {
+        return HEADER_SIZE + row * RECORD_SIZE;
+    }
+
+    /**
+     * Computes the checksum of the record at the offset, without its checksum
+     * field.
+     *
+     * @param offset
+     * @return checksum
+     */
+    private int checksum(int offset) {
+        _crcView.limit(offset + CRC_OFFSET).position(offset);
+        _crc.reset();
+        _crc.update(_crcView);
+        return (int) _crc.getValue();
+    }
+
+    /**
+     * Updates the checksum of the record and flushes it to the file.
+     *
+     * @param row
+     */
+    private void commit(int row) {
+        _buffer.putInt(offset(row) + CRC_OFFSET, checksum(offset(row)));
+        _buffer.force(offset(row), RECORD_SIZE);
+    }
+
+    /**
+     * Copies the record of the row to the journal, where the update is made,
+     * and returns the journal's offset.
+     *
+     * @param row
+     * @return offset
+     */
+    private int beginUpdate(int row) {
+        _buffer.put(JOURNAL_OFFSET, _buffer, offset(row), RECORD_SIZE);
+        return JOURNAL_OFFSET;
+    }
+
+    /**
+     * Flushes the updated record in the journal with the row it belongs to, then
+     * writes it over the record of the row and clears the journal. A crash at
+     * any point leaves either the old record or a journal to complete it from.
+     *
+     * @param row
+     */
+    private void commitUpdate(int row) {
+        _buffer.putInt(JOURNAL_OFFSET + CRC_OFFSET, checksum(JOURNAL_OFFSET));
+        _buffer.putInt(JOURNAL_ROW_OFFSET, row);
+        _buffer.putInt(JOURNAL_CHECK_OFFSET, ~row);
+        _buffer.force(0, HEADER_SIZE);
+
+        copyJournal(row);
+
+        _buffer.putInt(JOURNAL_ROW_OFFSET, NO_JOURNAL_ROW);
+        _buffer.putInt(JOURNAL_CHECK_OFFSET, NO_JOURNAL_ROW);
+        _buffer.force(0, HEADER_SIZE);
+    }
+
+    /**
+     * Writes the journal's record over the record of the row and flushes it.
+     *
+     * @param row
+     */
+    private void copyJournal(int row) {
+        _buffer.put(offset(row), _buffer, JOURNAL_OFFSET, RECORD_SIZE);
+        _buffer.force(offset(row), RECORD_SIZE);
+        _damaged.clear(row);
+    }
+
+    /**
+     * Throws if the row id is not in the ledger.
+     *
+     * @param row
+     */
+    private void checkRow(int row) {
+        if (row < 0 || row >= _size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of bounds for size " + _size);
+        }
+        if (_damaged.get(row)) {
+            throw new IllegalStateException("row " + row + " is damaged");
+        }
+    }
+
+    /**
+     * Encodes the ID and the name of the tenant for putTenant, checking that
+     * they fit in a record before anything is written.
+     *
+     * @param p
+     * @throws IllegalArgumentException if they take more than MAX_TENANT_BYTES
+     */
+    private void prepareTenant(Person p) {
+        byte[] id = p.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] name = p.getName().getBytes(StandardCharsets.UTF_8);
+        if (id.length + name.length > MAX_TENANT_BYTES) {
+            throw new IllegalArgumentException("ID and name are longer than " + MAX_TENANT_BYTES + " bytes: "
+                    + p.getId() + ", " + p.getName());
+        }
+        _tenantId = id;
+        _tenantName = name;
+    }
+
+    /**
+     * Writes the tenant fields of the record, with the person prepared by
+     * prepareTenant last.
+     *
+     * @param offset
+     * @param p
+     */
+    private void putTenant(int offset, Person p) {
+        _buffer.putInt(offset + BIRTH_OFFSET, DateCodec.pack(p.getDateOfBirth()));
+        _buffer.put(offset + ID_LENGTH_OFFSET, (byte) _tenantId.length);
+        _buffer.putShort(offset + NAME_LENGTH_OFFSET, (short) _tenantName.length);
+        _buffer.put(offset + TEXT_OFFSET, _tenantId);
+        _buffer.put(offset + TEXT_OFFSET + _tenantId.length, _tenantName);
+    }
+
+    /**
+     * Appends the apartment to the ledger and returns its row id.
+     * The record is flushed before the record count is, so a crash never leaves
+     * the count pointing at a half written record.
+     *
+     * @param apartment
+     * @return row
+     * @throws IOException              if the file can't be grown
+     * @throws IllegalArgumentException if the tenant's ID and name take more
+     *                                  than MAX_TENANT_BYTES UTF-8 bytes, then
+     *                                  nothing is written
+     */
+    public int append(Apartment apartment) throws IOException {
+        prepareTenant(apartment.getTenant());
+        if (_size == capacity()) {
+            map(capacity() * 2);
+        }
+
+        int row = _size;
+        int offset = offset(row);
+        _buffer.putInt(offset + ROOMS_OFFSET, apartment.getNoOfRooms());
+        _buffer.putDouble(offset + AREA_OFFSET, apartment.getArea());
+        _buffer.putDouble(offset + PRICE_OFFSET, apartment.getPrice());
+        _buffer.putInt(offset + START_OFFSET, DateCodec.pack(apartment.getRentalStartDate()));
+        _buffer.putInt(offset + END_OFFSET, DateCodec.pack(apartment.getRentalEndDate()));
+        putTenant(offset, apartment.getTenant());
+        commit(row);
+
+        _size++;
+        _buffer.putInt(COUNT_OFFSET, _size);
+        _buffer.force(0, HEADER_SIZE);
+        return row;
+    }
+
+    /**
+     * Returns the number of apartments in the ledger.
+     *
+     * @return size
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Returns the number of damaged records dropped from the end of the ledger
+     * when it was opened.
+     *
+     * @return dropped records
+     */
+    public int getDroppedRecords() {
+        return _droppedRecords;
+    }
+
+    /**
+     * Returns the number of damaged rows, rows whose record failed its check
+     * when the ledger was opened but that are followed by valid rows. Reading or
+     * updating a damaged row throws IllegalStateException.
+     *
+     * @return damaged rows
+     */
+    public int getDamagedRows() {
+        return _damaged.cardinality();
+    }
+
+    /**
+     * Returns true if the row is damaged (see getDamagedRows).
+     *
+     * @param row
+     * @return boolean
+     */
+    public boolean isDamaged(int row) {
+        return _damaged.get(row);
+    }
+
+    /**
+     * Returns the number of rooms in the apartment of the row.
+     *
+     * @param row
+     * @return noOfRooms
+     */
+    public int getNoOfRooms(int row) {
+        checkRow(row);
+        return _buffer.getInt(offset(row) + ROOMS_OFFSET);
+    }
+
+    /**
+     * Returns the area of the apartment of the row.
+     *
+     * @param row
+     * @return area
+     */
+    public double getArea(int row) {
+        checkRow(row);
+        return _buffer.getDouble(offset(row) + AREA_OFFSET);
+    }
+
+    /**
+     * Returns the price of the apartment of the row.
+     *
+     * @param row
+     * @return price
+     */
+    public double getPrice(int row) {
+        checkRow(row);
+        return _buffer.getDouble(offset(row) + PRICE_OFFSET);
+    }
+
+    /**
+     * Returns the rental start date key (see DateCodec) of the row.
+     *
+     * @param row
+     * @return rentalStartDate key
+     */
+    public int getRentalStartKey(int row) {
+        checkRow(row);
+        return _buffer.getInt(offset(row) + START_OFFSET);
+    }
+
+    /**
+     * Returns the rental end date key (see DateCodec) of the row.
+     *
+     * @param row
+     * @return rentalEndDate key
+     */
+    public int getRentalEndKey(int row) {
+        checkRow(row);
+        return _buffer.getInt(offset(row) + END_OFFSET);
+    }
+
+    /**
+     * Returns the tenant of the apartment of the row, as it was written.
+     * The returned person is immutable.
+     *
+     * @param row
+     * @return tenant
+     */
+    public Person getTenant(int row) {
+        checkRow(row);
+        int offset = offset(row);
+
+        byte[] id = new byte[_buffer.get(offset + ID_LENGTH_OFFSET) & 0xFF];
+        byte[] name = new byte[_buffer.getShort(offset + NAME_LENGTH_OFFSET) & 0xFFFF];
+        _buffer.get(offset + TEXT_OFFSET, id);
+        _buffer.get(offset + TEXT_OFFSET + id.length, name);
+        int birthDate = _buffer.getInt(offset + BIRTH_OFFSET);
+
+        return ImmutablePerson.restore(new String(name, StandardCharsets.UTF_8),
+                new String(id, StandardCharsets.UTF_8), birthDate);
+    }
+
+    /**
+     * Creates a new Apartment object from the record of the row.
+     *
+     * @param row
+     * @return Apartment
+     */
+    public Apartment read(int row) {
+        int start = getRentalStartKey(row);
+        int end = getRentalEndKey(row);
+        return new Apartment(getNoOfRooms(row), getArea(row), getPrice(row), getTenant(row),
+                DateCodec.dayOf(start), DateCodec.monthOf(start), DateCodec.yearOf(start),
+                DateCodec.dayOf(end), DateCodec.monthOf(end), DateCodec.yearOf(end));
+    }
+
+    /**
+     * Sets the price of the row in place, if valid (same as Apartment.setPrice).
+     *
+     * @param row
+     * @param price
+     */
+    public void setPrice(int row, double price) {
+        checkRow(row);
+        if (price > MIN_PRICE) {
+            _buffer.putDouble(beginUpdate(row) + PRICE_OFFSET, price);
+            commitUpdate(row);
+        }
+    }
+
+    /**
+     * Extend the rental period of the row by years, in place (same as
+     * Apartment.extendRentalPeriod).
+     *
+     * @param row
+     * @param years
+     */
+    public void extendRentalPeriod(int row, int years) {
+        checkRow(row);
+        if (years > MIN_RENTAL_PREIOD_EXTENSION) {
+            int offset = beginUpdate(row);
+            _buffer.putInt(offset + END_OFFSET, DateCodec.addYears(_buffer.getInt(offset + END_OFFSET), years));
+            commitUpdate(row);
+        }
+    }
+
+    /**
+     * Accepts a row and a date and returns the number of days left until the end
+     * of the rental period, or -1 if the date is after it (same as
+     * Apartment.daysLeft).
+     *
+     * @param row
+     * @param d
+     * @return daysLeft
+     */
+    public int daysLeft(int row, Date d) {
+        int end = getRentalEndKey(row);
+        int date = DateCodec.pack(d);
+        if (DateCodec.compare(date, end) > 0) {
+            return -1;
+        } else {
+            return DateCodec.difference(end, date);
+        }
+    }
+
+    /**
+     * Accepts a row, date, person and price and changes the tenant in place under
+     * the same rules as Apartment.changeTenant.
+     *
+     * @param row
+     * @param startDate
+     * @param p
+     * @param price
+     * @return true if tenant was changed, false otherwise
+     * @throws IllegalArgumentException if the person's ID and name take more
+     *                                  than MAX_TENANT_BYTES UTF-8 bytes, then
+     *                                  the row isn't changed
+     */
+    public boolean changeTenant(int row, Date startDate, Person p, double price) {
+        checkRow(row);
+        prepareTenant(p);
+        int offset = offset(row);
+        int start = DateCodec.pack(startDate);
+
+        boolean isStartDateAfter = DateCodec.compare(start, _buffer.getInt(offset + START_OFFSET)) > 0;
+        boolean isNinetyDaysBeforeRentalEnd = DateCodec.difference(_buffer.getInt(offset + END_OFFSET),
+                start) <= MAX_RENTAL_DIFF_PERIOD;
+
+        boolean isPriceGreaterOrEqual = price >= _buffer.getDouble(offset + PRICE_OFFSET);
+
+        // A later birth date means a younger tenant
+        boolean isNewTenantYounger = DateCodec.compare(DateCodec.pack(p.getDateOfBirth()),
+                _buffer.getInt(offset + BIRTH_OFFSET)) > 0;
+
+        if (isStartDateAfter && isNinetyDaysBeforeRentalEnd && isPriceGreaterOrEqual && isNewTenantYounger) {
+            int journal = beginUpdate(row);
+            putTenant(journal, p);
+            _buffer.putInt(journal + START_OFFSET, start);
+            _buffer.putInt(journal + END_OFFSET, DateCodec.addYears(start, DEFAULT_NEW_TENANT_LEASE_YEARS));
+            _buffer.putDouble(journal + PRICE_OFFSET, price);
+            commitUpdate(row);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Flushes the ledger and closes the file.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        _buffer.force();
+        _channel.close();
+    }
+}
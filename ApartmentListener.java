@@ -0,0 +1,69 @@
+/**
+ * ApartmentListener is notified when an Apartment it was added to changes, so
+ * indexes over apartments can stay consistent with them.
+ * Only rentalPeriodChanged must be implemented, the other changes are ignored
+ * by default.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public interface ApartmentListener {
+
+    /**
+     * Called after the rental start or end date of the apartment changed, by
+     * setRentalStartDate, setRentalEndDate, extendRentalPeriod or changeTenant.
+     *
+     * @param apartment
+     */
+    void rentalPeriodChanged(Apartment apartment);
+
+    /**
+     * Called after the number of rooms of the apartment changed, by
+     * setNoOfRooms.
+     *
+     * @param apartment
+     */
+    default void noOfRoomsChanged(Apartment apartment) {
+    }
+
+    /**
+     * Called after the area of the apartment changed, by setArea.
+     *
+     * @param apartment
+     */
+    default void areaChanged(Apartment apartment) {
+    }
+
+    /**
+     * Called after the price of the apartment changed, by setPrice or
+     * changeTenant.
+     *
+     * @param apartment
+     */
+    default void priceChanged(Apartment apartment) {
+    }
+
+    /**
+     * Called after the tenant of the apartment changed, by setTenant or
+     * changeTenant.
+     *
+     * @param apartment
+     */
+    default void tenantChanged(Apartment apartment) {
+    }
+
+    /**
+     * Called after every changeTenant call with its arguments and whether the
+     * tenant was changed. An accepted change is reported after the tenant, price
+     * and rental period changes it made.
+     *
+     * @param apartment
+     * @param startDate
+     * @param p
+     * @param price
+     * @param accepted
+     */
+    default void tenantChangeRequested(Apartment apartment, Date startDate, Person p, double price,
+            boolean accepted) {
+    }
+}
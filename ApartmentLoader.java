@@ -0,0 +1,410 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * ApartmentLoader loads apartments from a CSV snapshot. The file is read
+ * through a FileChannel in fixed-size chunks cut at line ends, the chunks are
+ * parsed on worker threads, and the apartments are handed to the consumer on
+ * the calling thread in file order.
+ * At most two chunks per worker are in memory at once, so memory stays bounded
+ * whatever the file size.
+ * Each line holds rooms,area,price,name,id,birthDate,rentalStart,rentalEnd with
+ * dates in the dd/mm/yyyy format; names can't contain commas. Empty lines and
+ * lines starting with '#' are skipped.
+ * Every field is checked under the rules of Person and Apartment (a name, a 9
+ * character ID, valid dates, positive rooms, area and price and a rental start
+ * before its end), and a line that breaks them is malformed: the loader
+ * doesn't replace it with default values like the constructors do. Checked
+ * rows are built directly, into apartments or into the rows of a store.
+ * For a binary snapshot, ApartmentLedger maps its file instead of loading it.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentLoader {
+    /**
+     * Header line written by writeCsv.
+     */
+    public static final String HEADER = "#rooms,area,price,name,id,birthDate,rentalStart,rentalEnd";
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_WORKER = 2;
+    private static final int FIELDS = 8;
+    private static final byte SEPARATOR = ',';
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte COMMENT = '#';
+    private static final int ID_LENGTH = 9;
+
+    private ApartmentLoader() {
+    }
+
+    /**
+     * Loads the file with a worker per available processor.
+     *
+     * @param path
+     * @param consumer
+     * @return LoadReport
+     * @throws IOException
+     */
+    public static LoadReport load(Path path, Consumer<Apartment> consumer) throws IOException {
+        return load(path, consumer, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Loads the file into the store, adding its rows without building
+     * apartments.
+     *
+     * @param path
+     * @param store
+     * @return LoadReport
+     * @throws IOException
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static LoadReport load(Path path, ApartmentStore store) throws IOException {
+        return load(path, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, rows -> rows,
+                rows -> rows.addTo(store));
+    }
+
+    /**
+     * Loads the file with the given number of workers and chunk size. Lines must
+     * be shorter than the chunk size.
+     *
+     * @param path
+     * @param consumer
+     * @param workers
+     * @param chunkSize
+     * @return LoadReport
+     * @throws IOException
+     * @throws IllegalArgumentException if a line is malformed or longer than the
+     *                                  chunk size
+     */
+    public static LoadReport load(Path path, Consumer<Apartment> consumer, int workers, int chunkSize)
+            throws IOException {
+        return load(path, workers, chunkSize, Rows::toApartments, apartments -> {
+            for (Apartment apartment : apartments) {
+                consumer.accept(apartment);
+            }
+            return apartments.size();
+        });
+    }
+
+    /**
+     * Loads the file: the rows of each chunk are parsed and converted on a
+     * worker, and delivered on the calling thread in file order.
+     *
+     * @param path
+     * @param workers
+     * @param chunkSize
+     * @param convert   runs on the workers
+     * @param deliver   runs on the calling thread, returns the number of rows
+     * @return LoadReport
+     * @throws IOException
+     */
+    private static <T> LoadReport load(Path path, int workers, int chunkSize, Function<Rows, T> convert,
+            ToIntFunction<T> deliver) throws IOException {
+        long startTime = System.nanoTime();
+        long rows = 0;
+        long bytes = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        ArrayDeque<Future<T>> inFlight = new ArrayDeque<Future<T>>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(chunkSize);
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                int read = channel.read(buf);
+                endOfFile = read < 0;
+                bytes += Math.max(read, 0);
+
+                // Cut the chunk after its last complete line, the rest waits for the next read
+                int end = endOfFile ? buf.position() : lastLineEnd(buf);
+                if (end < 0) {
+                    if (!buf.hasRemaining()) {
+                        throw new IllegalArgumentException("Line longer than " + chunkSize + " bytes");
+                    }
+                    continue;
+                }
+                byte[] chunk = new byte[end];
+                buf.flip();
+                buf.get(chunk);
+                buf.compact();
+                inFlight.add(pool.submit(() -> convert.apply(parseChunk(chunk))));
+
+                if (inFlight.size() >= workers * CHUNKS_PER_WORKER) {
+                    rows += deliver.applyAsInt(await(inFlight.remove()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                rows += deliver.applyAsInt(await(inFlight.remove()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new LoadReport(rows, bytes, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Returns the number of bytes up to and including the last line end read
+     * into the buffer, or -1 if there is none.
+     *
+     * @param buf
+     * @return end
+     */
+    private static int lastLineEnd(ByteBuffer buf) {
+        for (int i = buf.position() - 1; i >= 0; i--) {
+            if (buf.get(i) == NEW_LINE) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Waits for a parsed chunk.
+     *
+     * @param future
+     * @return the converted rows of the chunk
+     * @throws IOException
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Parses the lines of a chunk.
+     *
+     * @param chunk
+     * @return rows
+     */
+    private static Rows parseChunk(byte[] chunk) {
+        Rows rows = new Rows();
+        ByteBuffer buf = ByteBuffer.wrap(chunk);
+        int[] fieldStarts = new int[FIELDS + 1];
+        int lineStart = 0;
+        while (lineStart < chunk.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < chunk.length && chunk[lineEnd] != NEW_LINE) {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && chunk[lineEnd - 1] == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart && chunk[lineStart] != COMMENT) {
+                parseLine(chunk, buf, lineStart, contentEnd, fieldStarts, rows);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return rows;
+    }
+
+    /**
+     * Parses and checks a single line and adds it to the rows.
+     *
+     * @param chunk
+     * @param buf         the chunk, for the date parser
+     * @param start
+     * @param end
+     * @param fieldStarts
+     * @param rows
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    private static void parseLine(byte[] chunk, ByteBuffer buf, int start, int end, int[] fieldStarts, Rows rows) {
+        // Find where the fields start, fieldStarts[FIELDS] is one past the end
+        int field = 0;
+        fieldStarts[field++] = start;
+        for (int i = start; i < end; i++) {
+            if (chunk[i] == SEPARATOR) {
+                if (field == FIELDS) {
+                    throw malformed(chunk, start, end);
+                }
+                fieldStarts[field++] = i + 1;
+            }
+        }
+        if (field != FIELDS) {
+            throw malformed(chunk, start, end);
+        }
+        fieldStarts[FIELDS] = end + 1;
+
+        try {
+            int noOfRooms = Integer.parseInt(field(chunk, fieldStarts, 0));
+            double area = Double.parseDouble(field(chunk, fieldStarts, 1));
+            double price = Double.parseDouble(field(chunk, fieldStarts, 2));
+            String name = field(chunk, fieldStarts, 3);
+            String id = field(chunk, fieldStarts, 4);
+            int birthDate = parseDate(chunk, buf, fieldStarts, 5);
+            int rentalStart = parseDate(chunk, buf, fieldStarts, 6);
+            int rentalEnd = parseDate(chunk, buf, fieldStarts, 7);
+
+            // The rules of the Person and Apartment setters, with NaN failing too
+            if (noOfRooms <= 0 || !(area > 0) || !(price > 0) || name.isEmpty() || id.length() != ID_LENGTH
+                    || DateCodec.compare(rentalStart, rentalEnd) >= 0) {
+                throw malformed(chunk, start, end);
+            }
+            rows.add(noOfRooms, area, price, ImmutablePerson.restore(name, id, birthDate), rentalStart, rentalEnd);
+        } catch (IllegalArgumentException e) {
+            throw malformed(chunk, start, end);
+        }
+    }
+
+    private static String field(byte[] chunk, int[] fieldStarts, int field) {
+        int start = fieldStarts[field];
+        return new String(chunk, start, fieldStarts[field + 1] - 1 - start, StandardCharsets.UTF_8);
+    }
+
+    private static int parseDate(byte[] chunk, ByteBuffer buf, int[] fieldStarts, int field) {
+        int start = fieldStarts[field];
+        if (fieldStarts[field + 1] - 1 - start != Date.FORMATTED_LENGTH) {
+            throw new IllegalArgumentException("Date must be in dd/mm/yyyy format");
+        }
+        buf.position(start);
+        int key = DateCodec.parse(buf);
+        // parse replaces an invalid date by the default one, which would change the row
+        if (!DateCodec.isValid(digits(chunk, start, 2), digits(chunk, start + 3, 2), digits(chunk, start + 6, 4))) {
+            throw new IllegalArgumentException("Invalid date");
+        }
+        return key;
+    }
+
+    private static int digits(byte[] chunk, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + chunk[i] - '0';
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException malformed(byte[] chunk, int start, int end) {
+        return new IllegalArgumentException("Malformed line: " + new String(chunk, start, end - start,
+                StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The checked rows of a chunk, as parallel arrays.
+     */
+    private static class Rows {
+        private int[] _noOfRooms = new int[INITIAL_ROWS];
+        private double[] _area = new double[INITIAL_ROWS];
+        private double[] _price = new double[INITIAL_ROWS];
+        private ImmutablePerson[] _tenants = new ImmutablePerson[INITIAL_ROWS];
+        private int[] _rentalStartDate = new int[INITIAL_ROWS];
+        private int[] _rentalEndDate = new int[INITIAL_ROWS];
+        private int _size;
+
+        private static final int INITIAL_ROWS = 1024;
+
+        void add(int noOfRooms, double area, double price, ImmutablePerson tenant, int rentalStartDate,
+                int rentalEndDate) {
+            if (_size == _noOfRooms.length) {
+                int capacity = _size * 2;
+                _noOfRooms = Arrays.copyOf(_noOfRooms, capacity);
+                _area = Arrays.copyOf(_area, capacity);
+                _price = Arrays.copyOf(_price, capacity);
+                _tenants = Arrays.copyOf(_tenants, capacity);
+                _rentalStartDate = Arrays.copyOf(_rentalStartDate, capacity);
+                _rentalEndDate = Arrays.copyOf(_rentalEndDate, capacity);
+            }
+            _noOfRooms[_size] = noOfRooms;
+            _area[_size] = area;
+            _price[_size] = price;
+            _tenants[_size] = tenant;
+            _rentalStartDate[_size] = rentalStartDate;
+            _rentalEndDate[_size] = rentalEndDate;
+            _size++;
+        }
+
+        /**
+         * Builds the apartments of the rows, without checking them again.
+         *
+         * @return apartments
+         */
+        List<Apartment> toApartments() {
+            List<Apartment> apartments = new ArrayList<Apartment>(_size);
+            for (int i = 0; i < _size; i++) {
+                apartments.add(new Apartment(_noOfRooms[i], _area[i], _price[i], _tenants[i],
+                        date(_rentalStartDate[i]), date(_rentalEndDate[i])));
+            }
+            return apartments;
+        }
+
+        /**
+         * Adds the rows to the store and returns their number.
+         *
+         * @param store
+         * @return rows
+         */
+        int addTo(ApartmentStore store) {
+            for (int i = 0; i < _size; i++) {
+                store.add(_noOfRooms[i], _area[i], _price[i], _tenants[i], _rentalStartDate[i], _rentalEndDate[i]);
+            }
+            return _size;
+        }
+
+        private static ImmutableDate date(int key) {
+            return Date.of(DateCodec.dayOf(key), DateCodec.monthOf(key), DateCodec.yearOf(key));
+        }
+    }
+
+    /**
+     * Writes the apartments as a CSV snapshot that load reads.
+     *
+     * @param path
+     * @param apartments
+     * @throws IOException
+     * @throws IllegalArgumentException if a tenant's name contains a comma or a
+     *                                  line break
+     */
+    public static void writeCsv(Path path, Iterable<Apartment> apartments) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write(NEW_LINE);
+            StringBuilder sb = new StringBuilder();
+            for (Apartment apartment : apartments) {
+                Person tenant = apartment.getTenant();
+                String name = tenant.getName();
+                if (name.indexOf(SEPARATOR) >= 0 || name.indexOf(NEW_LINE) >= 0 || name.indexOf(CARRIAGE_RETURN) >= 0) {
+                    throw new IllegalArgumentException("Name can't contain commas or line breaks: " + name);
+                }
+
+                sb.setLength(0);
+                sb.append(apartment.getNoOfRooms()).append(',').append(apartment.getArea()).append(',')
+                        .append(apartment.getPrice()).append(',').append(name).append(',').append(tenant.getId())
+                        .append(',');
+                tenant.getDateOfBirth().appendTo(sb);
+                sb.append(',');
+                apartment.getRentalStartDate().appendTo(sb);
+                sb.append(',');
+                apartment.getRentalEndDate().appendTo(sb);
+                sb.append('\n');
+                writer.append(sb);
+            }
+        }
+    }
+}
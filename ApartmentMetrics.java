@@ -0,0 +1,67 @@
+/**
+ * ApartmentMetrics receives measurements of the lease operations of every
+ * Apartment, see Apartment.setMetrics.
+ * Apartment only measures when the JVM runs with -Dapartment.metrics=true.
+ * Otherwise the measuring code is behind a constant false condition, so the JIT
+ * removes it and the operations cost the same as without metrics.
+ * Implementations are called from every thread that uses apartments, so they
+ * must be thread-safe.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public interface ApartmentMetrics {
+
+    /**
+     * Metrics that ignore every measurement.
+     */
+    ApartmentMetrics NO_OP = new ApartmentMetrics() {
+        public void tenantChangeAccepted(long nanos) {
+        }
+
+        public void tenantChangeRejected(long nanos, boolean startDateNotAfter, boolean outsideWindow,
+                boolean priceTooLow, boolean tenantNotYounger) {
+        }
+
+        public void daysLeftMeasured(long nanos) {
+        }
+
+        public void rentalPeriodExtended(long nanos) {
+        }
+    };
+
+    /**
+     * Called after changeTenant changed the tenant.
+     *
+     * @param nanos time the call took
+     */
+    void tenantChangeAccepted(long nanos);
+
+    /**
+     * Called after changeTenant rejected a tenant, with every rule the bid
+     * failed.
+     *
+     * @param nanos             time the call took
+     * @param startDateNotAfter the start date isn't after the rental start date
+     * @param outsideWindow     the start date is more than 90 days from the end
+     *                          of the rental period
+     * @param priceTooLow       the price is lower than the current price
+     * @param tenantNotYounger  the new tenant isn't younger than the current one
+     */
+    void tenantChangeRejected(long nanos, boolean startDateNotAfter, boolean outsideWindow, boolean priceTooLow,
+            boolean tenantNotYounger);
+
+    /**
+     * Called after daysLeft.
+     *
+     * @param nanos time the call took
+     */
+    void daysLeftMeasured(long nanos);
+
+    /**
+     * Called after extendRentalPeriod.
+     *
+     * @param nanos time the call took
+     */
+    void rentalPeriodExtended(long nanos);
+}
@@ -0,0 +1,151 @@
+/**
+ * ApartmentQuery is a search for ApartmentSearch. Every criterion is a range
+ * that includes its bounds, and a criterion that wasn't set matches every
+ * apartment.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentQuery {
+    private int _minNoOfRooms = Integer.MIN_VALUE;
+    private int _maxNoOfRooms = Integer.MAX_VALUE;
+    private double _minArea = Double.NEGATIVE_INFINITY;
+    private double _maxArea = Double.POSITIVE_INFINITY;
+    private double _minPrice = Double.NEGATIVE_INFINITY;
+    private double _maxPrice = Double.POSITIVE_INFINITY;
+    private Date _freeFrom;
+    private int _freeWithinDays;
+
+    /**
+     * Sets the range of the number of rooms.
+     *
+     * @param min
+     * @param max
+     */
+    public void setNoOfRooms(int min, int max) {
+        _minNoOfRooms = min;
+        _maxNoOfRooms = max;
+    }
+
+    /**
+     * Sets the range of the area.
+     *
+     * @param min
+     * @param max
+     */
+    public void setArea(double min, double max) {
+        _minArea = min;
+        _maxArea = max;
+    }
+
+    /**
+     * Sets the range of the price.
+     *
+     * @param min
+     * @param max
+     */
+    public void setPrice(double min, double max) {
+        _minPrice = min;
+        _maxPrice = max;
+    }
+
+    /**
+     * Only matches apartments whose rental period ends within the number of days
+     * after the date, or already ended (daysLeft of the date is at most days).
+     *
+     * @param d
+     * @param days
+     */
+    public void setFreeWithin(Date d, int days) {
+        _freeFrom = new Date(d);
+        _freeWithinDays = days;
+    }
+
+    /**
+     * Returns the minimal number of rooms.
+     *
+     * @return min
+     */
+    public int getMinNoOfRooms() {
+        return _minNoOfRooms;
+    }
+
+    /**
+     * Returns the maximal number of rooms.
+     *
+     * @return max
+     */
+    public int getMaxNoOfRooms() {
+        return _maxNoOfRooms;
+    }
+
+    /**
+     * Returns the minimal area.
+     *
+     * @return min
+     */
+    public double getMinArea() {
+        return _minArea;
+    }
+
+    /**
+     * Returns the maximal area.
+     *
+     * @return max
+     */
+    public double getMaxArea() {
+        return _maxArea;
+    }
+
+    /**
+     * Returns the minimal price.
+     *
+     * @return min
+     */
+    public double getMinPrice() {
+        return _minPrice;
+    }
+
+    /**
+     * Returns the maximal price.
+     *
+     * @return max
+     */
+    public double getMaxPrice() {
+        return _maxPrice;
+    }
+
+    /**
+     * Returns the date of the free within criterion, or null if it wasn't set.
+     *
+     * @return Date
+     */
+    public Date getFreeFrom() {
+        return _freeFrom == null ? null : new Date(_freeFrom);
+    }
+
+    /**
+     * Returns the days of the free within criterion.
+     *
+     * @return days
+     */
+    public int getFreeWithinDays() {
+        return _freeWithinDays;
+    }
+
+    /**
+     * Checks the apartment against the query with its getters, the way a search
+     * without indexes does.
+     *
+     * @param apartment
+     * @return true if the apartment matches, false otherwise
+     */
+    public boolean matches(Apartment apartment) {
+        int rooms = apartment.getNoOfRooms();
+        double area = apartment.getArea();
+        double price = apartment.getPrice();
+        return rooms >= _minNoOfRooms && rooms <= _maxNoOfRooms && area >= _minArea && area <= _maxArea
+                && price >= _minPrice && price <= _maxPrice
+                && (_freeFrom == null || apartment.daysLeft(_freeFrom) <= _freeWithinDays);
+    }
+}
@@ -0,0 +1,456 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ApartmentSearch finds the apartments that match an ApartmentQuery without
+ * testing every apartment.
+ * Every apartment gets a slot, and the slots are indexed per attribute: the
+ * number of rooms, which has few values, as a bitset of slots per value, and
+ * the area and the price as sorted arrays of values and slots. A query ORs the
+ * bitsets of its rooms range, ANDs them with the bitset of the narrower of its
+ * area and price ranges, and only tests the remaining criteria on the slots
+ * left, from primitive columns.
+ * The search listens to the apartments added to it and updates its indexes
+ * when their number of rooms, area, price or rental period change.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentSearch implements ApartmentListener {
+    // Slot columns
+    private Apartment[] _apartments;
+    private int[] _noOfRooms;
+    private double[] _area;
+    private double[] _price;
+    private int[] _rentalEndDay;
+    private int _slots;
+    private int[] _freeSlots;
+    private int _freeCount;
+
+    private final IdentityHashMap<Apartment, Integer> _slotOf = new IdentityHashMap<Apartment, Integer>();
+
+    // Indexes
+    private final TreeMap<Integer, BitSet> _byNoOfRooms = new TreeMap<Integer, BitSet>();
+    private final SortedColumn _byArea = new SortedColumn();
+    private final SortedColumn _byPrice = new SortedColumn();
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Values sorted with their slots, ties ordered by slot.
+     */
+    private static class SortedColumn {
+        private double[] _values = new double[DEFAULT_CAPACITY];
+        private int[] _slots = new int[DEFAULT_CAPACITY];
+        private int _size;
+
+        /**
+         * Returns the index of the entry, or of where it would be inserted.
+         *
+         * @param value
+         * @param slot
+         * @return index
+         */
+        private int indexOf(double value, int slot) {
+            int low = 0;
+            int high = _size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int compare = Double.compare(_values[middle], value);
+                if (compare < 0 || compare == 0 && _slots[middle] < slot) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void insert(double value, int slot) {
+            if (_size == _values.length) {
+                _values = Arrays.copyOf(_values, _size * 2);
+                _slots = Arrays.copyOf(_slots, _size * 2);
+            }
+            int index = indexOf(value, slot);
+            System.arraycopy(_values, index, _values, index + 1, _size - index);
+            System.arraycopy(_slots, index, _slots, index + 1, _size - index);
+            _values[index] = value;
+            _slots[index] = slot;
+            _size++;
+        }
+
+        private void remove(double value, int slot) {
+            int index = indexOf(value, slot);
+            System.arraycopy(_values, index + 1, _values, index, _size - index - 1);
+            System.arraycopy(_slots, index + 1, _slots, index, _size - index - 1);
+            _size--;
+        }
+
+        /**
+         * Changes the value of an entry, shifting only the entries between its old
+         * and new places.
+         *
+         * @param value
+         * @param newValue
+         * @param slot
+         */
+        private void move(double value, double newValue, int slot) {
+            int index = indexOf(value, slot);
+            int newIndex = indexOf(newValue, slot);
+            if (newIndex > index) {
+                // The entry itself is before the new place and leaves it
+                newIndex--;
+                System.arraycopy(_values, index + 1, _values, index, newIndex - index);
+                System.arraycopy(_slots, index + 1, _slots, index, newIndex - index);
+            } else {
+                System.arraycopy(_values, newIndex, _values, newIndex + 1, index - newIndex);
+                System.arraycopy(_slots, newIndex, _slots, newIndex + 1, index - newIndex);
+            }
+            _values[newIndex] = newValue;
+            _slots[newIndex] = slot;
+        }
+
+        /**
+         * Returns the index of the first value that is at least min.
+         *
+         * @param min
+         * @return index
+         */
+        private int from(double min) {
+            return indexOf(min, Integer.MIN_VALUE);
+        }
+
+        /**
+         * Returns the index after the last value that is at most max.
+         *
+         * @param max
+         * @return index
+         */
+        private int to(double max) {
+            return indexOf(max, Integer.MAX_VALUE);
+        }
+
+        private BitSet slots(int from, int to) {
+            BitSet slots = new BitSet();
+            for (int i = from; i < to; i++) {
+                slots.set(_slots[i]);
+            }
+            return slots;
+        }
+    }
+
+    /**
+     * ApartmentSearch constructor creates an empty search.
+     */
+    public ApartmentSearch() {
+        _apartments = new Apartment[DEFAULT_CAPACITY];
+        _noOfRooms = new int[DEFAULT_CAPACITY];
+        _area = new double[DEFAULT_CAPACITY];
+        _price = new double[DEFAULT_CAPACITY];
+        _rentalEndDay = new int[DEFAULT_CAPACITY];
+        _freeSlots = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Adds the apartment to the search. Adding an apartment twice has no effect.
+     *
+     * @param apartment
+     */
+    public void add(Apartment apartment) {
+        if (_slotOf.containsKey(apartment)) {
+            return;
+        }
+        int slot = _freeCount > 0 ? _freeSlots[--_freeCount] : newSlot();
+        _slotOf.put(apartment, slot);
+        _apartments[slot] = apartment;
+
+        _noOfRooms[slot] = apartment.getNoOfRooms();
+        roomsIndex(_noOfRooms[slot]).set(slot);
+        _area[slot] = apartment.getArea();
+        _byArea.insert(_area[slot], slot);
+        _price[slot] = apartment.getPrice();
+        _byPrice.insert(_price[slot], slot);
+        _rentalEndDay[slot] = epochDay(apartment.getRentalEndDate());
+
+        apartment.addListener(this);
+    }
+
+    /**
+     * Removes the apartment from the search.
+     *
+     * @param apartment
+     */
+    public void remove(Apartment apartment) {
+        Integer boxed = _slotOf.remove(apartment);
+        if (boxed == null) {
+            return;
+        }
+        int slot = boxed;
+        apartment.removeListener(this);
+        _byNoOfRooms.get(_noOfRooms[slot]).clear(slot);
+        _byArea.remove(_area[slot], slot);
+        _byPrice.remove(_price[slot], slot);
+        _apartments[slot] = null;
+
+        if (_freeCount == _freeSlots.length) {
+            _freeSlots = Arrays.copyOf(_freeSlots, _freeCount * 2);
+        }
+        _freeSlots[_freeCount++] = slot;
+    }
+
+    /**
+     * Returns the number of apartments in the search.
+     *
+     * @return size
+     */
+    public int size() {
+        return _slotOf.size();
+    }
+
+    /**
+     * Returns a new slot at the end of the columns, growing them when they are
+     * full.
+     *
+     * @return slot
+     */
+    private int newSlot() {
+        if (_slots == _apartments.length) {
+            int capacity = _slots * 2;
+            _apartments = Arrays.copyOf(_apartments, capacity);
+            _noOfRooms = Arrays.copyOf(_noOfRooms, capacity);
+            _area = Arrays.copyOf(_area, capacity);
+            _price = Arrays.copyOf(_price, capacity);
+            _rentalEndDay = Arrays.copyOf(_rentalEndDay, capacity);
+        }
+        return _slots++;
+    }
+
+    private BitSet roomsIndex(int noOfRooms) {
+        BitSet slots = _byNoOfRooms.get(noOfRooms);
+        if (slots == null) {
+            slots = new BitSet();
+            _byNoOfRooms.put(noOfRooms, slots);
+        }
+        return slots;
+    }
+
+    /**
+     * Moves the apartment to its new number of rooms.
+     *
+     * @param apartment
+     */
+    public void noOfRoomsChanged(Apartment apartment) {
+        Integer slot = _slotOf.get(apartment);
+        if (slot != null) {
+            _byNoOfRooms.get(_noOfRooms[slot]).clear(slot);
+            _noOfRooms[slot] = apartment.getNoOfRooms();
+            roomsIndex(_noOfRooms[slot]).set(slot);
+        }
+    }
+
+    /**
+     * Moves the apartment to its new area.
+     *
+     * @param apartment
+     */
+    public void areaChanged(Apartment apartment) {
+        Integer slot = _slotOf.get(apartment);
+        if (slot != null) {
+            double area = apartment.getArea();
+            _byArea.move(_area[slot], area, slot);
+            _area[slot] = area;
+        }
+    }
+
+    /**
+     * Moves the apartment to its new price.
+     *
+     * @param apartment
+     */
+    public void priceChanged(Apartment apartment) {
+        Integer slot = _slotOf.get(apartment);
+        if (slot != null) {
+            double price = apartment.getPrice();
+            _byPrice.move(_price[slot], price, slot);
+            _price[slot] = price;
+        }
+    }
+
+    /**
+     * Updates the rental end date of the apartment.
+     *
+     * @param apartment
+     */
+    public void rentalPeriodChanged(Apartment apartment) {
+        Integer slot = _slotOf.get(apartment);
+        if (slot != null) {
+            _rentalEndDay[slot] = epochDay(apartment.getRentalEndDate());
+        }
+    }
+
+    /**
+     * Returns the apartments that match the query.
+     *
+     * @param query
+     * @return apartments
+     */
+    public List<Apartment> find(ApartmentQuery query) {
+        BitSet slots = candidates(query);
+        List<Apartment> result = new ArrayList<Apartment>();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            result.add(_apartments[slot]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of apartments that match the query.
+     *
+     * @param query
+     * @return count
+     */
+    public int count(ApartmentQuery query) {
+        return candidates(query).cardinality();
+    }
+
+    /**
+     * Returns up to k apartments that match the query with the lowest price per
+     * square meter, from the lowest.
+     *
+     * @param query
+     * @param k
+     * @return apartments
+     */
+    public List<Apartment> cheapestPerMeter(ApartmentQuery query, int k) {
+        BitSet slots = candidates(query);
+        if (k <= 0) {
+            return new ArrayList<Apartment>();
+        }
+
+        // Max heap of the k lowest prices per meter seen so far
+        int[] heap = new int[Math.min(k, slots.cardinality())];
+        int size = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            if (size < heap.length) {
+                heap[size] = slot;
+                siftUp(heap, size++);
+            } else if (compareByPricePerMeter(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(heap, size);
+            }
+        }
+
+        Apartment[] result = new Apartment[size];
+        while (size > 0) {
+            result[size - 1] = _apartments[heap[0]];
+            heap[0] = heap[--size];
+            siftDown(heap, size);
+        }
+        return new ArrayList<Apartment>(Arrays.asList(result));
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compareByPricePerMeter(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compareByPricePerMeter(heap[left], heap[largest]) > 0) {
+                largest = left;
+            }
+            if (right < size && compareByPricePerMeter(heap[right], heap[largest]) > 0) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(heap, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+    }
+
+    /**
+     * Compares two slots by price per square meter, ties by slot.
+     *
+     * @param a
+     * @param b
+     * @return negative if a is cheaper per meter, 0 if the same slot, positive
+     *         otherwise
+     */
+    private int compareByPricePerMeter(int a, int b) {
+        int result = Double.compare(_price[a] / _area[a], _price[b] / _area[b]);
+        return result != 0 ? result : Integer.compare(a, b);
+    }
+
+    /**
+     * Returns the slots of the apartments that match the query.
+     *
+     * @param query
+     * @return slots
+     */
+    private BitSet candidates(ApartmentQuery query) {
+        BitSet slots = new BitSet();
+        if (query.getMinNoOfRooms() > query.getMaxNoOfRooms()) {
+            return slots;
+        }
+        for (Map.Entry<Integer, BitSet> entry : _byNoOfRooms
+                .subMap(query.getMinNoOfRooms(), true, query.getMaxNoOfRooms(), true).entrySet()) {
+            slots.or(entry.getValue());
+        }
+
+        // Only build the bitset of the narrower range, the other is tested per slot
+        int areaFrom = _byArea.from(query.getMinArea());
+        int areaTo = _byArea.to(query.getMaxArea());
+        int priceFrom = _byPrice.from(query.getMinPrice());
+        int priceTo = _byPrice.to(query.getMaxPrice());
+        boolean byArea = areaTo - areaFrom <= priceTo - priceFrom;
+        if (byArea) {
+            slots.and(_byArea.slots(areaFrom, areaTo));
+        } else {
+            slots.and(_byPrice.slots(priceFrom, priceTo));
+        }
+
+        Date freeFrom = query.getFreeFrom();
+        int lastEndDay = freeFrom == null ? 0 : epochDay(freeFrom) + query.getFreeWithinDays();
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            boolean matches = byArea ? _price[slot] >= query.getMinPrice() && _price[slot] <= query.getMaxPrice()
+                    : _area[slot] >= query.getMinArea() && _area[slot] <= query.getMaxArea();
+            if (!matches || freeFrom != null && _rentalEndDay[slot] > lastEndDay) {
+                slots.clear(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the day number of the date.
+     *
+     * @param d
+     * @return days
+     */
+    private static int epochDay(Date d) {
+        return DateCodec.toEpochDay(DateCodec.pack(d));
+    }
+}
@@ -0,0 +1,368 @@
+import java.util.Arrays;
+
+/**
+ * ApartmentStore keeps many apartments as parallel primitive arrays (one array
+ * per attribute) instead of one Apartment object graph per unit.
+ * Every apartment is addressed by its row id, and the store offers the same
+ * lease operations as Apartment over those rows.
+ * Rental dates are kept as DateCodec keys and tenants in a tenant table with a
+ * slot per row, where a new tenant of the row replaces the previous one.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentStore {
+    // Apartment columns
+    private int[] _noOfRooms;
+    private double[] _area;
+    private double[] _price;
+    private int[] _tenantIndex;
+    private int[] _rentalStartDate;
+    private int[] _rentalEndDate;
+    private int _size;
+
+    // Tenant table, rows point into it with _tenantIndex
+    private ImmutablePerson[] _tenants;
+    private int[] _tenantBirthDate;
+    private int _tenantCount;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MAX_RENTAL_DIFF_PERIOD = 90;
+    private static final int DEFAULT_NEW_TENANT_LEASE_YEARS = 1;
+    private static final int MIN_RENTAL_PREIOD_EXTENSION = 0;
+
+    // Bytes of a single row in the apartment columns:
+    // rooms (4) + area (8) + price (8) + tenant index (4) + start (4) + end (4)
+    private static final int ROW_BYTES = 32;
+
+    // Bytes of a single slot in the tenant table:
+    // person reference (4) + birth date (4)
+    private static final int TENANT_SLOT_BYTES = 8;
+
+    // Estimated bytes of an ImmutablePerson, its strings are not counted (same
+    // as in OBJECT_MODEL_BYTES_PER_UNIT)
+    private static final int PERSON_BYTES = 48;
+
+    /**
+     * Estimated bytes of a single unit in the object model, on a 64-bit JVM with
+     * compressed references: an Apartment (104, including its per-instance
+     * constant fields) and its own Person copy (48). Interned dates and the
+     * tenant's strings are shared and not counted.
+     */
+    public static final int OBJECT_MODEL_BYTES_PER_UNIT = 152;
+
+    /**
+     * ApartmentStore constructor creates an empty store.
+     */
+    public ApartmentStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * ApartmentStore constructor creates an empty store with room for the
+     * given number of apartments.
+     *
+     * @param capacity
+     */
+    public ApartmentStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        _noOfRooms = new int[capacity];
+        _area = new double[capacity];
+        _price = new double[capacity];
+        _tenantIndex = new int[capacity];
+        _rentalStartDate = new int[capacity];
+        _rentalEndDate = new int[capacity];
+        _tenants = new ImmutablePerson[capacity];
+        _tenantBirthDate = new int[capacity];
+    }
+
+    /**
+     * Adds a copy of the apartment to the store and returns its row id.
+     *
+     * @param apartment
+     * @return row
+     */
+    public int add(Apartment apartment) {
+        ensureRowCapacity();
+        int row = _size++;
+        _noOfRooms[row] = apartment.getNoOfRooms();
+        _area[row] = apartment.getArea();
+        _price[row] = apartment.getPrice();
+        _tenantIndex[row] = addTenant(apartment.getTenant());
+        _rentalStartDate[row] = DateCodec.pack(apartment.getRentalStartDate());
+        _rentalEndDate[row] = DateCodec.pack(apartment.getRentalEndDate());
+        return row;
+    }
+
+    /**
+     * Adds an apartment from values that were already checked (see
+     * ApartmentLoader) and returns its row id, without building an Apartment.
+     * Dates are DateCodec keys.
+     *
+     * @param noOfRooms
+     * @param area
+     * @param price
+     * @param tenant
+     * @param rentalStartDate
+     * @param rentalEndDate
+     * @return row
+     */
+    int add(int noOfRooms, double area, double price, ImmutablePerson tenant, int rentalStartDate,
+            int rentalEndDate) {
+        ensureRowCapacity();
+        int row = _size++;
+        _noOfRooms[row] = noOfRooms;
+        _area[row] = area;
+        _price[row] = price;
+        _tenantIndex[row] = addTenant(tenant);
+        _rentalStartDate[row] = rentalStartDate;
+        _rentalEndDate[row] = rentalEndDate;
+        return row;
+    }
+
+    /**
+     * Adds the person to the tenant table and returns its index. A mutable
+     * person is copied, an immutable one is shared.
+     *
+     * @param p
+     * @return tenant index
+     */
+    private int addTenant(Person p) {
+        if (_tenantCount == _tenants.length) {
+            int capacity = _tenants.length * 2;
+            _tenants = Arrays.copyOf(_tenants, capacity);
+            _tenantBirthDate = Arrays.copyOf(_tenantBirthDate, capacity);
+        }
+        int index = _tenantCount++;
+        setTenant(index, p);
+        return index;
+    }
+
+    /**
+     * Puts the person in the tenant slot.
+     *
+     * @param index
+     * @param p
+     */
+    private void setTenant(int index, Person p) {
+        _tenants[index] = ImmutablePerson.of(p);
+        _tenantBirthDate[index] = DateCodec.pack(p.getDateOfBirth());
+    }
+
+    /**
+     * Grows the apartment columns when they are full.
+     */
+    private void ensureRowCapacity() {
+        if (_size == _noOfRooms.length) {
+            int capacity = _noOfRooms.length * 2;
+            _noOfRooms = Arrays.copyOf(_noOfRooms, capacity);
+            _area = Arrays.copyOf(_area, capacity);
+            _price = Arrays.copyOf(_price, capacity);
+            _tenantIndex = Arrays.copyOf(_tenantIndex, capacity);
+            _rentalStartDate = Arrays.copyOf(_rentalStartDate, capacity);
+            _rentalEndDate = Arrays.copyOf(_rentalEndDate, capacity);
+        }
+    }
+
+    /**
+     * Throws if the row id is not in the store.
+     *
+     * @param row
+     */
+    private void checkRow(int row) {
+        if (row < 0 || row >= _size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of bounds for size " + _size);
+        }
+    }
+
+    /**
+     * Returns the number of apartments in the store.
+     *
+     * @return size
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Returns the number of rooms in the apartment of the row.
+     *
+     * @param row
+     * @return noOfRooms
+     */
+    public int getNoOfRooms(int row) {
+        checkRow(row);
+        return _noOfRooms[row];
+    }
+
+    /**
+     * Returns the area of the apartment of the row.
+     *
+     * @param row
+     * @return area
+     */
+    public double getArea(int row) {
+        checkRow(row);
+        return _area[row];
+    }
+
+    /**
+     * Returns the price of the apartment of the row.
+     *
+     * @param row
+     * @return price
+     */
+    public double getPrice(int row) {
+        checkRow(row);
+        return _price[row];
+    }
+
+    /**
+     * Returns the tenant of the apartment of the row.
+     * The returned person is shared and immutable.
+     *
+     * @param row
+     * @return tenant
+     */
+    public Person getTenant(int row) {
+        checkRow(row);
+        return _tenants[_tenantIndex[row]];
+    }
+
+    /**
+     * Returns the rental start date key (see DateCodec) of the row.
+     *
+     * @param row
+     * @return rentalStartDate key
+     */
+    public int getRentalStartKey(int row) {
+        checkRow(row);
+        return _rentalStartDate[row];
+    }
+
+    /**
+     * Returns the rental end date key (see DateCodec) of the row.
+     *
+     * @param row
+     * @return rentalEndDate key
+     */
+    public int getRentalEndKey(int row) {
+        checkRow(row);
+        return _rentalEndDate[row];
+    }
+
+    /**
+     * Accepts a row and a date and returns the number of days left until the end
+     * of the rental period, or -1 if the date is after it (same as
+     * Apartment.daysLeft).
+     *
+     * @param row
+     * @param d
+     * @return daysLeft
+     */
+    public int daysLeft(int row, Date d) {
+        checkRow(row);
+        int date = DateCodec.pack(d);
+        if (DateCodec.compare(date, _rentalEndDate[row]) > 0) {
+            return -1;
+        } else {
+            return DateCodec.difference(_rentalEndDate[row], date);
+        }
+    }
+
+    /**
+     * Extend the rental period of the row by years (same as
+     * Apartment.extendRentalPeriod).
+     *
+     * @param row
+     * @param years
+     */
+    public void extendRentalPeriod(int row, int years) {
+        checkRow(row);
+        if (years > MIN_RENTAL_PREIOD_EXTENSION) {
+            _rentalEndDate[row] = DateCodec.addYears(_rentalEndDate[row], years);
+        }
+    }
+
+    /**
+     * Accepts a row, date, person and price and changes the tenant under the same
+     * rules as Apartment.changeTenant.
+     * The new tenant takes the slot of the previous one, so the tenant table
+     * doesn't grow with every change.
+     *
+     * @param row
+     * @param startDate
+     * @param p
+     * @param price
+     * @return true if tenant was changed, false otherwise
+     */
+    public boolean changeTenant(int row, Date startDate, Person p, double price) {
+        checkRow(row);
+        int start = DateCodec.pack(startDate);
+        int end = _rentalEndDate[row];
+
+        boolean isStartDateAfter = DateCodec.compare(start, _rentalStartDate[row]) > 0;
+        boolean isNinetyDaysBeforeRentalEnd = DateCodec.difference(end, start) <= MAX_RENTAL_DIFF_PERIOD;
+
+        boolean isPriceGreaterOrEqual = price >= _price[row];
+
+        // A later birth date means a younger tenant
+        int birthDate = DateCodec.pack(p.getDateOfBirth());
+        boolean isNewTenantYounger = DateCodec.compare(birthDate, _tenantBirthDate[_tenantIndex[row]]) > 0;
+
+        if (isStartDateAfter && isNinetyDaysBeforeRentalEnd && isPriceGreaterOrEqual && isNewTenantYounger) {
+            setTenant(_tenantIndex[row], p);
+            _rentalStartDate[row] = start;
+            _rentalEndDate[row] = DateCodec.addYears(start, DEFAULT_NEW_TENANT_LEASE_YEARS);
+            _price[row] = price;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a new Apartment object with the values of the row.
+     *
+     * @param row
+     * @return Apartment
+     */
+    public Apartment toApartment(int row) {
+        checkRow(row);
+        int start = _rentalStartDate[row];
+        int end = _rentalEndDate[row];
+        return new Apartment(_noOfRooms[row], _area[row], _price[row], _tenants[_tenantIndex[row]],
+                DateCodec.dayOf(start), DateCodec.monthOf(start), DateCodec.yearOf(start),
+                DateCodec.dayOf(end), DateCodec.monthOf(end), DateCodec.yearOf(end));
+    }
+
+    /**
+     * Returns the bytes used per apartment by the apartment columns and the
+     * tenant table, counting the allocated capacity and not only the used
+     * rows, and the tenants themselves. Comparable with
+     * OBJECT_MODEL_BYTES_PER_UNIT, which counts the tenant copy of every unit.
+     *
+     * @return bytes per unit
+     */
+    public double bytesPerUnit() {
+        if (_size == 0) {
+            return 0;
+        }
+        long bytes = (long) _noOfRooms.length * ROW_BYTES + (long) _tenants.length * TENANT_SLOT_BYTES
+                + (long) _tenantCount * PERSON_BYTES;
+        return (double) bytes / _size;
+    }
+
+    /**
+     * Returns a string representation of the store's memory usage.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Apartments: " + _size + "\nTenants: " + _tenantCount + "\nBytes per unit: " + bytesPerUnit()
+                + "\nObject model bytes per unit: " + OBJECT_MODEL_BYTES_PER_UNIT;
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.List;
+
+/**
+ * BiddingLoadGenerator sends bids to a BiddingService from many client
+ * threads as fast as the service accepts them, and reports the sustained
+ * throughput and latency.
+ * Client i submits the bids i, i + clients, i + 2 * clients and so on, in
+ * order, so bids of an apartment that belong to the same client are applied
+ * in list order.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BiddingLoadGenerator {
+
+    private BiddingLoadGenerator() {
+    }
+
+    /**
+     * Resets the service's counters, submits the bids from the client threads,
+     * waits until they were all applied and returns the report.
+     *
+     * @param service
+     * @param bids
+     * @param clients
+     * @return BiddingLoadReport
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static BiddingLoadReport run(BiddingService service, List<TenantBid> bids, int clients)
+            throws InterruptedException {
+        if (clients <= 0) {
+            throw new IllegalArgumentException("clients must be positive: " + clients);
+        }
+        service.resetStats();
+        Thread[] threads = new Thread[clients];
+        long startTime = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = client; j < bids.size(); j += clients) {
+                        service.submit(bids.get(j));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "bidding-client-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        service.awaitIdle();
+        long nanos = System.nanoTime() - startTime;
+
+        LatencyHistogram latency = service.getLatency();
+        return new BiddingLoadReport(clients, service.getAccepted(), service.getRejected(), nanos,
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(99), latency.getMax());
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * BiddingLoadReport holds the totals of a BiddingLoadGenerator run.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BiddingLoadReport {
+    private final int _clients;
+    private final long _accepted;
+    private final long _rejected;
+    private final long _nanos;
+    private final long _p50Nanos;
+    private final long _p99Nanos;
+    private final long _maxNanos;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    BiddingLoadReport(int clients, long accepted, long rejected, long nanos, long p50Nanos, long p99Nanos,
+            long maxNanos) {
+        _clients = clients;
+        _accepted = accepted;
+        _rejected = rejected;
+        _nanos = nanos;
+        _p50Nanos = p50Nanos;
+        _p99Nanos = p99Nanos;
+        _maxNanos = maxNanos;
+    }
+
+    /**
+     * Returns the number of client threads.
+     *
+     * @return clients
+     */
+    public int getClients() {
+        return _clients;
+    }
+
+    /**
+     * Returns the number of bids applied.
+     *
+     * @return bids
+     */
+    public long getBids() {
+        return _accepted + _rejected;
+    }
+
+    /**
+     * Returns the number of bids that changed the tenant.
+     *
+     * @return accepted bids
+     */
+    public long getAccepted() {
+        return _accepted;
+    }
+
+    /**
+     * Returns the number of bids that were rejected.
+     *
+     * @return rejected bids
+     */
+    public long getRejected() {
+        return _rejected;
+    }
+
+    /**
+     * Returns the time the run took.
+     *
+     * @return nanoseconds
+     */
+    public long getNanos() {
+        return _nanos;
+    }
+
+    /**
+     * Returns the number of bids applied per second.
+     *
+     * @return bids per second
+     */
+    public double getBidsPerSecond() {
+        return _nanos == 0 ? 0 : getBids() * NANOS_PER_SECOND / _nanos;
+    }
+
+    /**
+     * Returns the median bid latency.
+     *
+     * @return nanoseconds
+     */
+    public long getP50Nanos() {
+        return _p50Nanos;
+    }
+
+    /**
+     * Returns the 99th percentile of the bid latency.
+     *
+     * @return nanoseconds
+     */
+    public long getP99Nanos() {
+        return _p99Nanos;
+    }
+
+    /**
+     * Returns the highest bid latency.
+     *
+     * @return nanoseconds
+     */
+    public long getMaxNanos() {
+        return _maxNanos;
+    }
+
+    /**
+     * Returns a string representation of the report.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Clients: " + _clients + "\nBids: " + getBids() + " (accepted " + _accepted + ", rejected "
+                + _rejected + ")\nTime: " + _nanos / NANOS_PER_SECOND * 1000 + " ms\nBids per second: "
+                + (long) getBidsPerSecond() + "\np50: " + _p50Nanos / NANOS_PER_MICRO + " us\np99: "
+                + _p99Nanos / NANOS_PER_MICRO + " us\nMax: " + _maxNanos / NANOS_PER_MICRO + " us";
+    }
+}
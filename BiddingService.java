@@ -0,0 +1,325 @@
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BiddingService accepts tenant bids from many client threads and applies
+ * them with Apartment.changeTenant.
+ * Bids are put in mailboxes, striped by apartment, and a mailbox is drained
+ * by one pool thread at a time. So the bids of an apartment are applied one
+ * at a time in the order they were submitted, while bids of other apartments
+ * run in parallel. The pool threads share no lock: the dates are interned in
+ * the lock-free DateCache and the statistics are adders.
+ * The mailboxes are meant to pay off with several processors, but that is
+ * unmeasured: it was only benchmarked on a single processor, where a global
+ * lock around changeTenant has more throughput (see BiddingServiceBenchmark).
+ * At most maxPending bids are in the service at once; submit blocks when it
+ * is full, so fast clients are slowed down instead of growing the queues.
+ * While the service runs, the apartments must only be changed through it.
+ * Listeners of the apartments are called on the pool threads.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BiddingService implements Closeable {
+    private final Mailbox[] _mailboxes;
+    private final int _mask;
+    private final ExecutorService _executor;
+    private final Semaphore _permits;
+    private final int _maxPending;
+    private final LatencyHistogram _latency = new LatencyHistogram();
+    private final LongAdder _accepted = new LongAdder();
+    private final LongAdder _rejected = new LongAdder();
+    private volatile boolean _closed;
+
+    // Bids a mailbox applies before it gives its thread to other mailboxes
+    private static final int DRAIN_BATCH = 64;
+    private static final int MIN_STRIPES = 256;
+    private static final int STRIPES_PER_THREAD = 64;
+
+    /**
+     * BiddingService with a thread per processor.
+     *
+     * @param maxPending
+     */
+    public BiddingService(int maxPending) {
+        this(Runtime.getRuntime().availableProcessors(), maxPending);
+    }
+
+    /**
+     * BiddingService accepts the number of pool threads and the maximal number
+     * of bids in the service at once.
+     *
+     * @param threads
+     * @param maxPending
+     * @throws IllegalArgumentException if threads or maxPending isn't positive
+     */
+    public BiddingService(int threads, int maxPending) {
+        if (threads <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("threads and maxPending must be positive: " + threads + ", "
+                    + maxPending);
+        }
+        int stripes = Integer.highestOneBit(Math.max(MIN_STRIPES, threads * STRIPES_PER_THREAD) * 2 - 1);
+        _mailboxes = new Mailbox[stripes];
+        for (int i = 0; i < stripes; i++) {
+            _mailboxes[i] = new Mailbox();
+        }
+        _mask = stripes - 1;
+        _maxPending = maxPending;
+        _permits = new Semaphore(maxPending);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        _executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "bidding-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submits the bid, waiting while the service is full. The future completes
+     * with the result of changeTenant once the bid was applied.
+     *
+     * @param bid
+     * @return future result
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if the service is closed
+     */
+    public CompletableFuture<Boolean> submit(TenantBid bid) throws InterruptedException {
+        long start = System.nanoTime();
+        checkOpen();
+        _permits.acquire();
+        return enqueue(bid, start);
+    }
+
+    /**
+     * Submits the bid if the service isn't full.
+     *
+     * @param bid
+     * @return future result, or null if the service is full
+     * @throws IllegalStateException if the service is closed
+     */
+    public CompletableFuture<Boolean> trySubmit(TenantBid bid) {
+        long start = System.nanoTime();
+        checkOpen();
+        if (!_permits.tryAcquire()) {
+            return null;
+        }
+        return enqueue(bid, start);
+    }
+
+    private void checkOpen() {
+        if (_closed) {
+            throw new IllegalStateException("BiddingService is closed");
+        }
+    }
+
+    /**
+     * Enqueues the bid, holding a permit. close waits for every permit, so if
+     * the service is still open now the pool can't stop before the bid was
+     * applied.
+     *
+     * @param bid
+     * @param start
+     * @return future result
+     * @throws IllegalStateException if the service was closed while waiting
+     */
+    private CompletableFuture<Boolean> enqueue(TenantBid bid, long start) {
+        if (_closed) {
+            _permits.release();
+            throw new IllegalStateException("BiddingService is closed");
+        }
+        Request request = new Request(bid, start);
+        Apartment apartment = bid.getApartment();
+        _mailboxes[spread(System.identityHashCode(apartment)) & _mask].add(request);
+        return request._result;
+    }
+
+    /**
+     * Spreads the identity hash so the low bits pick the stripe.
+     *
+     * @param hash
+     * @return spread hash
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Waits until every submitted bid was applied.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitIdle() throws InterruptedException {
+        _permits.acquire(_maxPending);
+        _permits.release(_maxPending);
+    }
+
+    /**
+     * Returns the number of bids submitted and not yet applied.
+     *
+     * @return pending bids
+     */
+    public int getPending() {
+        return _maxPending - _permits.availablePermits();
+    }
+
+    /**
+     * Returns the maximal number of bids in the service at once.
+     *
+     * @return maxPending
+     */
+    public int getMaxPending() {
+        return _maxPending;
+    }
+
+    /**
+     * Returns the number of bids that changed the tenant.
+     *
+     * @return accepted bids
+     */
+    public long getAccepted() {
+        return _accepted.sum();
+    }
+
+    /**
+     * Returns the number of bids that changeTenant rejected.
+     *
+     * @return rejected bids
+     */
+    public long getRejected() {
+        return _rejected.sum();
+    }
+
+    /**
+     * Returns the histogram of bid latencies in nanoseconds, from the call to
+     * submit (including the wait for room) until the bid was applied.
+     *
+     * @return LatencyHistogram
+     */
+    public LatencyHistogram getLatency() {
+        return _latency;
+    }
+
+    /**
+     * Resets the counters and the latency histogram.
+     */
+    public void resetStats() {
+        _accepted.reset();
+        _rejected.reset();
+        _latency.reset();
+    }
+
+    /**
+     * Stops accepting bids, applies the bids already submitted and stops the
+     * pool threads.
+     */
+    public void close() {
+        _closed = true;
+        try {
+            awaitIdle();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        _executor.shutdown();
+        try {
+            _executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A submitted bid and its result.
+     */
+    private static class Request {
+        private final TenantBid _bid;
+        private final long _start;
+        private final CompletableFuture<Boolean> _result = new CompletableFuture<Boolean>();
+
+        Request(TenantBid bid, long start) {
+            _bid = bid;
+            _start = start;
+        }
+    }
+
+    /**
+     * Mailbox of the apartments of a stripe. It is scheduled on the pool when a
+     * bid arrives and isn't already scheduled, so a single thread drains it at a
+     * time.
+     */
+    private class Mailbox implements Runnable {
+        private final Queue<Request> _queue = new ConcurrentLinkedQueue<Request>();
+        private final AtomicBoolean _scheduled = new AtomicBoolean();
+
+        void add(Request request) {
+            _queue.add(request);
+            if (_scheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        /**
+         * Runs the mailbox on the pool. If the pool was stopped, the bids left
+         * in the mailbox fail and give back their permits.
+         */
+        private void schedule() {
+            try {
+                _executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                _scheduled.set(false);
+                Request request;
+                while ((request = _queue.poll()) != null) {
+                    _permits.release();
+                    request._result.completeExceptionally(e);
+                }
+            }
+        }
+
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Request request = _queue.poll();
+                if (request == null) {
+                    _scheduled.set(false);
+                    // A bid added after the poll and before the reset found the
+                    // mailbox still scheduled, so take it over again
+                    if (_queue.isEmpty() || !_scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                apply(request);
+            }
+            schedule();
+        }
+
+        private void apply(Request request) {
+            TenantBid bid = request._bid;
+            boolean changed;
+            try {
+                changed = bid.getApartment().changeTenant(bid.getStartDate(), bid.getBidder(), bid.getPrice());
+            } catch (RuntimeException e) {
+                _permits.release();
+                request._result.completeExceptionally(e);
+                return;
+            }
+            if (changed) {
+                _accepted.increment();
+            } else {
+                _rejected.increment();
+            }
+            _latency.record(System.nanoTime() - request._start);
+            _permits.release();
+            request._result.complete(changed);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BinaryFormat holds the helpers used by Date, Person and Apartment to write
+ * themselves into a ByteBuffer in a compact binary form and read themselves
+ * back, for shipping units between processes.
+ * Integers are varints (7 bits per byte, low bits first), dates are day
+ * numbers in 2 or 3 bytes and prices and areas with up to two decimals are
+ * varints too. Strings are UTF-8 with a varint length.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BinaryFormat {
+    // A varint byte carries 7 bits, the high bit says another byte follows
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MAX_VARLONG_BYTES = 10;
+
+    // Dates around 1/1/2000 take 2 bytes: the high bit is 0 and 15 bits hold the
+    // zigzag distance from 1/1/2000 (1955-2044). Other dates take 3 bytes: the
+    // high bit is 1 and 23 bits hold the days since 1/1/1000.
+    private static final int NEAR_BASE_DAY = CalendarTable.epochDay(1, 1, 2000);
+    private static final int FAR_BASE_DAY = CalendarTable.epochDay(1, 1, 1000);
+    private static final int NEAR_LIMIT = 1 << 15;
+    private static final int FAR_FLAG = 1 << 23;
+    private static final int FAR_MASK = FAR_FLAG - 1;
+
+    // The two low bits of a decimal tell how the rest is stored
+    private static final int DECIMAL_INTEGER = 0;
+    private static final int DECIMAL_CENTS = 1;
+    private static final int DECIMAL_RAW = 2;
+    private static final int DECIMAL_TAG_BITS = 2;
+    private static final int DECIMAL_TAG_MASK = 3;
+    private static final double CENTS = 100;
+
+    // Larger magnitudes lose precision as a long, so they are stored raw
+    private static final long MAX_EXACT = 1L << 52;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Writes the int as an unsigned varint, 1-5 bytes.
+     *
+     * @param buf
+     * @param value
+     */
+    public static void putVarint(ByteBuffer buf, int value) {
+        while ((value & ~VARINT_MASK) != 0) {
+            buf.put((byte) (value & VARINT_MASK | VARINT_MORE));
+            value >>>= VARINT_BITS;
+        }
+        buf.put((byte) value);
+    }
+
+    /**
+     * Returns the number of bytes putVarint writes for the int.
+     *
+     * @param value
+     * @return bytes
+     */
+    public static int varintSize(int value) {
+        // Every 7 significant bits take a byte, 0 takes one too
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(value | 1) + VARINT_BITS - 1) / VARINT_BITS;
+    }
+
+    /**
+     * Reads an unsigned varint int.
+     *
+     * @param buf
+     * @return value
+     * @throws IllegalArgumentException if the varint is longer than 5 bytes
+     */
+    public static int getVarint(ByteBuffer buf) {
+        int value = 0;
+        for (int i = 0; i < MAX_VARINT_BYTES; i++) {
+            int b = buf.get();
+            value |= (b & VARINT_MASK) << (i * VARINT_BITS);
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long at position " + buf.position());
+    }
+
+    /**
+     * Writes the long as an unsigned varint, 1-10 bytes.
+     *
+     * @param buf
+     * @param value
+     */
+    public static void putVarlong(ByteBuffer buf, long value) {
+        while ((value & ~VARINT_MASK) != 0) {
+            buf.put((byte) (value & VARINT_MASK | VARINT_MORE));
+            value >>>= VARINT_BITS;
+        }
+        buf.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint long.
+     *
+     * @param buf
+     * @return value
+     * @throws IllegalArgumentException if the varint is longer than 10 bytes
+     */
+    public static long getVarlong(ByteBuffer buf) {
+        long value = 0;
+        for (int i = 0; i < MAX_VARLONG_BYTES; i++) {
+            int b = buf.get();
+            value |= (long) (b & VARINT_MASK) << (i * VARINT_BITS);
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long at position " + buf.position());
+    }
+
+    /**
+     * Maps a signed int to an unsigned one with small magnitudes first (0, -1,
+     * 1, -2...), so small negative numbers make short varints.
+     *
+     * @param value
+     * @return zigzag value
+     */
+    public static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Reverses zigzag.
+     *
+     * @param value
+     * @return signed value
+     */
+    public static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes a day number (see CalendarTable.epochDay) of a date in the years
+     * 1000-9999, in 2 bytes for 1955-2044 and 3 bytes otherwise.
+     *
+     * @param buf
+     * @param epochDay
+     */
+    public static void putDate(ByteBuffer buf, int epochDay) {
+        int near = zigzag(epochDay - NEAR_BASE_DAY);
+        if (near >= 0 && near < NEAR_LIMIT) {
+            buf.putShort((short) near);
+        } else {
+            int far = FAR_FLAG | (epochDay - FAR_BASE_DAY);
+            buf.put((byte) (far >>> 16));
+            buf.putShort((short) far);
+        }
+    }
+
+    /**
+     * Reads a date written by putDate and returns its key (see DateCodec).
+     *
+     * @param buf
+     * @return key
+     * @throws IllegalArgumentException if the date isn't in the years 1000-9999
+     */
+    public static int getDate(ByteBuffer buf) {
+        if (!buf.hasRemaining()) {
+            throw new BufferUnderflowException();
+        }
+        int first = buf.get(buf.position()) & 0xFF;
+        int epochDay;
+        if ((first & 0x80) == 0) {
+            epochDay = NEAR_BASE_DAY + unzigzag(buf.getShort() & 0xFFFF);
+        } else {
+            if (buf.remaining() < 3) {
+                throw new BufferUnderflowException();
+            }
+            buf.get();
+            epochDay = FAR_BASE_DAY + ((first << 16 | buf.getShort() & 0xFFFF) & FAR_MASK);
+        }
+        int key = CalendarTable.fromEpochDay(epochDay);
+        if (key < 0) {
+            throw new IllegalArgumentException("Date is out of range at position " + buf.position());
+        }
+        return key;
+    }
+
+    /**
+     * Writes a price or an area. Whole numbers and numbers with up to two
+     * decimals are varints, other values take 9 bytes. The value is read back
+     * exactly.
+     *
+     * @param buf
+     * @param value
+     */
+    public static void putDecimal(ByteBuffer buf, double value) {
+        long integer = (long) value;
+        if (Double.compare(integer, value) == 0 && Math.abs(integer) < MAX_EXACT) {
+            putVarlong(buf, zigzag(integer) << DECIMAL_TAG_BITS | DECIMAL_INTEGER);
+            return;
+        }
+        long cents = Math.round(value * CENTS);
+        if (Double.compare(cents / CENTS, value) == 0 && Math.abs(cents) < MAX_EXACT) {
+            putVarlong(buf, zigzag(cents) << DECIMAL_TAG_BITS | DECIMAL_CENTS);
+            return;
+        }
+        buf.put((byte) DECIMAL_RAW);
+        buf.putDouble(value);
+    }
+
+    /**
+     * Reads a value written by putDecimal.
+     *
+     * @param buf
+     * @return value
+     * @throws IllegalArgumentException if the bytes aren't a decimal
+     */
+    public static double getDecimal(ByteBuffer buf) {
+        long header = getVarlong(buf);
+        switch ((int) (header & DECIMAL_TAG_MASK)) {
+        case DECIMAL_INTEGER:
+            return unzigzag(header >>> DECIMAL_TAG_BITS);
+        case DECIMAL_CENTS:
+            return unzigzag(header >>> DECIMAL_TAG_BITS) / CENTS;
+        case DECIMAL_RAW:
+            if (header != DECIMAL_RAW) {
+                break;
+            }
+            return buf.getDouble();
+        default:
+            break;
+        }
+        throw new IllegalArgumentException("Invalid decimal at position " + buf.position());
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes the string as UTF-8 with a varint length.
+     *
+     * @param buf
+     * @param s
+     */
+    public static void putString(ByteBuffer buf, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(buf, bytes.length);
+        buf.put(bytes);
+    }
+
+    /**
+     * Reads a string written by putString.
+     *
+     * @param buf
+     * @return String
+     * @throws BufferUnderflowException if the string is longer than the bytes
+     *                                  left
+     */
+    public static String getString(ByteBuffer buf) {
+        int length = getVarint(buf);
+        if (length < 0 || length > buf.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String s;
+        if (buf.hasArray()) {
+            s = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+            buf.position(buf.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * CalendarTable holds precomputed calendar values for the years Date accepts
+ * (1000-9999): leap year flags, the day number of the first day of every year,
+ * and the days in and before every month. Date and DateCodec use it instead of
+ * computing these with branches and divisions on every call.
+ * Years outside the range fall back to computing the values.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class CalendarTable {
+    // Year range of the table (1000-9999)
+    private static final int MIN_YEAR = 1000;
+    private static final int MAX_YEAR = 9999;
+
+    private static final int MONTHS = 12;
+    private static final int DAYS_IN_WEEK = 7;
+
+    // Day number of 31/12/9999, the last day of the table
+    private static final int LAST_EPOCH_DAY = computeEpochDay(31, 12, MAX_YEAR);
+
+    // Day number of 1/1/2000 and its ISO day of the week (Saturday)
+    private static final int REFERENCE_EPOCH_DAY = computeEpochDay(1, 1, 2000);
+    private static final int REFERENCE_DAY_OF_WEEK = 6;
+
+    // Multipliers of the yyyymmdd key parts (see DateCodec)
+    private static final int YEAR_FACTOR = 10000;
+    private static final int MONTH_FACTOR = 100;
+    private static final int MAX_MONTH_DAYS = 31;
+
+    // Indexes of the month tables
+    private static final int NON_LEAP = 0;
+    private static final int LEAP = 1;
+
+    private static final boolean[] LEAP_YEARS = new boolean[MAX_YEAR - MIN_YEAR + 1];
+
+    // Day number (see Date) of the day before the 1st of January of every year
+    private static final int[] DAYS_BEFORE_YEAR = new int[MAX_YEAR - MIN_YEAR + 1];
+
+    // Days in every month, and days in the year before every month, for
+    // non-leap and leap years. Index 0 is unused.
+    private static final int[][] DAYS_IN_MONTH = {
+            { 0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 },
+            { 0, 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 } };
+    private static final int[][] DAYS_BEFORE_MONTH = new int[2][MONTHS + 1];
+
+    static {
+        for (int year = MIN_YEAR; year <= MAX_YEAR; year++) {
+            LEAP_YEARS[year - MIN_YEAR] = computeLeapYear(year);
+            DAYS_BEFORE_YEAR[year - MIN_YEAR] = computeEpochDay(1, 1, year) - 1;
+        }
+        for (int leap = NON_LEAP; leap <= LEAP; leap++) {
+            for (int month = 2; month <= MONTHS; month++) {
+                DAYS_BEFORE_MONTH[leap][month] = DAYS_BEFORE_MONTH[leap][month - 1] + DAYS_IN_MONTH[leap][month - 1];
+            }
+        }
+    }
+
+    private CalendarTable() {
+    }
+
+    /**
+     * Check if the year is a leap year.
+     *
+     * @param year
+     * @return boolean
+     */
+    public static boolean isLeapYear(int year) {
+        if (year >= MIN_YEAR && year <= MAX_YEAR) {
+            return LEAP_YEARS[year - MIN_YEAR];
+        }
+        return computeLeapYear(year);
+    }
+
+    /**
+     * Returns the number of days in the month of the given year.
+     * A month outside 1-12 (a Date whose month isn't set yet) allows 31 days.
+     *
+     * @param month
+     * @param year
+     * @return days in month
+     */
+    public static int daysInMonth(int month, int year) {
+        if (month < 1 || month > MONTHS) {
+            return MAX_MONTH_DAYS;
+        }
+        return DAYS_IN_MONTH[isLeapYear(year) ? LEAP : NON_LEAP][month];
+    }
+
+    /**
+     * Returns the day number of the date, the same number Date.difference
+     * subtracts.
+     *
+     * @param day
+     * @param month
+     * @param year
+     * @return days
+     */
+    public static int epochDay(int day, int month, int year) {
+        if (year >= MIN_YEAR && year <= MAX_YEAR && month >= 1 && month <= MONTHS) {
+            int leap = LEAP_YEARS[year - MIN_YEAR] ? LEAP : NON_LEAP;
+            return DAYS_BEFORE_YEAR[year - MIN_YEAR] + DAYS_BEFORE_MONTH[leap][month] + day;
+        }
+        return computeEpochDay(day, month, year);
+    }
+
+    /**
+     * Returns the yyyymmdd key (see DateCodec) of the day number, or -1 if the
+     * day is outside the years 1000-9999.
+     *
+     * @param epochDay
+     * @return key
+     */
+    public static int fromEpochDay(int epochDay) {
+        if (epochDay <= DAYS_BEFORE_YEAR[0] || epochDay > LAST_EPOCH_DAY) {
+            return -1;
+        }
+
+        // Find the last year that starts on or before the day
+        int low = 0;
+        int high = DAYS_BEFORE_YEAR.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (DAYS_BEFORE_YEAR[middle] < epochDay) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        int dayOfYear = epochDay - DAYS_BEFORE_YEAR[low];
+        int[] daysBeforeMonth = DAYS_BEFORE_MONTH[LEAP_YEARS[low] ? LEAP : NON_LEAP];
+        int month = MONTHS;
+        while (daysBeforeMonth[month] >= dayOfYear) {
+            month--;
+        }
+        return (low + MIN_YEAR) * YEAR_FACTOR + month * MONTH_FACTOR + dayOfYear - daysBeforeMonth[month];
+    }
+
+    /**
+     * Returns the ISO day of the week of the day number, 1 (Monday) to 7
+     * (Sunday).
+     *
+     * @param epochDay
+     * @return day of week
+     */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay - REFERENCE_EPOCH_DAY + REFERENCE_DAY_OF_WEEK - 1, DAYS_IN_WEEK) + 1;
+    }
+
+    private static boolean computeLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || (year % 400 == 0);
+    }
+
+    /**
+     * Computes the day number since the beginning of the Christian counting of
+     * years.
+     *
+     * @param day
+     * @param month
+     * @param year
+     * @return days
+     */
+    private static int computeEpochDay(int day, int month, int year) {
+        if (month < 3) {
+            year--;
+            month = month + 12;
+        }
+        return 365 * year + year / 4 - year / 100 + year / 400 + ((month + 1) * 306) / 10 + (day - 62);
+    }
+}
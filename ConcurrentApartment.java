@@ -0,0 +1,225 @@
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * ConcurrentApartment is a thread-safe apartment. Its whole state is an
+ * ImmutableApartment snapshot; every mutation copies the current snapshot,
+ * applies the Apartment method to the copy and swaps it in with
+ * compare-and-set, retrying if another thread got there first. A mutation
+ * that changes nothing, like a rejected bid or an invalid value, swaps nothing
+ * in, and the lease operations are measured once per call, not per retry.
+ * So every operation is atomic and sees and leaves a consistent tenant, price
+ * and rental period, without a lock: the copies intern their dates in the
+ * lock-free DateCache, so a retry never waits for another thread.
+ * The rules are the ones of Apartment.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ConcurrentApartment {
+    private final AtomicReference<ImmutableApartment> _state;
+
+    /**
+     * ConcurrentApartment accepts an apartment and copies its values.
+     *
+     * @param apartment
+     */
+    public ConcurrentApartment(Apartment apartment) {
+        _state = new AtomicReference<ImmutableApartment>(new ImmutableApartment(apartment));
+    }
+
+    /**
+     * Returns the current state of the apartment. The snapshot is shared and
+     * immutable, so reading it doesn't copy.
+     *
+     * @return ImmutableApartment
+     */
+    public ImmutableApartment getSnapshot() {
+        return _state.get();
+    }
+
+    /**
+     * Returns the number of rooms in the apartment.
+     *
+     * @return noOfRooms
+     */
+    public int getNoOfRooms() {
+        return _state.get().getNoOfRooms();
+    }
+
+    /**
+     * Returns the area of the apartment.
+     *
+     * @return area
+     */
+    public double getArea() {
+        return _state.get().getArea();
+    }
+
+    /**
+     * Returns the price of the apartment.
+     *
+     * @return price
+     */
+    public double getPrice() {
+        return _state.get().getPrice();
+    }
+
+    /**
+     * Returns the tenant of the apartment.
+     *
+     * @return tenant
+     */
+    public Person getTenant() {
+        return _state.get().getTenant();
+    }
+
+    /**
+     * Returns the rental start date of the apartment.
+     *
+     * @return rentalStartDate
+     */
+    public Date getRentalStartDate() {
+        return _state.get().getRentalStartDate();
+    }
+
+    /**
+     * Returns the rental end date of the apartment.
+     *
+     * @return rentalEndDate
+     */
+    public Date getRentalEndDate() {
+        return _state.get().getRentalEndDate();
+    }
+
+    /**
+     * Returns the number of days left until the end of the rental period, or -1
+     * if the date is after it.
+     *
+     * @param d
+     * @return daysLeft
+     */
+    public int daysLeft(Date d) {
+        return _state.get().daysLeft(d);
+    }
+
+    /**
+     * Sets the number of rooms in the apartment, if valid.
+     *
+     * @param num
+     */
+    public void setNoOfRooms(int num) {
+        update(next -> next.setNoOfRooms(num));
+    }
+
+    /**
+     * Sets the area of the apartment, if valid.
+     *
+     * @param area
+     */
+    public void setArea(double area) {
+        update(next -> next.setArea(area));
+    }
+
+    /**
+     * Sets the price of the apartment, if valid.
+     *
+     * @param price
+     */
+    public void setPrice(double price) {
+        update(next -> next.setPrice(price));
+    }
+
+    /**
+     * Sets the tenant of the apartment.
+     *
+     * @param p
+     */
+    public void setTenant(Person p) {
+        update(next -> next.setTenant(p));
+    }
+
+    /**
+     * Sets the rental start date of the apartment if dates are valid.
+     *
+     * @param d
+     */
+    public void setRentalStartDate(Date d) {
+        update(next -> next.setRentalStartDate(d));
+    }
+
+    /**
+     * Sets the rental end date of the apartment if dates are valid.
+     *
+     * @param d
+     */
+    public void setRentalEndDate(Date d) {
+        update(next -> next.setRentalEndDate(d));
+    }
+
+    /**
+     * Extend the rental period of the apartment by years.
+     *
+     * @param years
+     */
+    public void extendRentalPeriod(int years) {
+        long start = Apartment.isMetricsEnabled() ? System.nanoTime() : 0;
+        update(next -> next.applyRentalExtension(years));
+        // Reported once, whatever the number of retries
+        if (Apartment.isMetricsEnabled()) {
+            Apartment.getMetrics().rentalPeriodExtended(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Accepts a date, person and price and changes the tenant atomically, under
+     * the rules of Apartment.changeTenant.
+     *
+     * @param startDate
+     * @param p
+     * @param price
+     * @return true if tenant was changed, false otherwise
+     */
+    public boolean changeTenant(Date startDate, Person p, double price) {
+        long start = Apartment.isMetricsEnabled() ? System.nanoTime() : 0;
+        ImmutableApartment before = update(next -> {
+            if (next.tenantChangeFailures(startDate, p, price) == 0) {
+                next.applyTenantChange(startDate, p, price);
+            }
+        });
+        // The rules only depend on the state the bid was applied to
+        int failures = before.tenantChangeFailures(startDate, p, price);
+        if (Apartment.isMetricsEnabled()) {
+            Apartment.reportTenantChange(System.nanoTime() - start, failures);
+        }
+        return failures == 0;
+    }
+
+    /**
+     * Applies the change to a copy of the current state and swaps the copy in
+     * with compare-and-set, retrying on a fresh copy if another thread swapped
+     * first. A change that leaves the state as it was isn't swapped in.
+     *
+     * @param change
+     * @return the state the change was applied to
+     */
+    private ImmutableApartment update(Consumer<Apartment> change) {
+        while (true) {
+            ImmutableApartment current = _state.get();
+            Apartment next = new Apartment(current);
+            change.accept(next);
+            if (next.equals(current) || _state.compareAndSet(current, new ImmutableApartment(next))) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the current state of the apartment.
+     *
+     * @return String
+     */
+    public String toString() {
+        return _state.get().toString();
+    }
+}
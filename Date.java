@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * Date class represents a date object with day, month and year.
  * 
@@ -10,9 +13,12 @@ public class Date {
     private int _month;
     private int _year;
 
+    // Day number of the date (see CalendarTable.epochDay), cached on every mutation so
+    // comparisons and differences are a single integer operation.
+    private int _epochDay;
+
     // Month valid max days (1-31)
     private final int MAX_MONTH_DAYS = 31;
-    private final int MAX_MONTH_THIRTY_DAYS = 30;
     private final int MIN_MONTH_DAYS = 1;
 
     // February valid max days for leap and non-leap years (28-29)
@@ -27,20 +33,21 @@ public class Date {
     private final int MAX_YEAR = 9999;
     private final int MIN_YEAR = 1000;
 
-    // Maxmimum standard days / month number.
-    private final int MAX_STD_SINGLE_DIGIT = 9;
-
     // Default 1/1/2000 values.
     private final int DEFAULT_YEAR = 2000;
     private final int DEFAULT_MONTH = 1;
     private final int DEFAULT_DAY = 1;
 
-    // Relevant months that are used to calculate and validate the object.
+    // February is the only month whose days depend on the year.
     private final int FEBRUARY = 2;
-    private final int APRIL = 4;
-    private final int JUNE = 6;
-    private final int SEPTEMBER = 9;
-    private final int NOVEMBER = 11;
+
+    // Length of the dd/mm/yyyy string representation.
+    public static final int FORMATTED_LENGTH = 10;
+
+    // Shared cache of immutable dates returned by Date.of and Date.intern, a
+    // slot per day of about 45 years.
+    private static final int INTERN_CACHE_CAPACITY = 16384;
+    private static final DateCache INTERN_CACHE = new DateCache(INTERN_CACHE_CAPACITY);
 
     /**
      * Date object takes day, month and year as input.
@@ -68,6 +75,49 @@ public class Date {
             _month = DEFAULT_MONTH;
             _year = DEFAULT_YEAR;
         }
+
+        updateEpochDay();
+    }
+
+    /**
+     * Date object with the values of a valid key (see DateCodec), skipping the
+     * setters' validation.
+     * 
+     * @param key
+     */
+    private Date(int key) {
+        _day = DateCodec.dayOf(key);
+        _month = DateCodec.monthOf(key);
+        _year = DateCodec.yearOf(key);
+        updateEpochDay();
+    }
+
+    /**
+     * Parses a date in the dd/mm/yyyy format that toString produces.
+     * Like the constructor, if one of the values are invalid, returns the default
+     * date (1/1/2000).
+     * 
+     * @param text
+     * @return Date
+     * @throws IllegalArgumentException if the text isn't in the dd/mm/yyyy format
+     */
+    public static Date parse(CharSequence text) {
+        return new Date(DateCodec.parse(text));
+    }
+
+    /**
+     * Parses a date in the dd/mm/yyyy format from the buffer's ASCII bytes, and
+     * moves the buffer's position past it.
+     * Like the constructor, if one of the values are invalid, returns the default
+     * date (1/1/2000).
+     * 
+     * @param buf
+     * @return Date
+     * @throws IllegalArgumentException if the bytes aren't in the dd/mm/yyyy
+     *                                  format
+     */
+    public static Date parse(ByteBuffer buf) {
+        return new Date(DateCodec.parse(buf));
     }
 
     /**
@@ -80,6 +130,50 @@ public class Date {
         _day = other._day;
         _month = other._month;
         _year = other._year;
+        _epochDay = other._epochDay;
+    }
+
+    /**
+     * Returns a shared immutable date for the day, month and year.
+     * If one of the values are invalid, returns the default date (1/1/2000).
+     * 
+     * @param day
+     * @param month
+     * @param year
+     * @return ImmutableDate
+     */
+    public static ImmutableDate of(int day, int month, int year) {
+        return INTERN_CACHE.intern(day, month, year);
+    }
+
+    /**
+     * Returns a shared immutable date equal to the input date.
+     * 
+     * @param date
+     * @return ImmutableDate
+     */
+    public static ImmutableDate intern(Date date) {
+        if (date instanceof ImmutableDate) {
+            return (ImmutableDate) date;
+        }
+        return INTERN_CACHE.intern(DateCodec.pack(date), date._epochDay);
+    }
+
+    /**
+     * Returns the cache behind Date.of and Date.intern, for its hit / miss
+     * statistics.
+     * 
+     * @return DateCache
+     */
+    public static DateCache getInternCache() {
+        return INTERN_CACHE;
+    }
+
+    /**
+     * Recomputes the cached day number from the current day, month and year.
+     */
+    private void updateEpochDay() {
+        _epochDay = CalendarTable.epochDay(_day, _month, _year);
     }
 
     /**
@@ -89,10 +183,7 @@ public class Date {
      * @return boolean
      */
     private boolean isLeapYear(int year) {
-        if ((year % 4 == 0 && year % 100 != 0) || (year % 400 == 0)) {
-            return true;
-        }
-        return false;
+        return CalendarTable.isLeapYear(year);
     }
 
     /**
@@ -122,25 +213,6 @@ public class Date {
         return _year;
     }
 
-    /**
-     * Checks if the day is valid for February's leap / non-leap year cases.
-     * 
-     * @param day
-     * @param year
-     * @return true if valid, false otherwise
-     */
-    private boolean isValidFebruaryDay(int day, int year) {
-        if (isLeapYear(year)) {
-            return day <= MAX_FEB_LEAP_YEAR;
-        } else {
-            return day <= MAX_FEB_NON_LEAP_YEAR;
-        }
-    }
-
-    private boolean isValidFebruaryDay(int day) {
-        return isValidFebruaryDay(day, _year);
-    }
-
     /**
      * Sets the month of the object's date.
      * 
@@ -148,22 +220,13 @@ public class Date {
      */
     public void setMonth(int monthToSet) {
         if (monthToSet >= MIN_MONTH && monthToSet <= MAX_MONTH) {
-            if (monthToSet == FEBRUARY) {
-                // We prevent here transitions like 29/3 -> 29/2 when is a non-leap year
-                if (isValidFebruaryDay(_day)) {
-                    _month = monthToSet;
-                }
-                // We prevent here transitions like 31/5 -> 31/6 when these months have max 30
-                // days
-            } else if (monthToSet == APRIL || monthToSet == JUNE || monthToSet == SEPTEMBER || monthToSet == NOVEMBER) {
-                if (_day <= MAX_MONTH_THIRTY_DAYS) {
-                    _month = monthToSet;
-                }
-            } else {
-                // For other cases like 28/2 -> 28/3 etc... we don't need to validate the day
+            // We prevent here transitions like 29/3 -> 29/2 when is a non-leap year, or
+            // 31/5 -> 31/6 when these months have max 30 days
+            if (_day <= CalendarTable.daysInMonth(monthToSet, _year)) {
                 _month = monthToSet;
             }
         }
+        updateEpochDay();
     }
 
     /**
@@ -173,14 +236,12 @@ public class Date {
      */
     public void setYear(int yearToSet) {
         if (yearToSet >= MIN_YEAR && yearToSet <= MAX_YEAR) {
-            if (_month == FEBRUARY) {
-                if (isValidFebruaryDay(_day, yearToSet)) {
-                    _year = yearToSet;
-                }
-            } else {
+            // Only matters for 29/2, which doesn't exist in non-leap years
+            if (_day <= CalendarTable.daysInMonth(_month, yearToSet)) {
                 _year = yearToSet;
             }
         }
+        updateEpochDay();
     }
 
     /**
@@ -189,25 +250,12 @@ public class Date {
      * @param day
      */
     public void setDay(int dayToSet) {
-
-        // Check if day is valid (1-31)
-        if (dayToSet >= MIN_MONTH_DAYS && dayToSet <= MAX_MONTH_DAYS) {
-            // Check the case for the months that has 30 days
-            if (_month == APRIL || _month == JUNE || _month == SEPTEMBER || _month == NOVEMBER) {
-                if (dayToSet <= MAX_MONTH_THIRTY_DAYS) {
-                    _day = dayToSet;
-                }
-            } else if (_month == FEBRUARY) {
-                // Check the case for February and if it's a leap year
-                if (isValidFebruaryDay(dayToSet)) {
-                    _day = dayToSet;
-                }
-            } else {
-                // If the month is not February, April, June, September or November, the
-                // expected value is between 1-31
-                _day = dayToSet;
-            }
+        // Check if day is valid (1-31) and exists in the month of the year
+        if (dayToSet >= MIN_MONTH_DAYS && dayToSet <= MAX_MONTH_DAYS
+                && dayToSet <= CalendarTable.daysInMonth(_month, _year)) {
+            _day = dayToSet;
         }
+        updateEpochDay();
     }
 
     /**
@@ -217,8 +265,8 @@ public class Date {
      * @return boolean
      */
     public boolean equals(Date other) {
-        // Check if the date is equal to the current object's date
-        return _day == other._day && _month == other._month && _year == other._year;
+        // Equal day numbers mean equal dates
+        return _epochDay == other._epochDay;
     }
 
     /**
@@ -228,30 +276,8 @@ public class Date {
      * @return boolean
      */
     public boolean before(Date other) {
-
-        // Firstly check if the year is before the current object's year
-        if (_year < other._year) {
-            return true;
-
-            // If the year is equal, check if the month is before the current object's month
-        } else if (_year == other._year) {
-
-            // If the month is before the current object's month, return true
-            if (_month < other._month) {
-                return true;
-
-                // If the month is equal, check if the day is before the current object's day
-            } else if (_month == other._month) {
-
-                // If the day is before the current object's day, return true
-                if (_day < other._day) {
-                    return true;
-                }
-            }
-        }
-
-        // If none of the above conditions are true, return false
-        return false;
+        // Day numbers grow with the date, so a smaller day number is an earlier date
+        return _epochDay < other._epochDay;
     }
 
     /**
@@ -275,53 +301,88 @@ public class Date {
      * @return int
      */
     public int difference(Date other) {
-        int otherDay = other._day;
-        int otherMonth = other._month;
-        int otherYear = other._year;
-
-        // Using the calculateDate function to calculate the difference in days between
-        // the two dates.
-        int difference = calculateDate(otherDay, otherMonth, otherYear) - calculateDate(_day, _month, _year);
-
+        // Both day numbers are cached, so the difference is a single subtraction.
         // Always return a positive days number.
-        return Math.abs(difference);
+        return Math.abs(other._epochDay - _epochDay);
+    }
+
+    /**
+     * Returns a string representation of the date.
+     * 
+     * @return String
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder(FORMATTED_LENGTH);
+        appendTo(sb);
+        return sb.toString();
+    }
 
+    /**
+     * Appends the string representation of the date (dd/mm/yyyy).
+     * 
+     * @param out
+     * @throws IOException if out throws
+     */
+    public void appendTo(Appendable out) throws IOException {
+        TextFormat.appendTwoDigits(out, _day);
+        out.append('/');
+        TextFormat.appendTwoDigits(out, _month);
+        out.append('/');
+        TextFormat.appendFourDigits(out, _year);
     }
 
     /**
-     * Computes the day number since the beginning of the Christian counting of
-     * years.
+     * Appends the string representation of the date (dd/mm/yyyy).
      * 
-     * @param day
-     * @param month
-     * @param year
-     * @return days
+     * @param sb
      */
-    private int calculateDate(int day, int month, int year) {
-        if (month < 3) {
-            year--;
-            month = month + 12;
+    public void appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new AssertionError(e);
         }
-        return 365 * year + year / 4 - year / 100 + year / 400 + ((month + 1) * 306) / 10 + (day - 62);
     }
 
     /**
-     * Returns the day of the week that the date occurs on.
+     * Writes the string representation of the date (dd/mm/yyyy) into the buffer
+     * as ASCII, and returns the offset after it.
      * 
-     * @param num
-     * @return
+     * @param buf
+     * @param offset
+     * @return offset
      */
-    private String standardizeNumber(int num) {
-        return num <= MAX_STD_SINGLE_DIGIT ? "0" + num : "" + num;
+    public int writeTo(byte[] buf, int offset) {
+        offset = TextFormat.writeTwoDigits(buf, offset, _day);
+        buf[offset++] = '/';
+        offset = TextFormat.writeTwoDigits(buf, offset, _month);
+        buf[offset++] = '/';
+        return TextFormat.writeFourDigits(buf, offset, _year);
     }
 
     /**
-     * Returns a string representation of the date.
+     * Writes the date into the buffer in binary form, 2 bytes for dates between
+     * 1955 and 2044 and 3 bytes for others (see BinaryFormat).
      * 
-     * @return String
+     * @param buf
+     * @throws java.nio.BufferOverflowException if the date doesn't fit
      */
-    public String toString() {
-        return standardizeNumber(_day) + "/" + standardizeNumber(_month) + "/" + _year;
+    public void writeTo(ByteBuffer buf) {
+        BinaryFormat.putDate(buf, _epochDay);
+    }
+
+    /**
+     * Reads a date written by writeTo(ByteBuffer), and moves the buffer's
+     * position past it.
+     * 
+     * @param buf
+     * @return Date
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the date
+     * @throws IllegalArgumentException          if the bytes aren't a date
+     */
+    public static Date readFrom(ByteBuffer buf) {
+        return new Date(BinaryFormat.getDate(buf));
     }
 
     /**
@@ -357,4 +418,40 @@ public class Date {
 
         return new Date(newDay, _month, newYear);
     }
+
+    /**
+     * Adds days (possibly negative) to the current date.
+     * If the new date is outside the years 1000-9999, returns the default date
+     * (1/1/2000).
+     * 
+     * @param num
+     * @return Date
+     */
+    public Date addDays(int num) {
+        return new Date(DateCodec.addDays(DateCodec.pack(this), num));
+    }
+
+    /**
+     * Adds months (possibly negative) to the current date.
+     * The last day of a month moves to the last day of the new month, like
+     * addYearsToDate does for February, and days past the end of the new month
+     * are clamped to it.
+     * If the new date is outside the years 1000-9999, returns the default date
+     * (1/1/2000).
+     * 
+     * @param num
+     * @return Date
+     */
+    public Date addMonths(int num) {
+        return new Date(DateCodec.addMonths(DateCodec.pack(this), num));
+    }
+
+    /**
+     * Returns the ISO day of the week of the date, 1 (Monday) to 7 (Sunday).
+     * 
+     * @return day of week
+     */
+    public int dayOfWeek() {
+        return CalendarTable.dayOfWeek(_epochDay);
+    }
 }
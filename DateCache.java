@@ -0,0 +1,153 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DateCache interns ImmutableDate objects by their day number, so equal dates
+ * share a single instance. The cache is a fixed table of 2-way sets indexed
+ * by the day number modulo the number of sets: nearby dates never collide,
+ * and a date that lands on a full set replaces the one of its two dates that
+ * was used less recently. So two dates a multiple of half the capacity apart
+ * (such as 16384 days for the 16384 dates of Date.intern) both stay cached,
+ * while three or more such dates used in turn still evict each other.
+ * Lookups take no lock and don't box the key, so threads that create dates
+ * (every Apartment and Person mutation does) don't wait on each other. All
+ * methods are thread-safe.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class DateCache {
+    private final AtomicReferenceArray<ImmutableDate> _dates; // The two ways of set i at 2i and 2i+1
+    private final AtomicIntegerArray _recent; // The way of each set used last
+    private final int _setMask;
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+
+    private static final int WAYS = 2;
+
+    /**
+     * DateCache accepts the maximum number of dates to keep, rounded up to a
+     * power of two of at least 2.
+     *
+     * @param capacity
+     */
+    public DateCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Math.max(WAYS, Integer.highestOneBit(capacity * 2 - 1));
+        _dates = new AtomicReferenceArray<ImmutableDate>(size);
+        _recent = new AtomicIntegerArray(size / WAYS);
+        _setMask = size / WAYS - 1;
+    }
+
+    /**
+     * Returns the shared instance of the date, creating it if needed.
+     * Invalid dates are interned as the default date (1/1/2000), like the Date
+     * constructor does.
+     *
+     * @param day
+     * @param month
+     * @param year
+     * @return ImmutableDate
+     */
+    public ImmutableDate intern(int day, int month, int year) {
+        int key = DateCodec.pack(day, month, year);
+        return intern(key, DateCodec.toEpochDay(key));
+    }
+
+    /**
+     * Returns the shared instance of the date of a valid key (see DateCodec)
+     * and its day number.
+     *
+     * @param key
+     * @param epochDay
+     * @return ImmutableDate
+     */
+    ImmutableDate intern(int key, int epochDay) {
+        int set = epochDay & _setMask;
+        for (int way = 0; way < WAYS; way++) {
+            ImmutableDate date = _dates.get(set * WAYS + way);
+            if (date != null && DateCodec.pack(date) == key) {
+                _hits.increment();
+                // Only written when it changes, so hits on a hot date don't contend
+                if (_recent.get(set) != way) {
+                    _recent.lazySet(set, way);
+                }
+                return date;
+            }
+        }
+
+        // Two threads may both create the date, either instance is a valid one
+        _misses.increment();
+        int way = _dates.get(set * WAYS) == null ? 0 : 1 - _recent.get(set);
+        ImmutableDate date = new ImmutableDate(DateCodec.unpack(key));
+        _dates.set(set * WAYS + way, date);
+        _recent.lazySet(set, way);
+        return date;
+    }
+
+    /**
+     * Returns the maximum number of dates kept.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return _dates.length();
+    }
+
+    /**
+     * Returns the number of dates currently kept.
+     *
+     * @return size
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < _dates.length(); i++) {
+            size += _dates.get(i) == null ? 0 : 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups that found a shared instance.
+     *
+     * @return hits
+     */
+    public long getHits() {
+        return _hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to create a new instance.
+     *
+     * @return misses
+     */
+    public long getMisses() {
+        return _misses.sum();
+    }
+
+    /**
+     * Removes all dates and resets the counters.
+     */
+    public void clear() {
+        for (int i = 0; i < _dates.length(); i++) {
+            _dates.set(i, null);
+        }
+        for (int i = 0; i < _recent.length(); i++) {
+            _recent.set(i, 0);
+        }
+        _hits.reset();
+        _misses.reset();
+    }
+
+    /**
+     * Returns a string representation of the cache statistics.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Size: " + size() + "/" + getCapacity() + "\nHits: " + getHits() + "\nMisses: " + getMisses();
+    }
+}
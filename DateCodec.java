@@ -0,0 +1,314 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * DateCodec packs dates into a single int key (yyyymmdd) and works on those
+ * keys directly, so hot paths can compare and do arithmetic on dates without
+ * creating Date objects.
+ * The validation rules and the February handling are the same as in Date.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class DateCodec {
+    // Month valid min day
+    private static final int MIN_MONTH_DAYS = 1;
+
+    // Month valid range (1-12)
+    private static final int MAX_MONTH = 12;
+    private static final int MIN_MONTH = 1;
+
+    // Year valid range (1000-9999)
+    private static final int MAX_YEAR = 9999;
+    private static final int MIN_YEAR = 1000;
+
+    // February is the only month whose days depend on the year.
+    private static final int FEBRUARY = 2;
+
+    // Length and separator positions of the dd/mm/yyyy format.
+    private static final int FORMATTED_LENGTH = 10;
+    private static final int FIRST_SEPARATOR = 2;
+    private static final int SECOND_SEPARATOR = 5;
+
+    // Multipliers of the yyyymmdd key parts.
+    private static final int YEAR_FACTOR = 10000;
+    private static final int MONTH_FACTOR = 100;
+
+    /**
+     * Key of the default date (1/1/2000).
+     */
+    public static final int DEFAULT_KEY = 20000101;
+
+    private DateCodec() {
+    }
+
+    /**
+     * Check if the year is a leap year.
+     *
+     * @param year
+     * @return boolean
+     */
+    public static boolean isLeapYear(int year) {
+        return CalendarTable.isLeapYear(year);
+    }
+
+    /**
+     * Returns the number of days in the month of the given year.
+     *
+     * @param month
+     * @param year
+     * @return days in month
+     */
+    public static int daysInMonth(int month, int year) {
+        return CalendarTable.daysInMonth(month, year);
+    }
+
+    /**
+     * Checks if the day, month and year form a date that the Date constructor
+     * accepts without falling back to the default date.
+     *
+     * @param day
+     * @param month
+     * @param year
+     * @return true if valid, false otherwise
+     */
+    public static boolean isValid(int day, int month, int year) {
+        if (year < MIN_YEAR || year > MAX_YEAR || month < MIN_MONTH || month > MAX_MONTH) {
+            return false;
+        }
+        return day >= MIN_MONTH_DAYS && day <= daysInMonth(month, year);
+    }
+
+    /**
+     * Packs the date into a key. Like the Date constructor, an invalid date is
+     * replaced by the default date (1/1/2000).
+     *
+     * @param day
+     * @param month
+     * @param year
+     * @return key
+     */
+    public static int pack(int day, int month, int year) {
+        if (!isValid(day, month, year)) {
+            return DEFAULT_KEY;
+        }
+        return year * YEAR_FACTOR + month * MONTH_FACTOR + day;
+    }
+
+    /**
+     * Packs a Date object into a key.
+     *
+     * @param date
+     * @return key
+     */
+    public static int pack(Date date) {
+        return date.getYear() * YEAR_FACTOR + date.getMonth() * MONTH_FACTOR + date.getDay();
+    }
+
+    /**
+     * Creates a new Date object from the key.
+     *
+     * @param key
+     * @return Date
+     */
+    public static Date unpack(int key) {
+        return new Date(dayOf(key), monthOf(key), yearOf(key));
+    }
+
+    /**
+     * Returns the day of the key.
+     *
+     * @param key
+     * @return day
+     */
+    public static int dayOf(int key) {
+        return key % MONTH_FACTOR;
+    }
+
+    /**
+     * Returns the month of the key.
+     *
+     * @param key
+     * @return month
+     */
+    public static int monthOf(int key) {
+        return key / MONTH_FACTOR % MONTH_FACTOR;
+    }
+
+    /**
+     * Returns the year of the key.
+     *
+     * @param key
+     * @return year
+     */
+    public static int yearOf(int key) {
+        return key / YEAR_FACTOR;
+    }
+
+    /**
+     * Adds years to the key, keeping the last day of February on the last day of
+     * February of the new year (same as Date.addYearsToDate).
+     *
+     * @param key
+     * @param num
+     * @return key
+     */
+    public static int addYears(int key, int num) {
+        int day = dayOf(key);
+        int month = monthOf(key);
+        int year = yearOf(key);
+        int newYear = year + num;
+        int newDay = day;
+
+        // Move the last day of February to the last day of February in the new year
+        if (month == FEBRUARY && day == daysInMonth(FEBRUARY, year)) {
+            newDay = daysInMonth(FEBRUARY, newYear);
+        }
+
+        return pack(newDay, month, newYear);
+    }
+
+    /**
+     * Adds days (possibly negative) to the key. Like the Date constructor, a date
+     * outside the years 1000-9999 is replaced by the default date (1/1/2000).
+     *
+     * @param key
+     * @param num
+     * @return key
+     */
+    public static int addDays(int key, int num) {
+        int result = CalendarTable.fromEpochDay(toEpochDay(key) + num);
+        return result < 0 ? DEFAULT_KEY : result;
+    }
+
+    /**
+     * Adds months (possibly negative) to the key. The last day of a month moves to
+     * the last day of the new month, and days past the end of the new month are
+     * clamped to it, so adding 12 months is the same as addYears(key, 1).
+     * Like the Date constructor, a date outside the years 1000-9999 is replaced by
+     * the default date (1/1/2000).
+     *
+     * @param key
+     * @param num
+     * @return key
+     */
+    public static int addMonths(int key, int num) {
+        int day = dayOf(key);
+        int month = monthOf(key);
+        int year = yearOf(key);
+
+        int months = year * MAX_MONTH + month - MIN_MONTH + num;
+        int newYear = Math.floorDiv(months, MAX_MONTH);
+        int newMonth = Math.floorMod(months, MAX_MONTH) + MIN_MONTH;
+        int newMonthDays = daysInMonth(newMonth, newYear);
+
+        int newDay = day == daysInMonth(month, year) ? newMonthDays : Math.min(day, newMonthDays);
+        return pack(newDay, newMonth, newYear);
+    }
+
+    /**
+     * Returns the ISO day of the week of the key, 1 (Monday) to 7 (Sunday).
+     *
+     * @param key
+     * @return day of week
+     */
+    public static int dayOfWeek(int key) {
+        return CalendarTable.dayOfWeek(toEpochDay(key));
+    }
+
+    /**
+     * Returns the day number of the key (same as Date).
+     *
+     * @param key
+     * @return days
+     */
+    public static int toEpochDay(int key) {
+        return CalendarTable.epochDay(dayOf(key), monthOf(key), yearOf(key));
+    }
+
+    /**
+     * Returns the difference in days between the two keys, always positive.
+     *
+     * @param key
+     * @param other
+     * @return int
+     */
+    public static int difference(int key, int other) {
+        return Math.abs(toEpochDay(other) - toEpochDay(key));
+    }
+
+    /**
+     * Compares two keys by date.
+     *
+     * @param key
+     * @param other
+     * @return negative if key is before other, 0 if equal, positive if after
+     */
+    public static int compare(int key, int other) {
+        // yyyymmdd keys are ordered the same way as the dates
+        return Integer.compare(key, other);
+    }
+
+    /**
+     * Parses a date in the dd/mm/yyyy format that Date.toString produces into a
+     * key. Like the Date constructor, an invalid date is replaced by the default
+     * date (1/1/2000).
+     *
+     * @param text
+     * @return key
+     * @throws IllegalArgumentException if the text isn't in the dd/mm/yyyy format
+     */
+    public static int parse(CharSequence text) {
+        if (text.length() != FORMATTED_LENGTH || text.charAt(FIRST_SEPARATOR) != '/'
+                || text.charAt(SECOND_SEPARATOR) != '/') {
+            throw new IllegalArgumentException("Date must be in dd/mm/yyyy format: " + text);
+        }
+        int day = digit(text.charAt(0), text) * 10 + digit(text.charAt(1), text);
+        int month = digit(text.charAt(3), text) * 10 + digit(text.charAt(4), text);
+        int year = digit(text.charAt(6), text) * 1000 + digit(text.charAt(7), text) * 100
+                + digit(text.charAt(8), text) * 10 + digit(text.charAt(9), text);
+        return pack(day, month, year);
+    }
+
+    /**
+     * Parses a date in the dd/mm/yyyy format from the buffer's ASCII bytes into a
+     * key, and moves the buffer's position past it. Like the Date constructor, an
+     * invalid date is replaced by the default date (1/1/2000).
+     *
+     * @param buf
+     * @return key
+     * @throws BufferUnderflowException if fewer than 10 bytes remain
+     * @throws IllegalArgumentException if the bytes aren't in the dd/mm/yyyy
+     *                                  format
+     */
+    public static int parse(ByteBuffer buf) {
+        if (buf.remaining() < FORMATTED_LENGTH) {
+            throw new BufferUnderflowException();
+        }
+        int position = buf.position();
+        if (buf.get(position + FIRST_SEPARATOR) != '/' || buf.get(position + SECOND_SEPARATOR) != '/') {
+            throw new IllegalArgumentException("Date must be in dd/mm/yyyy format at position " + position);
+        }
+        int day = digit(buf, position) * 10 + digit(buf, position + 1);
+        int month = digit(buf, position + 3) * 10 + digit(buf, position + 4);
+        int year = digit(buf, position + 6) * 1000 + digit(buf, position + 7) * 100 + digit(buf, position + 8) * 10
+                + digit(buf, position + 9);
+        buf.position(position + FORMATTED_LENGTH);
+        return pack(day, month, year);
+    }
+
+    private static int digit(char c, CharSequence text) {
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Date must be in dd/mm/yyyy format: " + text);
+        }
+        return c - '0';
+    }
+
+    private static int digit(ByteBuffer buf, int index) {
+        int c = buf.get(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Date must be in dd/mm/yyyy format at position " + buf.position());
+        }
+        return c - '0';
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * DayCursor walks the dates of a range [start, end), one day or one month at a
+ * time, without creating an object per step. Call next() before reading each
+ * date:
+ *
+ * <pre>
+ * DayCursor cursor = DayCursor.days(start, end);
+ * while (cursor.next()) {
+ *     bill(cursor.getDay(), cursor.getMonth(), cursor.getYear());
+ * }
+ * </pre>
+ *
+ * Monthly steps are counted from the start date (see DateCodec.addMonths), so
+ * clamping at the end of a short month doesn't carry over to later months.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class DayCursor {
+    private final int _startKey;
+    private final int _endEpochDay;
+    private final boolean _monthly;
+    private int _steps;
+    private int _key;
+    private int _epochDay;
+
+    private static final int BEFORE_START = -1;
+    private static final int MONTHS = 12;
+
+    private DayCursor(Date start, Date end, boolean monthly) {
+        _startKey = DateCodec.pack(start);
+        _endEpochDay = DateCodec.toEpochDay(DateCodec.pack(end));
+        _monthly = monthly;
+        reset();
+    }
+
+    /**
+     * Returns a cursor over every day from start, up to and not including end.
+     *
+     * @param start
+     * @param end
+     * @return DayCursor
+     */
+    public static DayCursor days(Date start, Date end) {
+        return new DayCursor(start, end, false);
+    }
+
+    /**
+     * Returns a cursor over start and the same day of every following month,
+     * up to and not including end.
+     *
+     * @param start
+     * @param end
+     * @return DayCursor
+     */
+    public static DayCursor months(Date start, Date end) {
+        return new DayCursor(start, end, true);
+    }
+
+    /**
+     * Moves the cursor back before the start date.
+     */
+    public void reset() {
+        _steps = BEFORE_START;
+        _key = 0;
+        _epochDay = 0;
+    }
+
+    /**
+     * Moves to the next date of the range.
+     *
+     * @return true if the cursor is on a date of the range, false if the range
+     *         ended
+     */
+    public boolean next() {
+        _steps++;
+        if (_steps == 0) {
+            _key = _startKey;
+            _epochDay = DateCodec.toEpochDay(_startKey);
+        } else if (_monthly) {
+            int key = DateCodec.addMonths(_startKey, _steps);
+            int months = DateCodec.yearOf(_startKey) * MONTHS + DateCodec.monthOf(_startKey) - 1 + _steps;
+            if (DateCodec.yearOf(key) != months / MONTHS) {
+                // Past the year 9999, addMonths fell back to the default date
+                _steps--;
+                return false;
+            }
+            _key = key;
+            _epochDay = DateCodec.toEpochDay(_key);
+        } else if (_epochDay < _endEpochDay) {
+            _key = nextDay(_key);
+            _epochDay++;
+        }
+
+        // Stay on the end once the range is done
+        if (_epochDay >= _endEpochDay) {
+            _steps--;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the key of the day after the key's day, without validation.
+     *
+     * @param key
+     * @return key
+     */
+    private static int nextDay(int key) {
+        int day = DateCodec.dayOf(key);
+        int month = DateCodec.monthOf(key);
+        int year = DateCodec.yearOf(key);
+        if (day < DateCodec.daysInMonth(month, year)) {
+            return key + 1;
+        }
+        if (month < MONTHS) {
+            return DateCodec.pack(1, month + 1, year);
+        }
+        return DateCodec.pack(1, 1, year + 1);
+    }
+
+    /**
+     * Returns the number of dates the cursor moved past since the start, 0 on the
+     * start date.
+     *
+     * @return index
+     */
+    public int getIndex() {
+        return _steps;
+    }
+
+    /**
+     * Returns the day of the current date.
+     *
+     * @return day
+     */
+    public int getDay() {
+        return DateCodec.dayOf(_key);
+    }
+
+    /**
+     * Returns the month of the current date.
+     *
+     * @return month
+     */
+    public int getMonth() {
+        return DateCodec.monthOf(_key);
+    }
+
+    /**
+     * Returns the year of the current date.
+     *
+     * @return year
+     */
+    public int getYear() {
+        return DateCodec.yearOf(_key);
+    }
+
+    /**
+     * Returns the key (see DateCodec) of the current date.
+     *
+     * @return key
+     */
+    public int getKey() {
+        return _key;
+    }
+
+    /**
+     * Returns the day number of the current date.
+     *
+     * @return days
+     */
+    public int getEpochDay() {
+        return _epochDay;
+    }
+
+    /**
+     * Creates a new Date object of the current date.
+     *
+     * @return Date
+     */
+    public Date toDate() {
+        return DateCodec.unpack(_key);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * DaysLeftKernel computes Apartment.daysLeft for many rental end dates against
+ * the same date at once, for reports over every unit.
+ * End dates are packed as day numbers (the ones Date caches, see
+ * CalendarTable.epochDay), so days left is a subtraction, and the -1 of an
+ * already ended rental comes from the sign bit instead of a branch. The loop
+ * has no branches or calls, so C2 compiles it to SIMD instructions.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class DaysLeftKernel {
+
+    private DaysLeftKernel() {
+    }
+
+    /**
+     * Returns the day number of the date, the packed form of end dates.
+     *
+     * @param d
+     * @return day number
+     */
+    public static int pack(Date d) {
+        return DateCodec.toEpochDay(DateCodec.pack(d));
+    }
+
+    /**
+     * Packs the rental end dates of the apartments.
+     *
+     * @param apartments
+     * @return day numbers
+     */
+    public static int[] packRentalEndDates(Apartment[] apartments) {
+        int[] endDays = new int[apartments.length];
+        for (int i = 0; i < apartments.length; i++) {
+            endDays[i] = pack(apartments[i].getRentalEndDate());
+        }
+        return endDays;
+    }
+
+    /**
+     * Packs DateCodec keys, such as the ones of ApartmentStore, into day numbers.
+     *
+     * @param keys
+     * @return day numbers
+     */
+    public static int[] packKeys(int[] keys) {
+        int[] days = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            days[i] = DateCodec.toEpochDay(keys[i]);
+        }
+        return days;
+    }
+
+    /**
+     * Returns the days left of every end date until the date, or -1 where the
+     * date is after the end date.
+     *
+     * @param endDays
+     * @param asOf
+     * @return days left
+     */
+    public static int[] daysLeft(int[] endDays, Date asOf) {
+        int[] daysLeft = new int[endDays.length];
+        daysLeft(endDays, 0, endDays.length, pack(asOf), daysLeft);
+        return daysLeft;
+    }
+
+    /**
+     * Writes the days left of the end dates between from (inclusive) and to
+     * (exclusive) until the day number asOf to the same indexes of out, or -1
+     * where asOf is after the end date.
+     *
+     * @param endDays
+     * @param from
+     * @param to
+     * @param asOf
+     * @param out
+     */
+    public static void daysLeft(int[] endDays, int from, int to, int asOf, int[] out) {
+        if (from < 0 || to > endDays.length || to > out.length || from > to) {
+            throw new IndexOutOfBoundsException("range " + from + "-" + to + " out of bounds for length "
+                    + Math.min(endDays.length, out.length));
+        }
+        for (int i = from; i < to; i++) {
+            int difference = endDays[i] - asOf;
+            // A negative difference has all sign bits set, which ORs it to -1
+            out[i] = difference | (difference >> 31);
+        }
+    }
+
+    /**
+     * Returns the number of end dates whose days left until the day number asOf
+     * are between 0 and days, inclusive.
+     *
+     * @param endDays
+     * @param asOf
+     * @param days
+     * @return count
+     */
+    public static int countExpiringWithin(int[] endDays, int asOf, int days) {
+        if (days < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int endDay : endDays) {
+            // Unsigned compare folds the two bounds into one
+            count += Integer.compareUnsigned(endDay - asOf, days) <= 0 ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * ImmutableApartment is an Apartment that can't be changed after it was
+ * created, so a single instance can be shared instead of copied, for example
+ * by read-heavy dashboards.
+ * To change it, use the Apartment copy constructor as a builder and freeze the
+ * result again:
+ *
+ * <pre>
+ * Apartment draft = new Apartment(snapshot);
+ * draft.setPrice(6000);
+ * snapshot = ImmutableApartment.of(draft);
+ * </pre>
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ImmutableApartment extends Apartment {
+
+    /**
+     * ImmutableApartment takes an Apartment object and copies its values.
+     *
+     * @param other
+     */
+    ImmutableApartment(Apartment other) {
+        super(other);
+    }
+
+    /**
+     * Returns an immutable apartment equal to the input apartment, the apartment
+     * itself if it's already immutable.
+     *
+     * @param apartment
+     * @return ImmutableApartment
+     */
+    public static ImmutableApartment of(Apartment apartment) {
+        if (apartment instanceof ImmutableApartment) {
+            return (ImmutableApartment) apartment;
+        }
+        return new ImmutableApartment(apartment);
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param num
+     */
+    public void setNoOfRooms(int num) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param area
+     */
+    public void setArea(double area) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param price
+     */
+    public void setPrice(double price) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param p
+     */
+    public void setTenant(Person p) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param d
+     */
+    public void setRentalStartDate(Date d) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param d
+     */
+    public void setRentalEndDate(Date d) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param years
+     */
+    public void extendRentalPeriod(int years) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+
+    /**
+     * Not supported, the apartment can't be changed.
+     *
+     * @param startDate
+     * @param p
+     * @param price
+     * @return never returns
+     */
+    public boolean changeTenant(Date startDate, Person p, double price) {
+        throw new UnsupportedOperationException("ImmutableApartment can't be changed");
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * ImmutableDate is a Date whose day, month and year can't be changed after it
+ * was created, so a single instance can be shared instead of copied.
+ * Instances are created through Date.of and Date.intern.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ImmutableDate extends Date {
+
+    /**
+     * ImmutableDate takes a Date object and copies its value.
+     *
+     * @param other
+     */
+    ImmutableDate(Date other) {
+        super(other);
+    }
+
+    /**
+     * Not supported, the date can't be changed.
+     *
+     * @param dayToSet
+     */
+    public void setDay(int dayToSet) {
+        throw new UnsupportedOperationException("ImmutableDate can't be changed");
+    }
+
+    /**
+     * Not supported, the date can't be changed.
+     *
+     * @param monthToSet
+     */
+    public void setMonth(int monthToSet) {
+        throw new UnsupportedOperationException("ImmutableDate can't be changed");
+    }
+
+    /**
+     * Not supported, the date can't be changed.
+     *
+     * @param yearToSet
+     */
+    public void setYear(int yearToSet) {
+        throw new UnsupportedOperationException("ImmutableDate can't be changed");
+    }
+}
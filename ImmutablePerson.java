@@ -0,0 +1,117 @@
+import java.nio.ByteBuffer;
+
+/**
+ * ImmutablePerson is a Person whose name, id and birth date can't be changed
+ * after it was created, so a single instance can be shared instead of copied.
+ * Use the Person copy constructor to get a mutable copy.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ImmutablePerson extends Person {
+
+    /**
+     * ImmutablePerson takes a Person object and copies its values.
+     *
+     * @param other
+     */
+    ImmutablePerson(Person other) {
+        super(other);
+    }
+
+    /**
+     * ImmutablePerson with values read from the binary form.
+     *
+     * @param name
+     * @param idNumber
+     * @param id
+     * @param birthDate
+     */
+    ImmutablePerson(String name, int idNumber, String id, ImmutableDate birthDate) {
+        super(name, idNumber, id, birthDate);
+    }
+
+    /**
+     * Returns a person with values read back from a file, as they were
+     * recorded. Unlike the Person constructor it doesn't validate them again,
+     * so a recorded ID that isn't 9 characters is kept.
+     *
+     * @param name
+     * @param id
+     * @param birthDate key (see DateCodec)
+     * @return ImmutablePerson
+     */
+    static ImmutablePerson restore(String name, String id, int birthDate) {
+        int idNumber = PersonId.encode(id);
+        return new ImmutablePerson(name, idNumber, idNumber == PersonId.NOT_NUMERIC ? id : null,
+                Date.of(DateCodec.dayOf(birthDate), DateCodec.monthOf(birthDate), DateCodec.yearOf(birthDate)));
+    }
+
+    /**
+     * Returns an immutable person equal to the input person, the person itself
+     * if it's already immutable.
+     *
+     * @param p
+     * @return ImmutablePerson
+     */
+    public static ImmutablePerson of(Person p) {
+        if (p instanceof ImmutablePerson) {
+            return (ImmutablePerson) p;
+        }
+        return new ImmutablePerson(p);
+    }
+
+    /**
+     * Reads a person written by Person.writeTo(ByteBuffer) as an immutable
+     * person, and moves the buffer's position past it.
+     *
+     * @param buf
+     * @return ImmutablePerson
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the person
+     * @throws IllegalArgumentException          if the bytes aren't a person
+     */
+    public static ImmutablePerson readFrom(ByteBuffer buf) {
+        return readFrom(buf, null);
+    }
+
+    /**
+     * Reads a person written by Person.writeTo(ByteBuffer, NameDictionary) as
+     * an immutable person, and moves the buffer's position past it.
+     *
+     * @param buf
+     * @param names the dictionary of the stream, or null
+     * @return ImmutablePerson
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the person
+     * @throws IllegalArgumentException          if the bytes aren't a person
+     */
+    public static ImmutablePerson readFrom(ByteBuffer buf, NameDictionary names) {
+        return (ImmutablePerson) Person.read(buf, names, true);
+    }
+
+    /**
+     * Not supported, the person can't be changed.
+     *
+     * @param name
+     */
+    public void setName(String name) {
+        throw new UnsupportedOperationException("ImmutablePerson can't be changed");
+    }
+
+    /**
+     * Not supported, the person can't be changed.
+     *
+     * @param id
+     */
+    public void setId(String id) {
+        throw new UnsupportedOperationException("ImmutablePerson can't be changed");
+    }
+
+    /**
+     * Not supported, the person can't be changed.
+     *
+     * @param date
+     */
+    public void setDateOfBirth(Date date) {
+        throw new UnsupportedOperationException("ImmutablePerson can't be changed");
+    }
+}
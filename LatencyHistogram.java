@@ -0,0 +1,165 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram counts non-negative values, such as durations in
+ * nanoseconds, in log-linear buckets like HdrHistogram: values below 64 have a
+ * bucket each, and every power of two above is split into 32 buckets, so a
+ * percentile is within about 3% of the recorded value with a fixed array of
+ * counts and no allocation when recording.
+ * The histogram is thread-safe. A bucket is counted by a LongAdder, created
+ * when its first value is recorded, so threads recording into the same hot
+ * bucket are spread over the adder's cells instead of contending for one
+ * counter.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class LatencyHistogram {
+    private final AtomicReferenceArray<LongAdder> _counts = new AtomicReferenceArray<LongAdder>(BUCKETS);
+    private final LongAdder _count = new LongAdder();
+    private final LongAdder _sum = new LongAdder();
+    private final LongAccumulator _max = new LongAccumulator(Math::max, 0);
+
+    // 2^SUB_BITS linear buckets, then 2^(SUB_BITS - 1) buckets per power of two
+    private static final int SUB_BITS = 6;
+    private static final int LINEAR = 1 << SUB_BITS;
+    private static final int HALF = LINEAR / 2;
+    private static final int BUCKETS = LINEAR + (Long.SIZE - 1 - SUB_BITS) * HALF;
+
+    /**
+     * Records the value, a negative value is recorded as 0.
+     *
+     * @param value
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counter(bucketOf(value)).increment();
+        _count.increment();
+        _sum.add(value);
+        _max.accumulate(value);
+    }
+
+    /**
+     * Returns the counter of the bucket, creating it on first use.
+     *
+     * @param bucket
+     * @return counter
+     */
+    private LongAdder counter(int bucket) {
+        LongAdder counter = _counts.get(bucket);
+        if (counter == null) {
+            LongAdder created = new LongAdder();
+            counter = _counts.compareAndExchange(bucket, null, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Returns the bucket of the value.
+     *
+     * @param value
+     * @return bucket
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS + 1;
+        return LINEAR + (exponent - SUB_BITS) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    /**
+     * Returns the highest value of the bucket.
+     *
+     * @param bucket
+     * @return value
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / HALF + SUB_BITS;
+        int shift = exponent - SUB_BITS + 1;
+        long sub = (bucket - LINEAR) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return _count.sum();
+    }
+
+    /**
+     * Returns the highest recorded value, or 0 if none was recorded.
+     *
+     * @return max
+     */
+    public long getMax() {
+        return _max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values, or 0 if none was recorded.
+     *
+     * @return mean
+     */
+    public double getMean() {
+        long count = _count.sum();
+        return count == 0 ? 0 : (double) _sum.sum() / count;
+    }
+
+    /**
+     * Returns the value that the percentage of the recorded values are at or
+     * below, up to the bucket precision, or 0 if none was recorded.
+     *
+     * @param percentile between 0 and 100
+     * @return value
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder counter = _counts.get(i);
+            counts[i] = counter == null ? 0 : counter.sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder counter = _counts.get(i);
+            if (counter != null) {
+                counter.reset();
+            }
+        }
+        _count.reset();
+        _sum.reset();
+        _max.reset();
+    }
+}
@@ -0,0 +1,29 @@
+import java.util.List;
+
+/**
+ * LeaseListener is notified by a LeaseScheduler when the lease events of the
+ * apartments it schedules are due. All the apartments with the same event on
+ * the same day are passed together.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public interface LeaseListener {
+
+    /**
+     * Called when the apartments' rental period ends in 90 days, which is the
+     * first day changeTenant can accept a new tenant.
+     *
+     * @param day
+     * @param apartments
+     */
+    void changeTenantWindowOpened(Date day, List<Apartment> apartments);
+
+    /**
+     * Called on the last day of the apartments' rental period.
+     *
+     * @param day
+     * @param apartments
+     */
+    void rentalPeriodEnded(Date day, List<Apartment> apartments);
+}
@@ -0,0 +1,115 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LeaseMetrics counts changeTenant outcomes and rejection reasons with
+ * striped LongAdder counters, which don't contend between threads, and keeps a
+ * LatencyHistogram of changeTenant, daysLeft and extendRentalPeriod calls.
+ * Install it with Apartment.setMetrics and read it with getSnapshot or
+ * toString.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class LeaseMetrics implements ApartmentMetrics {
+    private final LongAdder _accepted = new LongAdder();
+    private final LongAdder _rejected = new LongAdder();
+    private final LongAdder _startDateNotAfter = new LongAdder();
+    private final LongAdder _outsideWindow = new LongAdder();
+    private final LongAdder _priceTooLow = new LongAdder();
+    private final LongAdder _tenantNotYounger = new LongAdder();
+    private final LatencyHistogram _changeTenant = new LatencyHistogram();
+    private final LatencyHistogram _daysLeft = new LatencyHistogram();
+    private final LatencyHistogram _extendRentalPeriod = new LatencyHistogram();
+
+    /**
+     * Counts the accepted tenant change and records its time.
+     *
+     * @param nanos
+     */
+    public void tenantChangeAccepted(long nanos) {
+        _accepted.increment();
+        _changeTenant.record(nanos);
+    }
+
+    /**
+     * Counts the rejected tenant change and every rule it failed, and records
+     * its time.
+     *
+     * @param nanos
+     * @param startDateNotAfter
+     * @param outsideWindow
+     * @param priceTooLow
+     * @param tenantNotYounger
+     */
+    public void tenantChangeRejected(long nanos, boolean startDateNotAfter, boolean outsideWindow,
+            boolean priceTooLow, boolean tenantNotYounger) {
+        _rejected.increment();
+        if (startDateNotAfter) {
+            _startDateNotAfter.increment();
+        }
+        if (outsideWindow) {
+            _outsideWindow.increment();
+        }
+        if (priceTooLow) {
+            _priceTooLow.increment();
+        }
+        if (tenantNotYounger) {
+            _tenantNotYounger.increment();
+        }
+        _changeTenant.record(nanos);
+    }
+
+    /**
+     * Records the time of a daysLeft call.
+     *
+     * @param nanos
+     */
+    public void daysLeftMeasured(long nanos) {
+        _daysLeft.record(nanos);
+    }
+
+    /**
+     * Records the time of an extendRentalPeriod call.
+     *
+     * @param nanos
+     */
+    public void rentalPeriodExtended(long nanos) {
+        _extendRentalPeriod.record(nanos);
+    }
+
+    /**
+     * Returns the current values. Counters updated while the snapshot is taken
+     * may or may not be included.
+     *
+     * @return LeaseMetricsSnapshot
+     */
+    public LeaseMetricsSnapshot getSnapshot() {
+        return new LeaseMetricsSnapshot(_accepted.sum(), _rejected.sum(), _startDateNotAfter.sum(),
+                _outsideWindow.sum(), _priceTooLow.sum(), _tenantNotYounger.sum(), _changeTenant, _daysLeft,
+                _extendRentalPeriod);
+    }
+
+    /**
+     * Removes every counted and recorded value.
+     */
+    public void reset() {
+        _accepted.reset();
+        _rejected.reset();
+        _startDateNotAfter.reset();
+        _outsideWindow.reset();
+        _priceTooLow.reset();
+        _tenantNotYounger.reset();
+        _changeTenant.reset();
+        _daysLeft.reset();
+        _extendRentalPeriod.reset();
+    }
+
+    /**
+     * Returns a text dump of the current values.
+     *
+     * @return String
+     */
+    public String toString() {
+        return getSnapshot().toString();
+    }
+}
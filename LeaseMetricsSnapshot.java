@@ -0,0 +1,215 @@
+/**
+ * LeaseMetricsSnapshot holds the values of a LeaseMetrics at one point in
+ * time. Latencies are in nanoseconds.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class LeaseMetricsSnapshot {
+    private final long _accepted;
+    private final long _rejected;
+    private final long _startDateNotAfter;
+    private final long _outsideWindow;
+    private final long _priceTooLow;
+    private final long _tenantNotYounger;
+    private final Latency _changeTenant;
+    private final Latency _daysLeft;
+    private final Latency _extendRentalPeriod;
+
+    /**
+     * The summary of a LatencyHistogram.
+     */
+    public static class Latency {
+        private final long _count;
+        private final double _mean;
+        private final long _p50;
+        private final long _p99;
+        private final long _p999;
+        private final long _max;
+
+        private Latency(LatencyHistogram histogram) {
+            _count = histogram.getCount();
+            _mean = histogram.getMean();
+            _p50 = histogram.getValueAtPercentile(50);
+            _p99 = histogram.getValueAtPercentile(99);
+            _p999 = histogram.getValueAtPercentile(99.9);
+            _max = histogram.getMax();
+        }
+
+        /**
+         * Returns the number of calls.
+         *
+         * @return count
+         */
+        public long getCount() {
+            return _count;
+        }
+
+        /**
+         * Returns the mean latency.
+         *
+         * @return mean
+         */
+        public double getMean() {
+            return _mean;
+        }
+
+        /**
+         * Returns the median latency.
+         *
+         * @return p50
+         */
+        public long getP50() {
+            return _p50;
+        }
+
+        /**
+         * Returns the 99th percentile latency.
+         *
+         * @return p99
+         */
+        public long getP99() {
+            return _p99;
+        }
+
+        /**
+         * Returns the 99.9th percentile latency.
+         *
+         * @return p999
+         */
+        public long getP999() {
+            return _p999;
+        }
+
+        /**
+         * Returns the highest latency.
+         *
+         * @return max
+         */
+        public long getMax() {
+            return _max;
+        }
+
+        /**
+         * Returns a string representation of the latency summary.
+         *
+         * @return String
+         */
+        public String toString() {
+            return "count=" + _count + " mean=" + Math.round(_mean) + " p50=" + _p50 + " p99=" + _p99 + " p99.9="
+                    + _p999 + " max=" + _max;
+        }
+    }
+
+    LeaseMetricsSnapshot(long accepted, long rejected, long startDateNotAfter, long outsideWindow,
+            long priceTooLow, long tenantNotYounger, LatencyHistogram changeTenant, LatencyHistogram daysLeft,
+            LatencyHistogram extendRentalPeriod) {
+        _accepted = accepted;
+        _rejected = rejected;
+        _startDateNotAfter = startDateNotAfter;
+        _outsideWindow = outsideWindow;
+        _priceTooLow = priceTooLow;
+        _tenantNotYounger = tenantNotYounger;
+        _changeTenant = new Latency(changeTenant);
+        _daysLeft = new Latency(daysLeft);
+        _extendRentalPeriod = new Latency(extendRentalPeriod);
+    }
+
+    /**
+     * Returns the number of accepted tenant changes.
+     *
+     * @return accepted
+     */
+    public long getAccepted() {
+        return _accepted;
+    }
+
+    /**
+     * Returns the number of rejected tenant changes.
+     *
+     * @return rejected
+     */
+    public long getRejected() {
+        return _rejected;
+    }
+
+    /**
+     * Returns the number of rejections whose start date wasn't after the rental
+     * start date.
+     *
+     * @return count
+     */
+    public long getStartDateNotAfter() {
+        return _startDateNotAfter;
+    }
+
+    /**
+     * Returns the number of rejections whose start date was more than 90 days
+     * from the end of the rental period.
+     *
+     * @return count
+     */
+    public long getOutsideWindow() {
+        return _outsideWindow;
+    }
+
+    /**
+     * Returns the number of rejections whose price was too low.
+     *
+     * @return count
+     */
+    public long getPriceTooLow() {
+        return _priceTooLow;
+    }
+
+    /**
+     * Returns the number of rejections whose tenant wasn't younger.
+     *
+     * @return count
+     */
+    public long getTenantNotYounger() {
+        return _tenantNotYounger;
+    }
+
+    /**
+     * Returns the latency summary of changeTenant.
+     *
+     * @return Latency
+     */
+    public Latency getChangeTenant() {
+        return _changeTenant;
+    }
+
+    /**
+     * Returns the latency summary of daysLeft.
+     *
+     * @return Latency
+     */
+    public Latency getDaysLeft() {
+        return _daysLeft;
+    }
+
+    /**
+     * Returns the latency summary of extendRentalPeriod.
+     *
+     * @return Latency
+     */
+    public Latency getExtendRentalPeriod() {
+        return _extendRentalPeriod;
+    }
+
+    /**
+     * Returns a text dump of the metrics, one value per line.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "changeTenant.accepted " + _accepted + "\nchangeTenant.rejected " + _rejected
+                + "\nchangeTenant.rejected.startDateNotAfter " + _startDateNotAfter
+                + "\nchangeTenant.rejected.outsideWindow " + _outsideWindow
+                + "\nchangeTenant.rejected.priceTooLow " + _priceTooLow
+                + "\nchangeTenant.rejected.tenantNotYounger " + _tenantNotYounger
+                + "\nchangeTenant.latency " + _changeTenant + "\ndaysLeft.latency " + _daysLeft
+                + "\nextendRentalPeriod.latency " + _extendRentalPeriod;
+    }
+}
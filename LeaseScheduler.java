@@ -0,0 +1,368 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * LeaseScheduler fires the lease events of apartments when a clock reaches
+ * them, instead of polling daysLeft on every apartment every day.
+ * Each apartment has two events: the opening of the changeTenant window (90
+ * days before the end of the rental period) and the end of the rental period.
+ * The events are kept in a hierarchical timer wheel keyed by day number, so
+ * scheduling and cancelling an event take constant time and advancing the
+ * clock by a day only looks at the events due on that day.
+ * The scheduler listens to the apartments added to it and reschedules their
+ * events when their rental period changes, including from within a
+ * LeaseListener. A changeTenant window that is already open when an apartment
+ * is added or rescheduled opens on the next day the clock advances to, as
+ * polling daysLeft would find it; the events of a rental period that already
+ * ended are not scheduled.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class LeaseScheduler implements ApartmentListener {
+    // Event kinds, also their index in an apartment's events
+    private static final int WINDOW_OPENED = 0;
+    private static final int RENTAL_ENDED = 1;
+    private static final int KINDS = 2;
+
+    // Days before the end of the rental period when changeTenant starts
+    // accepting tenants (same as Apartment.changeTenant)
+    private static final int CHANGE_TENANT_WINDOW_DAYS = 90;
+
+    // 4 levels of 64 slots cover 2^24 days, more than the years 1000-9999.
+    // Level n holds the events whose day differs from the current day first
+    // in its 6 bits.
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    // Days are kept relative to the day before 1/1/1000, so they are positive
+    private static final int BASE_DAY = CalendarTable.epochDay(1, 1, 1000) - 1;
+    private static final int LAST_DAY = CalendarTable.epochDay(31, 12, 9999) - BASE_DAY;
+
+    private final Event[][] _wheel = new Event[LEVELS][SLOTS];
+    private final IdentityHashMap<Apartment, Event[]> _events = new IdentityHashMap<Apartment, Event[]>();
+    private LeaseListener[] _listeners = new LeaseListener[0];
+    private int _now;
+    private int _pending;
+
+    /**
+     * An event of an apartment, linked into the list of its wheel slot while it
+     * is scheduled. Events are reused when the apartment is rescheduled.
+     */
+    private static class Event {
+        private final Apartment _apartment;
+        private final int _kind;
+        private int _day;
+        private boolean _scheduled;
+        private int _level;
+        private Event _previous;
+        private Event _next;
+
+        private Event(Apartment apartment, int kind) {
+            _apartment = apartment;
+            _kind = kind;
+        }
+    }
+
+    /**
+     * LeaseScheduler accepts the current date of its clock.
+     *
+     * @param today
+     */
+    public LeaseScheduler(Date today) {
+        _now = day(today);
+    }
+
+    /**
+     * Adds a listener that is notified when events are due.
+     *
+     * @param listener
+     */
+    public void addListener(LeaseListener listener) {
+        LeaseListener[] listeners = new LeaseListener[_listeners.length + 1];
+        System.arraycopy(_listeners, 0, listeners, 0, _listeners.length);
+        listeners[_listeners.length] = listener;
+        _listeners = listeners;
+    }
+
+    /**
+     * Removes a listener added with addListener.
+     *
+     * @param listener
+     */
+    public void removeListener(LeaseListener listener) {
+        for (int i = 0; i < _listeners.length; i++) {
+            if (_listeners[i] == listener) {
+                LeaseListener[] listeners = new LeaseListener[_listeners.length - 1];
+                System.arraycopy(_listeners, 0, listeners, 0, i);
+                System.arraycopy(_listeners, i + 1, listeners, i, listeners.length - i);
+                _listeners = listeners;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the apartment and schedules its events. Adding an apartment twice has
+     * no effect.
+     *
+     * @param apartment
+     */
+    public void add(Apartment apartment) {
+        if (_events.containsKey(apartment)) {
+            return;
+        }
+        Event[] events = new Event[KINDS];
+        for (int kind = 0; kind < KINDS; kind++) {
+            events[kind] = new Event(apartment, kind);
+        }
+        _events.put(apartment, events);
+        schedule(apartment, events);
+        apartment.addListener(this);
+    }
+
+    /**
+     * Removes the apartment and cancels its events.
+     *
+     * @param apartment
+     */
+    public void remove(Apartment apartment) {
+        Event[] events = _events.remove(apartment);
+        if (events != null) {
+            cancel(events);
+            apartment.removeListener(this);
+        }
+    }
+
+    /**
+     * Returns the number of apartments in the scheduler.
+     *
+     * @return size
+     */
+    public int size() {
+        return _events.size();
+    }
+
+    /**
+     * Returns the number of events that didn't fire yet.
+     *
+     * @return pending events
+     */
+    public int getPending() {
+        return _pending;
+    }
+
+    /**
+     * Returns the current date of the clock.
+     *
+     * @return Date
+     */
+    public Date getToday() {
+        return date(_now);
+    }
+
+    /**
+     * Reschedules the events of the apartment for its new rental period.
+     *
+     * @param apartment
+     */
+    public void rentalPeriodChanged(Apartment apartment) {
+        Event[] events = _events.get(apartment);
+        if (events != null) {
+            cancel(events);
+            schedule(apartment, events);
+        }
+    }
+
+    /**
+     * Advances the clock by days, firing the events due on every day passed,
+     * and returns the number of events fired.
+     *
+     * @param days
+     * @return events fired
+     */
+    public int advanceBy(int days) {
+        return advanceTo(_now + Math.min(Math.max(0, days), LAST_DAY));
+    }
+
+    /**
+     * Advances the clock to the date, firing the events due on every day up to
+     * and including it, and returns the number of events fired. A date before
+     * the current date does nothing.
+     *
+     * @param d
+     * @return events fired
+     */
+    public int advanceTo(Date d) {
+        return advanceTo(day(d));
+    }
+
+    private int advanceTo(int target) {
+        target = Math.min(target, LAST_DAY);
+        int fired = 0;
+        while (_now < target) {
+            // Nothing is scheduled, so there is nothing to cascade or fire
+            if (_pending == 0) {
+                _now = target;
+                break;
+            }
+            _now++;
+            cascade();
+            fired += fire();
+        }
+        return fired;
+    }
+
+    /**
+     * Moves the events of the higher level slots that start on the current day
+     * down to the lower levels, highest level first.
+     */
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = level * SLOT_BITS;
+            if ((_now & ((1 << shift) - 1)) == 0) {
+                int slot = (_now >>> shift) & SLOT_MASK;
+                Event event = _wheel[level][slot];
+                _wheel[level][slot] = null;
+                while (event != null) {
+                    Event next = event._next;
+                    place(event);
+                    event = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fires the events of the current day, grouped by kind.
+     *
+     * @return events fired
+     */
+    private int fire() {
+        int slot = _now & SLOT_MASK;
+        Event event = _wheel[0][slot];
+        if (event == null) {
+            return 0;
+        }
+        _wheel[0][slot] = null;
+
+        // Detach every due event first, so listeners can reschedule apartments
+        List<Apartment> opened = new ArrayList<Apartment>();
+        List<Apartment> ended = new ArrayList<Apartment>();
+        while (event != null) {
+            Event next = event._next;
+            event._previous = null;
+            event._next = null;
+            event._scheduled = false;
+            _pending--;
+            if (event._kind == WINDOW_OPENED) {
+                opened.add(event._apartment);
+            } else {
+                ended.add(event._apartment);
+            }
+            event = next;
+        }
+
+        Date today = date(_now);
+        for (LeaseListener listener : _listeners) {
+            if (!opened.isEmpty()) {
+                listener.changeTenantWindowOpened(today, opened);
+            }
+            if (!ended.isEmpty()) {
+                listener.rentalPeriodEnded(today, ended);
+            }
+        }
+        return opened.size() + ended.size();
+    }
+
+    /**
+     * Schedules the events of the apartment's current rental period.
+     *
+     * @param apartment
+     * @param events
+     */
+    private void schedule(Apartment apartment, Event[] events) {
+        int end = day(apartment.getRentalEndDate());
+        if (end > _now) {
+            schedule(events[WINDOW_OPENED], Math.max(end - CHANGE_TENANT_WINDOW_DAYS, _now + 1));
+        }
+        schedule(events[RENTAL_ENDED], end);
+    }
+
+    private void schedule(Event event, int day) {
+        if (day > _now) {
+            event._day = day;
+            event._scheduled = true;
+            place(event);
+            _pending++;
+        }
+    }
+
+    /**
+     * Links the event into the slot of the first level where its day differs
+     * from the current day.
+     *
+     * @param event
+     */
+    private void place(Event event) {
+        int highestBit = 31 - Integer.numberOfLeadingZeros(event._day ^ _now);
+        int level = Math.max(0, highestBit) / SLOT_BITS;
+        int slot = (event._day >>> (level * SLOT_BITS)) & SLOT_MASK;
+        event._level = level;
+        event._previous = null;
+        event._next = _wheel[level][slot];
+        if (event._next != null) {
+            event._next._previous = event;
+        }
+        _wheel[level][slot] = event;
+    }
+
+    /**
+     * Unlinks the apartment's events that didn't fire yet.
+     *
+     * @param events
+     */
+    private void cancel(Event[] events) {
+        for (Event event : events) {
+            if (!event._scheduled) {
+                continue;
+            }
+            if (event._previous != null) {
+                event._previous._next = event._next;
+            } else {
+                _wheel[event._level][(event._day >>> (event._level * SLOT_BITS)) & SLOT_MASK] = event._next;
+            }
+            if (event._next != null) {
+                event._next._previous = event._previous;
+            }
+            event._previous = null;
+            event._next = null;
+            event._scheduled = false;
+            _pending--;
+        }
+    }
+
+    /**
+     * Returns the day of the date, relative to the scheduler's base day.
+     *
+     * @param d
+     * @return day
+     */
+    private static int day(Date d) {
+        return DateCodec.toEpochDay(DateCodec.pack(d)) - BASE_DAY;
+    }
+
+    /**
+     * Returns a shared immutable date for the day.
+     *
+     * @param day
+     * @return Date
+     */
+    private static Date date(int day) {
+        int key = CalendarTable.fromEpochDay(day + BASE_DAY);
+        return Date.of(DateCodec.dayOf(key), DateCodec.monthOf(key), DateCodec.yearOf(key));
+    }
+}
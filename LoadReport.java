@@ -0,0 +1,65 @@
+/**
+ * LoadReport holds the totals of an ApartmentLoader run.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class LoadReport {
+    private final long _rows;
+    private final long _bytes;
+    private final long _nanos;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    LoadReport(long rows, long bytes, long nanos) {
+        _rows = rows;
+        _bytes = bytes;
+        _nanos = nanos;
+    }
+
+    /**
+     * Returns the number of apartments loaded.
+     *
+     * @return rows
+     */
+    public long getRows() {
+        return _rows;
+    }
+
+    /**
+     * Returns the number of bytes read.
+     *
+     * @return bytes
+     */
+    public long getBytes() {
+        return _bytes;
+    }
+
+    /**
+     * Returns the time the load took.
+     *
+     * @return nanoseconds
+     */
+    public long getNanos() {
+        return _nanos;
+    }
+
+    /**
+     * Returns the number of apartments loaded per second.
+     *
+     * @return rows per second
+     */
+    public double getRowsPerSecond() {
+        return _nanos == 0 ? 0 : _rows * NANOS_PER_SECOND / _nanos;
+    }
+
+    /**
+     * Returns a string representation of the report.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Rows: " + _rows + "\nBytes: " + _bytes + "\nTime: " + _nanos / NANOS_PER_SECOND * 1000 + " ms"
+                + "\nRows per second: " + (long) getRowsPerSecond();
+    }
+}
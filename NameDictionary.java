@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * NameDictionary numbers the names written to (or read from) a stream of
+ * binary Person and Apartment records, so a name that was already written is
+ * written again as its number. The writer and the reader each keep their own
+ * dictionary, and both add every new name in the same order, so the numbers
+ * match as long as the records are read in the order they were written.
+ * Once the dictionary is full, new names are written in full.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class NameDictionary {
+    private final HashMap<String, Integer> _indexes = new HashMap<String, Integer>();
+    private final List<String> _names = new ArrayList<String>();
+    private final int _capacity;
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * NameDictionary of up to 65536 names.
+     */
+    public NameDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * NameDictionary accepts the maximal number of names. The writer and the
+     * reader must use the same capacity.
+     *
+     * @param capacity
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public NameDictionary(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        _capacity = capacity;
+    }
+
+    /**
+     * Returns the number of the name, or -1 if it isn't in the dictionary.
+     *
+     * @param name
+     * @return number
+     */
+    public int indexOf(String name) {
+        Integer index = _indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Adds the name if the dictionary isn't full.
+     *
+     * @param name
+     * @return true if added, false if full
+     */
+    public boolean add(String name) {
+        if (_names.size() >= _capacity) {
+            return false;
+        }
+        _indexes.put(name, _names.size());
+        _names.add(name);
+        return true;
+    }
+
+    /**
+     * Returns the name of the number.
+     *
+     * @param index
+     * @return name
+     * @throws IllegalArgumentException if there is no such number
+     */
+    public String get(int index) {
+        if (index < 0 || index >= _names.size()) {
+            throw new IllegalArgumentException("Unknown name number " + index + ", dictionary has "
+                    + _names.size());
+        }
+        return _names.get(index);
+    }
+
+    /**
+     * Returns the number of names.
+     *
+     * @return size
+     */
+    public int size() {
+        return _names.size();
+    }
+
+    /**
+     * Removes every name, for starting a new stream.
+     */
+    public void clear() {
+        _indexes.clear();
+        _names.clear();
+    }
+}
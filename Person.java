@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /**
  * Person class represents a person with a name, id and birth date.
  * 
@@ -7,8 +11,9 @@
 public class Person {
     // Object attributes declaration
     private String _name;
-    private String _id;
-    private Date _birthDate;
+    private int _idNumber; // The ID as a number (see PersonId), if it's 9 digits
+    private String _id; // Only kept for IDs that aren't 9 digits
+    private ImmutableDate _birthDate;
 
     // Default values
     private final String DEFAULT_NAME = "Someone";
@@ -18,6 +23,12 @@ public class Person {
     private final int PERSON_IS_YOUNGER = -1;
     private final int PERSON_IS_SAME_AGE = 0;
 
+    // Flags of the header varint of the binary form, the rest of the header is
+    // the number of the name in the NameDictionary
+    private static final int NUMERIC_ID_FLAG = 1;
+    private static final int NEW_NAME_FLAG = 2;
+    private static final int HEADER_FLAG_BITS = 2;
+
     /**
      * Person accepts a name, birth date and id and sets the attributes.
      * 
@@ -36,7 +47,27 @@ public class Person {
         setAndValidateID(id);
 
         // Set Person's birth date
-        setDateOfBirth(new Date(day, month, year));
+        setDateOfBirth(Date.of(day, month, year));
+    }
+
+    /**
+     * Returns a person like the constructor does, except that the ID must also
+     * be a valid Israeli ID (see PersonId.isValidCheckDigit), else the default
+     * ID is set.
+     * 
+     * @param name
+     * @param day
+     * @param month
+     * @param year
+     * @param id
+     * @return Person
+     */
+    public static Person withCheckedId(String name, int day, int month, int year, String id) {
+        Person person = new Person(name, day, month, year, id);
+        if (!PersonId.isValidCheckDigit(id)) {
+            person.storeId(person.DEFAULT_ID);
+        }
+        return person;
     }
 
     /**
@@ -46,8 +77,26 @@ public class Person {
      */
     public Person(Person other) {
         _name = other._name;
+        _idNumber = other._idNumber;
         _id = other._id;
-        _birthDate = new Date(other._birthDate);
+        // The birth date is immutable, so it can be shared
+        _birthDate = other._birthDate;
+    }
+
+    /**
+     * Person with values read from the binary form, skipping the setters'
+     * validation.
+     * 
+     * @param name
+     * @param idNumber
+     * @param id
+     * @param birthDate
+     */
+    Person(String name, int idNumber, String id, ImmutableDate birthDate) {
+        _name = name;
+        _idNumber = idNumber;
+        _id = id;
+        _birthDate = birthDate;
     }
 
     /**
@@ -65,16 +114,27 @@ public class Person {
      * @return
      */
     public String getId() {
-        return _id;
+        return _id != null ? _id : PersonId.decode(_idNumber);
+    }
+
+    /**
+     * Returns the id of the person as a number (see PersonId), or
+     * PersonId.NOT_NUMERIC if it isn't 9 digits.
+     * 
+     * @return id number
+     */
+    public int getIdNumber() {
+        return _id != null ? PersonId.NOT_NUMERIC : _idNumber;
     }
 
     /**
      * Returns the birth date of the person.
+     * The returned date is shared and immutable.
      * 
      * @return birthDate
      */
     public Date getDateOfBirth() {
-        return new Date(_birthDate);
+        return _birthDate;
     }
 
     /**
@@ -123,7 +183,7 @@ public class Person {
      */
     public void setId(String id) {
         if (isIDValid(id)) {
-            _id = id;
+            storeId(id);
         }
     }
 
@@ -134,12 +194,22 @@ public class Person {
      */
     private void setAndValidateID(String id) {
         if (isIDValid(id)) {
-            _id = id;
+            storeId(id);
         } else {
-            _id = DEFAULT_ID;
+            storeId(DEFAULT_ID);
         }
     }
 
+    /**
+     * Stores the id as a number if it's 9 digits, else as a String.
+     * 
+     * @param id
+     */
+    private void storeId(String id) {
+        _idNumber = PersonId.encode(id);
+        _id = _idNumber == PersonId.NOT_NUMERIC ? id : null;
+    }
+
     /**
      * Checks if the ID provided is valid.
      * 
@@ -160,7 +230,7 @@ public class Person {
      * @param date
      */
     public void setDateOfBirth(Date date) {
-        _birthDate = new Date(date);
+        _birthDate = Date.intern(date);
     }
 
     /**
@@ -169,7 +239,175 @@ public class Person {
      * @return string
      */
     public String toString() {
-        return "Name: " + _name + "\nID: " + _id + "\nDate of birth: " + _birthDate.toString();
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the string representation of the person.
+     * 
+     * @param out
+     * @throws IOException if out throws
+     */
+    public void appendTo(Appendable out) throws IOException {
+        out.append("Name: ").append(_name).append("\nID: ");
+        if (_id != null) {
+            out.append(_id);
+        } else {
+            PersonId.appendTo(out, _idNumber);
+        }
+        out.append("\nDate of birth: ");
+        _birthDate.appendTo(out);
+    }
+
+    /**
+     * Appends the string representation of the person.
+     * 
+     * @param sb
+     */
+    public void appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Writes the string representation of the person into the buffer as UTF-8,
+     * and returns the offset after it.
+     * 
+     * @param buf
+     * @param offset
+     * @return offset
+     */
+    public int writeTo(byte[] buf, int offset) {
+        offset = TextFormat.writeUtf8(buf, offset, "Name: ");
+        offset = TextFormat.writeUtf8(buf, offset, _name);
+        offset = TextFormat.writeUtf8(buf, offset, "\nID: ");
+        if (_id != null) {
+            offset = TextFormat.writeUtf8(buf, offset, _id);
+        } else {
+            offset = PersonId.writeTo(buf, offset, _idNumber);
+        }
+        offset = TextFormat.writeUtf8(buf, offset, "\nDate of birth: ");
+        return _birthDate.writeTo(buf, offset);
+    }
+
+    /**
+     * Writes the person into the buffer in binary form, with the name in full.
+     * 
+     * @param buf
+     * @throws java.nio.BufferOverflowException if the person doesn't fit
+     */
+    public void writeTo(ByteBuffer buf) {
+        writeTo(buf, null);
+    }
+
+    /**
+     * Writes the person into the buffer in binary form: a header varint, the
+     * name (only its number if it is in the dictionary, else in full, and then
+     * it is added), the ID (4 bytes if it is 9 digits, else in full) and the
+     * birth date.
+     * 
+     * @param buf
+     * @param names the dictionary of the stream, or null
+     * @throws java.nio.BufferOverflowException if the person doesn't fit
+     */
+    public void writeTo(ByteBuffer buf, NameDictionary names) {
+        int header = _id == null ? NUMERIC_ID_FLAG : 0;
+        int index = names == null ? -1 : names.indexOf(_name);
+        if (index >= 0) {
+            BinaryFormat.putVarint(buf, index << HEADER_FLAG_BITS | header);
+        } else {
+            BinaryFormat.putVarint(buf, NEW_NAME_FLAG | header);
+            BinaryFormat.putString(buf, _name);
+            if (names != null) {
+                names.add(_name);
+            }
+        }
+        if (_id == null) {
+            buf.putInt(_idNumber);
+        } else {
+            BinaryFormat.putString(buf, _id);
+        }
+        _birthDate.writeTo(buf);
+    }
+
+    /**
+     * Reads a person written by writeTo(ByteBuffer), and moves the buffer's
+     * position past it.
+     * 
+     * @param buf
+     * @return Person
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the person
+     * @throws IllegalArgumentException          if the bytes aren't a person
+     */
+    public static Person readFrom(ByteBuffer buf) {
+        return readFrom(buf, null);
+    }
+
+    /**
+     * Reads a person written by writeTo(ByteBuffer, NameDictionary), and moves
+     * the buffer's position past it.
+     * 
+     * @param buf
+     * @param names the dictionary of the stream, or null
+     * @return Person
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the person
+     * @throws IllegalArgumentException          if the bytes aren't a person
+     */
+    public static Person readFrom(ByteBuffer buf, NameDictionary names) {
+        return read(buf, names, false);
+    }
+
+    /**
+     * Reads a person written by writeTo(ByteBuffer, NameDictionary) as a
+     * Person or as an ImmutablePerson.
+     * 
+     * @param buf
+     * @param names     the dictionary of the stream, or null
+     * @param immutable
+     * @return Person
+     */
+    static Person read(ByteBuffer buf, NameDictionary names, boolean immutable) {
+        int header = BinaryFormat.getVarint(buf);
+        String name;
+        if ((header & NEW_NAME_FLAG) != 0) {
+            if (header >>> HEADER_FLAG_BITS != 0) {
+                throw new IllegalArgumentException("Invalid person header at position " + buf.position());
+            }
+            name = BinaryFormat.getString(buf);
+            if (names != null) {
+                names.add(name);
+            }
+        } else if (names == null) {
+            throw new IllegalArgumentException("Name number without a dictionary at position " + buf.position());
+        } else {
+            name = names.get(header >>> HEADER_FLAG_BITS);
+        }
+
+        int idNumber;
+        String id;
+        if ((header & NUMERIC_ID_FLAG) != 0) {
+            idNumber = buf.getInt();
+            id = null;
+            if (idNumber < 0 || idNumber > PersonId.MAX_NUMBER) {
+                throw new IllegalArgumentException("Invalid ID at position " + buf.position());
+            }
+        } else {
+            idNumber = PersonId.NOT_NUMERIC;
+            id = BinaryFormat.getString(buf);
+        }
+        int birthDate = BinaryFormat.getDate(buf);
+        ImmutableDate date = Date.of(DateCodec.dayOf(birthDate), DateCodec.monthOf(birthDate),
+                DateCodec.yearOf(birthDate));
+        if (immutable) {
+            return new ImmutablePerson(name, idNumber, id, date);
+        }
+        return new Person(name, idNumber, id, date);
     }
 
     /**
@@ -195,6 +433,26 @@ public class Person {
      * @return boolean
      */
     public boolean equals(Person other) {
-        return _name == other._name && _id == other._id && _birthDate.equals(other._birthDate);
+        return Objects.equals(_name, other._name) && _idNumber == other._idNumber
+                && Objects.equals(_id, other._id) && _birthDate.equals(other._birthDate);
+    }
+
+    /**
+     * Checks if the object is a Person equal to this one.
+     * 
+     * @param other
+     * @return boolean
+     */
+    public boolean equals(Object other) {
+        return other instanceof Person && equals((Person) other);
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     * 
+     * @return hash code
+     */
+    public int hashCode() {
+        return Objects.hash(_name, _idNumber, _id, DateCodec.pack(_birthDate));
     }
 }
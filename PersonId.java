@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * PersonId encodes a 9 digit ID as a primitive int, so Person doesn't need to
+ * keep a String for it. The String is only rendered when it is asked for.
+ * It also checks the check digit of Israeli IDs, for callers that opt in
+ * (see Person.withCheckedId).
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class PersonId {
+    /**
+     * Returned by encode for IDs that aren't 9 digits.
+     */
+    public static final int NOT_NUMERIC = -1;
+
+    /**
+     * The highest encoded ID (999999999).
+     */
+    public static final int MAX_NUMBER = 999_999_999;
+
+    private static final int ID_LENGTH = 9;
+    private static final int HIGH_DIGIT_FACTOR = 100_000_000;
+    private static final int FOUR_DIGITS_FACTOR = 10_000;
+
+    private PersonId() {
+    }
+
+    /**
+     * Returns the ID as a number, or NOT_NUMERIC if it isn't 9 digits.
+     *
+     * @param id
+     * @return number
+     */
+    public static int encode(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            return NOT_NUMERIC;
+        }
+        int number = 0;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_NUMERIC;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Returns the 9 digit String of an encoded ID.
+     *
+     * @param number
+     * @return id
+     */
+    public static String decode(int number) {
+        byte[] buf = new byte[ID_LENGTH];
+        writeTo(buf, 0, number);
+        return new String(buf, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Appends the 9 digits of an encoded ID.
+     *
+     * @param out
+     * @param number
+     * @throws IOException if out throws
+     */
+    public static void appendTo(Appendable out, int number) throws IOException {
+        out.append((char) ('0' + number / HIGH_DIGIT_FACTOR));
+        TextFormat.appendFourDigits(out, number / FOUR_DIGITS_FACTOR % FOUR_DIGITS_FACTOR);
+        TextFormat.appendFourDigits(out, number % FOUR_DIGITS_FACTOR);
+    }
+
+    /**
+     * Writes the 9 digits of an encoded ID as ASCII and returns the offset after
+     * them.
+     *
+     * @param buf
+     * @param offset
+     * @param number
+     * @return offset
+     */
+    public static int writeTo(byte[] buf, int offset, int number) {
+        buf[offset++] = (byte) ('0' + number / HIGH_DIGIT_FACTOR);
+        offset = TextFormat.writeFourDigits(buf, offset, number / FOUR_DIGITS_FACTOR % FOUR_DIGITS_FACTOR);
+        return TextFormat.writeFourDigits(buf, offset, number % FOUR_DIGITS_FACTOR);
+    }
+
+    /**
+     * Checks the check digit (the last digit) of an Israeli ID.
+     *
+     * @param id
+     * @return true if valid, false otherwise
+     */
+    public static boolean isValidCheckDigit(String id) {
+        int number = encode(id);
+        return number != NOT_NUMERIC && isValidCheckDigit(number);
+    }
+
+    /**
+     * Checks the check digit (the last digit) of an encoded Israeli ID.
+     *
+     * @param number
+     * @return true if valid, false otherwise
+     */
+    public static boolean isValidCheckDigit(int number) {
+        // Digits are weighted 1, 2, 1, 2... from the left, products above 9 add their
+        // two digits, and the total must divide by 10
+        int sum = 0;
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            int digit = number % 10;
+            number /= 10;
+            int product = i % 2 == 0 ? digit : digit * 2;
+            sum += product > 9 ? product - 9 : product;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * PersonRegistry holds people by their ID, with one person per ID.
+ * IDs are 9 digits and kept as primitive longs in an open addressing hash
+ * table (linear probing), so lookups don't hash or compare Strings. A second
+ * index orders the people by birth date for youngest / oldest queries, such as
+ * finding the people younger than an apartment's tenant (see
+ * Apartment.changeTenant).
+ * The registry keeps immutable people, so the people it returns are shared
+ * instead of copied. It is not thread-safe.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class PersonRegistry {
+    private long[] _keys;
+    private ImmutablePerson[] _people;
+    private int _size;
+
+    // Birth date key * ID_FACTOR + ID key, ordered by birth date then ID
+    private final TreeSet<Long> _byBirthDate = new TreeSet<Long>();
+
+    private static final long EMPTY = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ID_LENGTH = 9;
+    private static final long ID_FACTOR = 1_000_000_000L;
+
+    /**
+     * PersonRegistry constructor creates an empty registry.
+     */
+    public PersonRegistry() {
+        _keys = new long[DEFAULT_CAPACITY];
+        _people = new ImmutablePerson[DEFAULT_CAPACITY];
+        Arrays.fill(_keys, EMPTY);
+    }
+
+    /**
+     * Returns the numeric key of a 9 digit ID.
+     *
+     * @param id
+     * @return key
+     * @throws IllegalArgumentException if the ID isn't 9 digits
+     */
+    public static long idKey(String id) {
+        if (id.length() != ID_LENGTH) {
+            throw new IllegalArgumentException("ID must be " + ID_LENGTH + " digits: " + id);
+        }
+        long key = 0;
+        for (int i = 0; i < ID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("ID must be " + ID_LENGTH + " digits: " + id);
+            }
+            key = key * 10 + (c - '0');
+        }
+        return key;
+    }
+
+    /**
+     * Adds the person, replacing the person with the same ID. A mutable person
+     * is copied, an immutable one is shared.
+     *
+     * @param p
+     * @return the replaced person, or null if the ID was new
+     * @throws IllegalArgumentException if the person's ID isn't 9 digits
+     */
+    public Person register(Person p) {
+        long key = p.getIdNumber() != PersonId.NOT_NUMERIC ? p.getIdNumber() : idKey(p.getId());
+        ImmutablePerson person = ImmutablePerson.of(p);
+        int slot = find(key);
+        Person previous = null;
+
+        if (_keys[slot] == key) {
+            previous = _people[slot];
+            _byBirthDate.remove(ageKey(previous, key));
+            _people[slot] = person;
+        } else {
+            _keys[slot] = key;
+            _people[slot] = person;
+            _size++;
+            if (_size * 2 > _keys.length) {
+                resize();
+            }
+        }
+        _byBirthDate.add(ageKey(person, key));
+        return previous;
+    }
+
+    /**
+     * Removes the person with the ID.
+     *
+     * @param id
+     * @return the removed person, or null if there was none
+     */
+    public Person remove(String id) {
+        long key = idKey(id);
+        int slot = find(key);
+        if (_keys[slot] != key) {
+            return null;
+        }
+
+        Person removed = _people[slot];
+        _byBirthDate.remove(ageKey(removed, key));
+        _size--;
+
+        // Shift back the following entries of the cluster, so lookups don't stop at the hole
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & (_keys.length - 1);
+            if (_keys[next] == EMPTY) {
+                break;
+            }
+            int home = slot(_keys[next]);
+            // Move the entry if its home slot isn't between the hole and it
+            if (((next - home) & (_keys.length - 1)) >= ((next - hole) & (_keys.length - 1))) {
+                _keys[hole] = _keys[next];
+                _people[hole] = _people[next];
+                hole = next;
+            }
+        }
+        _keys[hole] = EMPTY;
+        _people[hole] = null;
+        return removed;
+    }
+
+    /**
+     * Returns the person with the ID, or null if there is none.
+     *
+     * @param id
+     * @return person
+     */
+    public Person get(String id) {
+        return get(idKey(id));
+    }
+
+    /**
+     * Returns the person with the ID key (see idKey), or null if there is none.
+     *
+     * @param key
+     * @return person
+     */
+    public Person get(long key) {
+        int slot = find(key);
+        return _keys[slot] == key ? _people[slot] : null;
+    }
+
+    /**
+     * Returns the number of people in the registry.
+     *
+     * @return size
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Returns the youngest person, or null if the registry is empty.
+     *
+     * @return person
+     */
+    public Person youngest() {
+        return _byBirthDate.isEmpty() ? null : get(_byBirthDate.last() % ID_FACTOR);
+    }
+
+    /**
+     * Returns the oldest person, or null if the registry is empty.
+     *
+     * @return person
+     */
+    public Person oldest() {
+        return _byBirthDate.isEmpty() ? null : get(_byBirthDate.first() % ID_FACTOR);
+    }
+
+    /**
+     * Returns the people born after the person (younger, as in
+     * Person.compareTo), youngest first.
+     *
+     * @param p
+     * @return people
+     */
+    public List<Person> youngerThan(Person p) {
+        // Everyone with a later birth date, whatever their ID
+        long from = (DateCodec.pack(p.getDateOfBirth()) + 1) * ID_FACTOR;
+        List<Person> result = new ArrayList<Person>();
+        for (Long ageKey : _byBirthDate.tailSet(from, true).descendingSet()) {
+            result.add(get(ageKey % ID_FACTOR));
+        }
+        return result;
+    }
+
+    private static long ageKey(Person p, long key) {
+        return DateCodec.pack(p.getDateOfBirth()) * ID_FACTOR + key;
+    }
+
+    /**
+     * Returns the home slot of the key.
+     *
+     * @param key
+     * @return slot
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (_keys.length - 1);
+    }
+
+    /**
+     * Returns the slot of the key, or the empty slot where it would go.
+     *
+     * @param key
+     * @return slot
+     */
+    private int find(long key) {
+        int slot = slot(key);
+        while (_keys[slot] != EMPTY && _keys[slot] != key) {
+            slot = (slot + 1) & (_keys.length - 1);
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the hash table.
+     */
+    private void resize() {
+        long[] keys = _keys;
+        ImmutablePerson[] people = _people;
+        _keys = new long[keys.length * 2];
+        _people = new ImmutablePerson[keys.length * 2];
+        Arrays.fill(_keys, EMPTY);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                int slot = find(keys[i]);
+                _keys[slot] = keys[i];
+                _people[slot] = people[i];
+            }
+        }
+    }
+}
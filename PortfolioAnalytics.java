@@ -0,0 +1,157 @@
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PortfolioAnalytics computes aggregate figures over a collection of
+ * apartments: total rent, average price per square meter, the rooms
+ * distribution and the number of leases ending in every month.
+ * The apartments are split into the same ranges whether the work runs on a
+ * fork-join pool or sequentially, and the sums are compensated (Neumaier) and
+ * combined in range order, so both modes return identical results.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class PortfolioAnalytics {
+    // Ranges of at most this many apartments are computed without splitting
+    private static final int LEAF_SIZE = 4096;
+
+    private PortfolioAnalytics() {
+    }
+
+    /**
+     * Computes the summary on the common fork-join pool.
+     *
+     * @param apartments
+     * @return PortfolioSummary
+     */
+    public static PortfolioSummary analyze(Collection<Apartment> apartments) {
+        return analyze(apartments, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the summary on the given fork-join pool.
+     *
+     * @param apartments
+     * @param pool
+     * @return PortfolioSummary
+     */
+    public static PortfolioSummary analyze(Collection<Apartment> apartments, ForkJoinPool pool) {
+        Apartment[] array = apartments.toArray(new Apartment[0]);
+        return pool.invoke(new RangeTask(array, 0, array.length)).toSummary();
+    }
+
+    /**
+     * Computes the summary on the calling thread.
+     *
+     * @param apartments
+     * @return PortfolioSummary
+     */
+    public static PortfolioSummary analyzeSequential(Collection<Apartment> apartments) {
+        Apartment[] array = apartments.toArray(new Apartment[0]);
+        return new RangeTask(array, 0, array.length).compute().toSummary();
+    }
+
+    /**
+     * Computes the partial figures of a range of apartments, splitting it in
+     * half until it fits in a leaf.
+     */
+    private static class RangeTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final Apartment[] _apartments;
+        private final int _from;
+        private final int _to;
+
+        private RangeTask(Apartment[] apartments, int from, int to) {
+            _apartments = apartments;
+            _from = from;
+            _to = to;
+        }
+
+        protected Partial compute() {
+            if (_to - _from <= LEAF_SIZE) {
+                Partial partial = new Partial();
+                for (int i = _from; i < _to; i++) {
+                    partial.add(_apartments[i]);
+                }
+                return partial;
+            }
+
+            int middle = (_from + _to) >>> 1;
+            RangeTask left = new RangeTask(_apartments, _from, middle);
+            RangeTask right = new RangeTask(_apartments, middle, _to);
+            Partial rightPartial;
+            if (getPool() == null) {
+                // Sequential mode, not running inside a pool
+                Partial leftPartial = left.compute();
+                rightPartial = right.compute();
+                return leftPartial.merge(rightPartial);
+            }
+            left.fork();
+            rightPartial = right.compute();
+            return left.join().merge(rightPartial);
+        }
+    }
+
+    /**
+     * Partial figures of a range of apartments.
+     */
+    private static class Partial {
+        private double _rent;
+        private double _rentCompensation;
+        private double _pricePerMeter;
+        private double _pricePerMeterCompensation;
+        private long _units;
+        private final TreeMap<Integer, Long> _rooms = new TreeMap<Integer, Long>();
+        private final TreeMap<Integer, Long> _endingPerMonth = new TreeMap<Integer, Long>();
+
+        // Month key of a yyyymmdd date key, as yyyymm
+        private static final int DAYS_FACTOR = 100;
+
+        private void add(Apartment apartment) {
+            addRent(apartment.getPrice());
+            addPricePerMeter(apartment.getPrice() / apartment.getArea());
+            _units++;
+            _rooms.merge(apartment.getNoOfRooms(), 1L, Long::sum);
+            _endingPerMonth.merge(DateCodec.pack(apartment.getRentalEndDate()) / DAYS_FACTOR, 1L, Long::sum);
+        }
+
+        private void addRent(double value) {
+            double sum = _rent + value;
+            _rentCompensation += Math.abs(_rent) >= Math.abs(value) ? (_rent - sum) + value : (value - sum) + _rent;
+            _rent = sum;
+        }
+
+        private void addPricePerMeter(double value) {
+            double sum = _pricePerMeter + value;
+            _pricePerMeterCompensation += Math.abs(_pricePerMeter) >= Math.abs(value) ? (_pricePerMeter - sum) + value
+                    : (value - sum) + _pricePerMeter;
+            _pricePerMeter = sum;
+        }
+
+        private Partial merge(Partial other) {
+            addRent(other._rent);
+            _rentCompensation += other._rentCompensation;
+            addPricePerMeter(other._pricePerMeter);
+            _pricePerMeterCompensation += other._pricePerMeterCompensation;
+            _units += other._units;
+            for (Map.Entry<Integer, Long> entry : other._rooms.entrySet()) {
+                _rooms.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
+            for (Map.Entry<Integer, Long> entry : other._endingPerMonth.entrySet()) {
+                _endingPerMonth.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
+            return this;
+        }
+
+        private PortfolioSummary toSummary() {
+            double pricePerMeter = _pricePerMeter + _pricePerMeterCompensation;
+            return new PortfolioSummary(_units, _rent + _rentCompensation,
+                    _units == 0 ? 0 : pricePerMeter / _units, _rooms, _endingPerMonth);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * PortfolioSummary holds the aggregate figures computed by
+ * PortfolioAnalytics.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class PortfolioSummary {
+    private final long _units;
+    private final double _totalRent;
+    private final double _averagePricePerSquareMeter;
+    private final SortedMap<Integer, Long> _roomsDistribution;
+    private final SortedMap<Integer, Long> _leasesEndingPerMonth;
+
+    PortfolioSummary(long units, double totalRent, double averagePricePerSquareMeter,
+            SortedMap<Integer, Long> roomsDistribution, SortedMap<Integer, Long> leasesEndingPerMonth) {
+        _units = units;
+        _totalRent = totalRent;
+        _averagePricePerSquareMeter = averagePricePerSquareMeter;
+        _roomsDistribution = Collections.unmodifiableSortedMap(new TreeMap<Integer, Long>(roomsDistribution));
+        _leasesEndingPerMonth = Collections.unmodifiableSortedMap(new TreeMap<Integer, Long>(leasesEndingPerMonth));
+    }
+
+    /**
+     * Returns the number of apartments.
+     *
+     * @return units
+     */
+    public long getUnits() {
+        return _units;
+    }
+
+    /**
+     * Returns the sum of the apartments' prices.
+     *
+     * @return total rent
+     */
+    public double getTotalRent() {
+        return _totalRent;
+    }
+
+    /**
+     * Returns the average of the apartments' price divided by area.
+     *
+     * @return average price per square meter
+     */
+    public double getAveragePricePerSquareMeter() {
+        return _averagePricePerSquareMeter;
+    }
+
+    /**
+     * Returns the number of apartments per number of rooms.
+     *
+     * @return rooms distribution
+     */
+    public SortedMap<Integer, Long> getRoomsDistribution() {
+        return _roomsDistribution;
+    }
+
+    /**
+     * Returns the number of leases ending per month, keyed by yyyymm.
+     *
+     * @return leases ending per month
+     */
+    public SortedMap<Integer, Long> getLeasesEndingPerMonth() {
+        return _leasesEndingPerMonth;
+    }
+
+    /**
+     * Returns true if both summaries have the same figures.
+     *
+     * @param other
+     * @return boolean
+     */
+    public boolean equals(PortfolioSummary other) {
+        return _units == other._units && _totalRent == other._totalRent
+                && _averagePricePerSquareMeter == other._averagePricePerSquareMeter
+                && _roomsDistribution.equals(other._roomsDistribution)
+                && _leasesEndingPerMonth.equals(other._leasesEndingPerMonth);
+    }
+
+    /**
+     * Returns a string representation of the summary.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Units: " + _units + "\nTotal rent: " + _totalRent + " NIS" + "\nAverage price per m2: "
+                + _averagePricePerSquareMeter + " NIS" + "\nRooms distribution: " + _roomsDistribution
+                + "\nLeases ending per month: " + _leasesEndingPerMonth;
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * RentalIndex indexes apartments by their rental period, so range queries like
+ * "leases expiring in the next 90 days" or "leases active on a date" don't scan
+ * every apartment.
+ * Rental periods are an interval tree (a treap ordered by start date, where each
+ * node keeps the latest end date below it), and end dates are also kept in a
+ * sorted set. Both take logarithmic time to update and to search.
+ * The index listens to the apartments added to it and updates itself when their
+ * rental period changes. Rental periods include both the start and end dates.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class RentalIndex implements ApartmentListener {
+    private Node _root;
+    private final TreeSet<Node> _byEndDate = new TreeSet<Node>(RentalIndex::compareEndDates);
+    private final IdentityHashMap<Apartment, Node> _nodes = new IdentityHashMap<Apartment, Node>();
+    private final Random _random = new Random();
+    private long _nextSequence;
+
+    /**
+     * A node of the interval tree, with the rental period as day numbers.
+     */
+    private static class Node {
+        private final Apartment _apartment;
+        private final long _sequence;
+        private final int _priority;
+        private int _start;
+        private int _end;
+        private int _maxEnd;
+        private Node _left;
+        private Node _right;
+
+        private Node(Apartment apartment, long sequence, int priority) {
+            _apartment = apartment;
+            _sequence = sequence;
+            _priority = priority;
+        }
+    }
+
+    /**
+     * Adds the apartment to the index. Adding an apartment twice has no effect.
+     *
+     * @param apartment
+     */
+    public void add(Apartment apartment) {
+        if (_nodes.containsKey(apartment)) {
+            return;
+        }
+        Node node = new Node(apartment, _nextSequence++, _random.nextInt());
+        _nodes.put(apartment, node);
+        insert(node);
+        apartment.addListener(this);
+    }
+
+    /**
+     * Removes the apartment from the index.
+     *
+     * @param apartment
+     */
+    public void remove(Apartment apartment) {
+        Node node = _nodes.remove(apartment);
+        if (node != null) {
+            delete(node);
+            apartment.removeListener(this);
+        }
+    }
+
+    /**
+     * Returns the number of apartments in the index.
+     *
+     * @return size
+     */
+    public int size() {
+        return _nodes.size();
+    }
+
+    /**
+     * Moves the apartment to its new rental period.
+     *
+     * @param apartment
+     */
+    public void rentalPeriodChanged(Apartment apartment) {
+        Node node = _nodes.get(apartment);
+        if (node != null) {
+            delete(node);
+            insert(node);
+        }
+    }
+
+    /**
+     * Returns the apartments whose rental ends between the dates (inclusive),
+     * ordered by end date.
+     *
+     * @param from
+     * @param to
+     * @return apartments
+     */
+    public List<Apartment> expiringBetween(Date from, Date to) {
+        return expiringBetween(epochDay(from), epochDay(to));
+    }
+
+    /**
+     * Returns the apartments whose rental ends within the number of days after
+     * the date (inclusive), ordered by end date.
+     *
+     * @param d
+     * @param days
+     * @return apartments
+     */
+    public List<Apartment> expiringWithin(Date d, int days) {
+        int from = epochDay(d);
+        return expiringBetween(from, from + days);
+    }
+
+    /**
+     * Returns the apartments whose rental period includes the date.
+     *
+     * @param d
+     * @return apartments
+     */
+    public List<Apartment> activeOn(Date d) {
+        return overlapping(d, d);
+    }
+
+    /**
+     * Returns the apartments whose rental period overlaps the period between the
+     * dates (inclusive).
+     *
+     * @param start
+     * @param end
+     * @return apartments
+     */
+    public List<Apartment> overlapping(Date start, Date end) {
+        List<Apartment> result = new ArrayList<Apartment>();
+        collectOverlapping(_root, epochDay(start), epochDay(end), result);
+        return result;
+    }
+
+    /**
+     * Returns the day number of the date.
+     *
+     * @param d
+     * @return days
+     */
+    private static int epochDay(Date d) {
+        return DateCodec.toEpochDay(DateCodec.pack(d));
+    }
+
+    private List<Apartment> expiringBetween(int from, int to) {
+        List<Apartment> result = new ArrayList<Apartment>();
+        if (from > to) {
+            return result;
+        }
+
+        Node low = new Node(null, Long.MIN_VALUE, 0);
+        low._end = from;
+        Node high = new Node(null, Long.MAX_VALUE, 0);
+        high._end = to;
+        for (Node node : _byEndDate.subSet(low, true, high, true)) {
+            result.add(node._apartment);
+        }
+        return result;
+    }
+
+    private void collectOverlapping(Node node, int start, int end, List<Apartment> result) {
+        // Nothing below this node ends on or after the start of the period
+        if (node == null || node._maxEnd < start) {
+            return;
+        }
+        collectOverlapping(node._left, start, end, result);
+        if (node._start <= end && node._end >= start) {
+            result.add(node._apartment);
+        }
+        // Nodes on the right start on or after this one
+        if (node._start <= end) {
+            collectOverlapping(node._right, start, end, result);
+        }
+    }
+
+    /**
+     * Reads the current rental period of the node's apartment and inserts it.
+     *
+     * @param node
+     */
+    private void insert(Node node) {
+        node._start = epochDay(node._apartment.getRentalStartDate());
+        node._end = epochDay(node._apartment.getRentalEndDate());
+        node._left = null;
+        node._right = null;
+        update(node);
+
+        Node[] parts = split(_root, node);
+        _root = merge(merge(parts[0], node), parts[1]);
+        _byEndDate.add(node);
+    }
+
+    private void delete(Node node) {
+        _byEndDate.remove(node);
+        _root = delete(_root, node);
+    }
+
+    private Node delete(Node root, Node node) {
+        if (root == node) {
+            return merge(root._left, root._right);
+        }
+        if (compareStartDates(node, root) < 0) {
+            root._left = delete(root._left, node);
+        } else {
+            root._right = delete(root._right, node);
+        }
+        update(root);
+        return root;
+    }
+
+    /**
+     * Splits the tree into the nodes ordered before the key and the rest.
+     *
+     * @param root
+     * @param key
+     * @return the two trees
+     */
+    private Node[] split(Node root, Node key) {
+        if (root == null) {
+            return new Node[] { null, null };
+        }
+        if (compareStartDates(root, key) < 0) {
+            Node[] parts = split(root._right, key);
+            root._right = parts[0];
+            update(root);
+            parts[0] = root;
+            return parts;
+        } else {
+            Node[] parts = split(root._left, key);
+            root._left = parts[1];
+            update(root);
+            parts[1] = root;
+            return parts;
+        }
+    }
+
+    /**
+     * Merges two trees where every node of the left one is ordered before the
+     * nodes of the right one.
+     *
+     * @param left
+     * @param right
+     * @return the merged tree
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left._priority > right._priority) {
+            left._right = merge(left._right, right);
+            update(left);
+            return left;
+        } else {
+            right._left = merge(left, right._left);
+            update(right);
+            return right;
+        }
+    }
+
+    /**
+     * Recomputes the latest end date below the node.
+     *
+     * @param node
+     */
+    private static void update(Node node) {
+        int maxEnd = node._end;
+        if (node._left != null) {
+            maxEnd = Math.max(maxEnd, node._left._maxEnd);
+        }
+        if (node._right != null) {
+            maxEnd = Math.max(maxEnd, node._right._maxEnd);
+        }
+        node._maxEnd = maxEnd;
+    }
+
+    private static int compareStartDates(Node a, Node b) {
+        int result = Integer.compare(a._start, b._start);
+        return result != 0 ? result : Long.compare(a._sequence, b._sequence);
+    }
+
+    private static int compareEndDates(Node a, Node b) {
+        int result = Integer.compare(a._end, b._end);
+        return result != 0 ? result : Long.compare(a._sequence, b._sequence);
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TenantAuction runs a re-leasing round: it takes all the bids of the round,
+ * picks the winning bid of every apartment and changes the tenants in one pass.
+ * Bids are filtered with packed date keys (see DateCodec) using the rules of
+ * Apartment.changeTenant, so only the winning bid of each apartment goes
+ * through changeTenant itself.
+ * The winner is the youngest eligible bidder, then the highest price, then the
+ * earliest bid.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class TenantAuction {
+    private static final int MAX_RENTAL_DIFF_PERIOD = 90;
+
+    private TenantAuction() {
+    }
+
+    /**
+     * Runs the round over the bids and returns an outcome per apartment, in the
+     * order the apartments first appear in the bids.
+     *
+     * @param bids
+     * @return TenantAuctionReport
+     */
+    public static TenantAuctionReport run(List<TenantBid> bids) {
+        long startTime = System.nanoTime();
+
+        // Group the bids by apartment, keeping the order of first appearance
+        Map<Apartment, List<TenantBid>> bidsByApartment = new IdentityHashMap<Apartment, List<TenantBid>>();
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        for (TenantBid bid : bids) {
+            List<TenantBid> apartmentBids = bidsByApartment.get(bid.getApartment());
+            if (apartmentBids == null) {
+                apartmentBids = new ArrayList<TenantBid>();
+                bidsByApartment.put(bid.getApartment(), apartmentBids);
+                apartments.add(bid.getApartment());
+            }
+            apartmentBids.add(bid);
+        }
+        long groupedTime = System.nanoTime();
+
+        // Pick the winning bid of every apartment
+        TenantBid[] winners = new TenantBid[apartments.size()];
+        int[] eligibleCounts = new int[apartments.size()];
+        for (int i = 0; i < apartments.size(); i++) {
+            Apartment apartment = apartments.get(i);
+            int rentalStart = DateCodec.pack(apartment.getRentalStartDate());
+            int rentalEnd = DateCodec.toEpochDay(DateCodec.pack(apartment.getRentalEndDate()));
+            int tenantBirth = DateCodec.pack(apartment.getTenant().getDateOfBirth());
+            double priceFloor = apartment.getPrice();
+
+            for (TenantBid bid : bidsByApartment.get(apartment)) {
+                boolean isStartDateAfter = bid.getStartKey() > rentalStart;
+                boolean isNinetyDaysBeforeRentalEnd = Math.abs(DateCodec.toEpochDay(bid.getStartKey())
+                        - rentalEnd) <= MAX_RENTAL_DIFF_PERIOD;
+                boolean isPriceGreaterOrEqual = bid.getPrice() >= priceFloor;
+                boolean isNewTenantYounger = bid.getBirthKey() > tenantBirth;
+
+                if (isStartDateAfter && isNinetyDaysBeforeRentalEnd && isPriceGreaterOrEqual && isNewTenantYounger) {
+                    eligibleCounts[i]++;
+                    if (winners[i] == null || isBetterBid(bid, winners[i])) {
+                        winners[i] = bid;
+                    }
+                }
+            }
+        }
+        long selectedTime = System.nanoTime();
+
+        // Apply the winning bids
+        List<TenantAuctionReport.Outcome> outcomes = new ArrayList<TenantAuctionReport.Outcome>();
+        for (int i = 0; i < apartments.size(); i++) {
+            Apartment apartment = apartments.get(i);
+            TenantBid winner = winners[i];
+            boolean changed = winner != null
+                    && apartment.changeTenant(winner.getStartDate(), winner.getBidder(), winner.getPrice());
+            outcomes.add(new TenantAuctionReport.Outcome(apartment, bidsByApartment.get(apartment).size(),
+                    eligibleCounts[i], changed ? winner : null));
+        }
+        long appliedTime = System.nanoTime();
+
+        return new TenantAuctionReport(outcomes, bids.size(), groupedTime - startTime, selectedTime - groupedTime,
+                appliedTime - selectedTime);
+    }
+
+    /**
+     * Returns true if the bid beats the current winner: a younger bidder, then a
+     * higher price. Earlier bids win ties.
+     *
+     * @param bid
+     * @param winner
+     * @return boolean
+     */
+    private static boolean isBetterBid(TenantBid bid, TenantBid winner) {
+        if (bid.getBirthKey() != winner.getBirthKey()) {
+            return bid.getBirthKey() > winner.getBirthKey();
+        }
+        return bid.getPrice() > winner.getPrice();
+    }
+}
@@ -0,0 +1,155 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TenantAuctionReport holds the outcome of every apartment of a
+ * TenantAuction round and how long each phase of the round took.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class TenantAuctionReport {
+    private final List<Outcome> _outcomes;
+    private final int _bids;
+    private final int _changedUnits;
+    private final long _groupNanos;
+    private final long _selectNanos;
+    private final long _applyNanos;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Outcome of a single apartment in the round.
+     */
+    public static class Outcome {
+        private final Apartment _apartment;
+        private final int _bids;
+        private final int _eligibleBids;
+        private final TenantBid _winner;
+
+        Outcome(Apartment apartment, int bids, int eligibleBids, TenantBid winner) {
+            _apartment = apartment;
+            _bids = bids;
+            _eligibleBids = eligibleBids;
+            _winner = winner;
+        }
+
+        /**
+         * Returns the apartment.
+         *
+         * @return apartment
+         */
+        public Apartment getApartment() {
+            return _apartment;
+        }
+
+        /**
+         * Returns the number of bids on the apartment.
+         *
+         * @return bids
+         */
+        public int getBids() {
+            return _bids;
+        }
+
+        /**
+         * Returns the number of bids that passed the changeTenant rules.
+         *
+         * @return eligible bids
+         */
+        public int getEligibleBids() {
+            return _eligibleBids;
+        }
+
+        /**
+         * Returns true if the tenant was changed.
+         *
+         * @return boolean
+         */
+        public boolean isChanged() {
+            return _winner != null;
+        }
+
+        /**
+         * Returns the winning bid, or null if the tenant wasn't changed.
+         *
+         * @return winner
+         */
+        public TenantBid getWinner() {
+            return _winner;
+        }
+    }
+
+    TenantAuctionReport(List<Outcome> outcomes, int bids, long groupNanos, long selectNanos, long applyNanos) {
+        _outcomes = Collections.unmodifiableList(outcomes);
+        _bids = bids;
+        _groupNanos = groupNanos;
+        _selectNanos = selectNanos;
+        _applyNanos = applyNanos;
+
+        int changedUnits = 0;
+        for (Outcome outcome : outcomes) {
+            if (outcome.isChanged()) {
+                changedUnits++;
+            }
+        }
+        _changedUnits = changedUnits;
+    }
+
+    /**
+     * Returns the outcome of every apartment that had bids.
+     *
+     * @return outcomes
+     */
+    public List<Outcome> getOutcomes() {
+        return _outcomes;
+    }
+
+    /**
+     * Returns the number of apartments whose tenant was changed.
+     *
+     * @return changed units
+     */
+    public int getChangedUnits() {
+        return _changedUnits;
+    }
+
+    /**
+     * Returns the time spent grouping the bids by apartment.
+     *
+     * @return nanoseconds
+     */
+    public long getGroupNanos() {
+        return _groupNanos;
+    }
+
+    /**
+     * Returns the time spent filtering the bids and picking the winners.
+     *
+     * @return nanoseconds
+     */
+    public long getSelectNanos() {
+        return _selectNanos;
+    }
+
+    /**
+     * Returns the time spent changing the tenants.
+     *
+     * @return nanoseconds
+     */
+    public long getApplyNanos() {
+        return _applyNanos;
+    }
+
+    /**
+     * Returns a string representation of the report's totals and timings.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Bids: " + _bids + "\nUnits: " + _outcomes.size() + "\nChanged units: " + _changedUnits
+                + "\nGroup time: " + _groupNanos / NANOS_PER_MILLI + " ms"
+                + "\nSelect time: " + _selectNanos / NANOS_PER_MILLI + " ms"
+                + "\nApply time: " + _applyNanos / NANOS_PER_MILLI + " ms";
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * TenantBid represents a bid of a person to rent an apartment from a start
+ * date at a price, as accepted by Apartment.changeTenant.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class TenantBid {
+    private final Apartment _apartment;
+    private final ImmutableDate _startDate;
+    private final ImmutablePerson _bidder;
+    private final double _price;
+
+    // Packed keys (see DateCodec), computed once for filtering
+    private final int _startKey;
+    private final int _birthKey;
+
+    /**
+     * TenantBid accepts the apartment, start date, bidder and price.
+     *
+     * @param apartment
+     * @param startDate
+     * @param bidder
+     * @param price
+     */
+    public TenantBid(Apartment apartment, Date startDate, Person bidder, double price) {
+        _apartment = apartment;
+        _startDate = Date.intern(startDate);
+        _bidder = ImmutablePerson.of(bidder);
+        _price = price;
+        _startKey = DateCodec.pack(_startDate);
+        _birthKey = DateCodec.pack(_bidder.getDateOfBirth());
+    }
+
+    /**
+     * Returns the apartment of the bid.
+     *
+     * @return apartment
+     */
+    public Apartment getApartment() {
+        return _apartment;
+    }
+
+    /**
+     * Returns the start date of the bid.
+     *
+     * @return startDate
+     */
+    public Date getStartDate() {
+        return _startDate;
+    }
+
+    /**
+     * Returns the bidder.
+     * The returned person is shared and immutable.
+     *
+     * @return bidder
+     */
+    public Person getBidder() {
+        return _bidder;
+    }
+
+    /**
+     * Returns the price of the bid.
+     *
+     * @return price
+     */
+    public double getPrice() {
+        return _price;
+    }
+
+    /**
+     * Returns the start date key (see DateCodec) of the bid.
+     *
+     * @return startDate key
+     */
+    int getStartKey() {
+        return _startKey;
+    }
+
+    /**
+     * Returns the bidder's birth date key (see DateCodec).
+     *
+     * @return birthDate key
+     */
+    int getBirthKey() {
+        return _birthKey;
+    }
+
+    /**
+     * Returns a string representation of the bid.
+     *
+     * @return String
+     */
+    public String toString() {
+        return "Bidder: " + _bidder.getName() + "\nStart date: " + _startDate + "\nPrice: " + _price + " NIS";
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.IOException;
+
+/**
+ * TextFormat holds the helpers used by Date, Person and Apartment to format
+ * themselves into a caller-supplied Appendable or byte array without creating
+ * intermediate Strings. Bytes are written as UTF-8.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class TextFormat {
+    // Two digits of every number 0-99, "00", "01", ..., "99"
+    private static final char[] TWO_DIGITS = new char[200];
+
+    // Formats doubles exactly like Double.toString, reused per thread
+    private static final ThreadLocal<StringBuilder> DOUBLE_BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            TWO_DIGITS[i * 2] = (char) ('0' + i / 10);
+            TWO_DIGITS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    private TextFormat() {
+    }
+
+    /**
+     * Appends the number (0-99) as two digits.
+     *
+     * @param out
+     * @param num
+     * @throws IOException
+     */
+    public static void appendTwoDigits(Appendable out, int num) throws IOException {
+        out.append(TWO_DIGITS[num * 2]).append(TWO_DIGITS[num * 2 + 1]);
+    }
+
+    /**
+     * Appends the number (0-9999) as four digits.
+     *
+     * @param out
+     * @param num
+     * @throws IOException
+     */
+    public static void appendFourDigits(Appendable out, int num) throws IOException {
+        appendTwoDigits(out, num / 100);
+        appendTwoDigits(out, num % 100);
+    }
+
+    /**
+     * Appends the number the same way as Integer.toString.
+     *
+     * @param out
+     * @param num
+     * @throws IOException
+     */
+    public static void appendInt(Appendable out, int num) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(num);
+            return;
+        }
+        long value = num;
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Appends the number the same way as Double.toString.
+     *
+     * @param out
+     * @param num
+     * @throws IOException
+     */
+    public static void appendDouble(Appendable out, double num) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(num);
+        } else {
+            out.append(doubleBuffer(num));
+        }
+    }
+
+    /**
+     * Writes the number (0-99) as two digits and returns the offset after it.
+     *
+     * @param buf
+     * @param offset
+     * @param num
+     * @return offset
+     */
+    public static int writeTwoDigits(byte[] buf, int offset, int num) {
+        buf[offset] = (byte) TWO_DIGITS[num * 2];
+        buf[offset + 1] = (byte) TWO_DIGITS[num * 2 + 1];
+        return offset + 2;
+    }
+
+    /**
+     * Writes the number (0-9999) as four digits and returns the offset after it.
+     *
+     * @param buf
+     * @param offset
+     * @param num
+     * @return offset
+     */
+    public static int writeFourDigits(byte[] buf, int offset, int num) {
+        offset = writeTwoDigits(buf, offset, num / 100);
+        return writeTwoDigits(buf, offset, num % 100);
+    }
+
+    /**
+     * Writes the number the same way as Integer.toString and returns the offset
+     * after it.
+     *
+     * @param buf
+     * @param offset
+     * @param num
+     * @return offset
+     */
+    public static int writeInt(byte[] buf, int offset, int num) {
+        long value = num;
+        if (value < 0) {
+            buf[offset++] = '-';
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buf[offset++] = (byte) ('0' + value / divisor % 10);
+        }
+        return offset;
+    }
+
+    /**
+     * Writes the number the same way as Double.toString and returns the offset
+     * after it.
+     *
+     * @param buf
+     * @param offset
+     * @param num
+     * @return offset
+     */
+    public static int writeDouble(byte[] buf, int offset, double num) {
+        return writeUtf8(buf, offset, doubleBuffer(num));
+    }
+
+    /**
+     * Writes the characters as UTF-8 and returns the offset after them.
+     * A null text is written as "null".
+     *
+     * @param buf
+     * @param offset
+     * @param text
+     * @return offset
+     */
+    public static int writeUtf8(byte[] buf, int offset, CharSequence text) {
+        if (text == null) {
+            // Same as Appendable.append(null)
+            text = "null";
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buf[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[offset++] = (byte) (0xC0 | c >> 6);
+                buf[offset++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buf[offset++] = (byte) (0xF0 | codePoint >> 18);
+                buf[offset++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buf[offset++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buf[offset++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, written as '?' like String.getBytes does
+                buf[offset++] = (byte) '?';
+            } else {
+                buf[offset++] = (byte) (0xE0 | c >> 12);
+                buf[offset++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buf[offset++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Formats the number into this thread's buffer.
+     *
+     * @param num
+     * @return the thread's buffer
+     */
+    private static StringBuilder doubleBuffer(double num) {
+        StringBuilder buffer = DOUBLE_BUFFER.get();
+        buffer.setLength(0);
+        return buffer.append(num);
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.Random;
+
+/**
+ * ApartmentSearchBenchmark compares ApartmentSearch with testing every
+ * apartment's getters, on 100k apartments, and measures the cost of keeping
+ * the indexes updated on setPrice.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out ApartmentSearchBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ApartmentSearchBenchmark {
+    private static final int APARTMENTS = 100_000;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner(5, 5, 1000);
+
+        Person tenant = new Person("Ariel", 21, 2, 1997, "123123123");
+        Random random = new Random(1);
+        Apartment[] apartments = new Apartment[APARTMENTS];
+        Apartment[] indexed = new Apartment[APARTMENTS];
+        ApartmentSearch search = new ApartmentSearch();
+        for (int i = 0; i < APARTMENTS; i++) {
+            apartments[i] = new Apartment(1 + random.nextInt(6), 30 + random.nextInt(120), 2000 + random.nextInt(8000),
+                    tenant, 1, 1, 2023, 1 + random.nextInt(28), 1 + random.nextInt(12), 2023 + random.nextInt(3));
+            indexed[i] = new Apartment(apartments[i]);
+            search.add(indexed[i]);
+        }
+
+        ApartmentQuery query = new ApartmentQuery();
+        query.setNoOfRooms(3, 4);
+        query.setArea(70, 100);
+        query.setPrice(0, 6000);
+        query.setFreeWithin(new Date(1, 6, 2024), 60);
+
+        runner.run("scan getters", () -> {
+            long count = 0;
+            for (Apartment apartment : apartments) {
+                if (query.matches(apartment)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        runner.run("ApartmentSearch.count", () -> search.count(query));
+        runner.run("ApartmentSearch.cheapestPerMeter, k = 10", () -> search.cheapestPerMeter(query, 10).size());
+
+        int[] index = new int[1];
+        runner.run("setPrice", () -> {
+            Apartment apartment = apartments[index[0]++ % APARTMENTS];
+            apartment.setPrice(2000 + index[0] % 8000);
+            return (long) apartment.getPrice();
+        });
+        runner.run("setPrice indexed", () -> {
+            Apartment apartment = indexed[index[0]++ % APARTMENTS];
+            apartment.setPrice(2000 + index[0] % 8000);
+            return (long) apartment.getPrice();
+        });
+        runner.finish();
+    }
+}
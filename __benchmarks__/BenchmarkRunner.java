@@ -0,0 +1,86 @@
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * BenchmarkRunner times small operations and reports nanoseconds and
+ * allocated bytes per operation, like JMH's average time mode with the gc
+ * profiler. Every operation returns a long that is summed and printed, so the
+ * JIT can't remove the work.
+ * It is the fallback for running benchmarks with plain javac and java, the
+ * hot paths also have a JMH suite in __benchmarks__/jmh.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BenchmarkRunner {
+    private final int _warmupIterations;
+    private final int _measureIterations;
+    private final int _opsPerIteration;
+    private final com.sun.management.ThreadMXBean _threads;
+    private long _sink;
+
+    private static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    private static final int DEFAULT_MEASURE_ITERATIONS = 5;
+    private static final int DEFAULT_OPS_PER_ITERATION = 1_000_000;
+
+    /**
+     * BenchmarkRunner with the default number of iterations.
+     */
+    public BenchmarkRunner() {
+        this(DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASURE_ITERATIONS, DEFAULT_OPS_PER_ITERATION);
+    }
+
+    /**
+     * BenchmarkRunner accepts the number of warmup and measured iterations and
+     * the number of operations per iteration.
+     *
+     * @param warmupIterations
+     * @param measureIterations
+     * @param opsPerIteration
+     */
+    public BenchmarkRunner(int warmupIterations, int measureIterations, int opsPerIteration) {
+        _warmupIterations = warmupIterations;
+        _measureIterations = measureIterations;
+        _opsPerIteration = opsPerIteration;
+        _threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Runs the operation and prints its time and allocation per operation.
+     *
+     * @param name
+     * @param op
+     */
+    public void run(String name, LongSupplier op) {
+        for (int i = 0; i < _warmupIterations; i++) {
+            iterate(op);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = _threads.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < _measureIterations; i++) {
+            iterate(op);
+        }
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = _threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        double ops = (double) _measureIterations * _opsPerIteration;
+        System.out.printf("%-40s %10.2f ns/op %10.1f B/op%n", name, elapsed / ops, allocated / ops);
+    }
+
+    private void iterate(LongSupplier op) {
+        long sum = 0;
+        for (int i = 0; i < _opsPerIteration; i++) {
+            sum += op.getAsLong();
+        }
+        _sink += sum;
+    }
+
+    /**
+     * Prints the sum of all results, keeping them alive.
+     */
+    public void finish() {
+        System.out.println("# sink " + _sink);
+    }
+}
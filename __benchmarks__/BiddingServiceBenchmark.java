@@ -0,0 +1,92 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BiddingServiceBenchmark runs the BiddingLoadGenerator over a million bids
+ * on ten thousand apartments with more and more client threads, and prints
+ * the sustained bids per second and the p99 latency of every run. The last
+ * run has the clients call changeTenant under one global lock instead, for
+ * comparison. The numbers depend on the number of processors: with a single
+ * processor there is no parallelism to win and the global lock is faster,
+ * while the mailboxes pay for the hand-off between threads. Only single
+ * processor runs were measured so far. The p99 of the
+ * service is bounded by maxPending divided by the throughput.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out BiddingServiceBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BiddingServiceBenchmark {
+    private static final int APARTMENTS = 10_000;
+    private static final int BIDS = 1_000_000;
+    private static final int MAX_PENDING = 256;
+    private static final int[] CLIENTS = { 1, 4, 16, 64 };
+
+    public static void main(String[] args) throws InterruptedException {
+        Person tenant = new Person("Ariel", 21, 2, 1980, "123123123");
+        Random random = new Random(1);
+        Person[] bidders = new Person[1000];
+        for (int i = 0; i < bidders.length; i++) {
+            bidders[i] = new Person("Bidder " + i, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    1980 + random.nextInt(20), "000000000");
+        }
+
+        System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+        try (BiddingService service = new BiddingService(MAX_PENDING)) {
+            // Warm up
+            BiddingLoadGenerator.run(service, bids(tenant, bidders, random), 4);
+            for (int clients : CLIENTS) {
+                BiddingLoadReport report = BiddingLoadGenerator.run(service, bids(tenant, bidders, random), clients);
+                System.out.println(line("mailboxes, " + clients + " clients", report.getBidsPerSecond(),
+                        report.getP99Nanos()));
+            }
+        }
+
+        List<TenantBid> bids = bids(tenant, bidders, random);
+        int clients = CLIENTS[CLIENTS.length - 1];
+        LatencyHistogram latency = new LatencyHistogram();
+        Object lock = new Object();
+        Thread[] threads = new Thread[clients];
+        long startTime = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            threads[i] = new Thread(() -> {
+                for (int j = client; j < bids.size(); j += clients) {
+                    long start = System.nanoTime();
+                    TenantBid bid = bids.get(j);
+                    synchronized (lock) {
+                        bid.getApartment().changeTenant(bid.getStartDate(), bid.getBidder(), bid.getPrice());
+                    }
+                    latency.record(System.nanoTime() - start);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long nanos = System.nanoTime() - startTime;
+        System.out.println(line("global lock, " + clients + " clients", BIDS * 1_000_000_000.0 / nanos,
+                latency.getValueAtPercentile(99)));
+    }
+
+    private static List<TenantBid> bids(Person tenant, Person[] bidders, Random random) {
+        Apartment[] apartments = new Apartment[APARTMENTS];
+        for (int i = 0; i < APARTMENTS; i++) {
+            apartments[i] = new Apartment(3, 80, 5000, tenant, 1, 7, 2022, 1, 7, 2023);
+        }
+        List<TenantBid> bids = new ArrayList<TenantBid>(BIDS);
+        for (int i = 0; i < BIDS; i++) {
+            Date start = new Date(1 + random.nextInt(28), 1 + random.nextInt(12), 2023 + random.nextInt(3));
+            bids.add(new TenantBid(apartments[random.nextInt(APARTMENTS)], start,
+                    bidders[random.nextInt(bidders.length)], 4500 + random.nextInt(2000)));
+        }
+        return bids;
+    }
+
+    private static String line(String name, double bidsPerSecond, long p99Nanos) {
+        return String.format("%-28s %12.0f bids/s   p99 %10.1f us", name, bidsPerSecond, p99Nanos / 1000.0);
+    }
+}
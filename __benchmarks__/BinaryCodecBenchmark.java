@@ -0,0 +1,142 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BinaryCodecBenchmark writes and reads a batch of 1024 apartments with the
+ * binary form (with a NameDictionary per batch), and with Java serialization
+ * of the same fields (Apartment isn't Serializable, so a Serializable copy of
+ * its fields is used). It prints the bytes of a batch in each form and in the
+ * toString form, then the time and allocation per batch.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out BinaryCodecBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class BinaryCodecBenchmark {
+    private static final int APARTMENTS = 1024;
+
+    /**
+     * The fields of an Apartment, for Java serialization.
+     */
+    private static class SerializedApartment implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int _noOfRooms;
+        private final double _area;
+        private final double _price;
+        private final String _tenantName;
+        private final String _tenantId;
+        private final int[] _tenantBirthDate;
+        private final int[] _rentalStartDate;
+        private final int[] _rentalEndDate;
+
+        SerializedApartment(Apartment a) {
+            _noOfRooms = a.getNoOfRooms();
+            _area = a.getArea();
+            _price = a.getPrice();
+            _tenantName = a.getTenant().getName();
+            _tenantId = a.getTenant().getId();
+            _tenantBirthDate = fields(a.getTenant().getDateOfBirth());
+            _rentalStartDate = fields(a.getRentalStartDate());
+            _rentalEndDate = fields(a.getRentalEndDate());
+        }
+
+        private static int[] fields(Date d) {
+            return new int[] { d.getDay(), d.getMonth(), d.getYear() };
+        }
+
+        Apartment toApartment() {
+            Person tenant = new Person(_tenantName, _tenantBirthDate[0], _tenantBirthDate[1], _tenantBirthDate[2],
+                    _tenantId);
+            return new Apartment(_noOfRooms, _area, _price, tenant, _rentalStartDate[0], _rentalStartDate[1],
+                    _rentalStartDate[2], _rentalEndDate[0], _rentalEndDate[1], _rentalEndDate[2]);
+        }
+    }
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner(5, 5, 200);
+
+        Person[] tenants = new Person[100];
+        for (int i = 0; i < tenants.length; i++) {
+            tenants[i] = new Person("Tenant " + i, 1 + i % 28, 1 + i % 12, 1950 + i % 50, "1234" + (10000 + i));
+        }
+        Apartment[] apartments = new Apartment[APARTMENTS];
+        for (int i = 0; i < APARTMENTS; i++) {
+            apartments[i] = new Apartment(1 + i % 5, 40 + i % 100 + (i % 2) * 0.5, 3000 + i, tenants[i % 100], 1,
+                    1 + i % 12, 2022, 1, 1 + i % 12, 2023);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(APARTMENTS * 64);
+        writeBinary(apartments, buf);
+        int binaryBytes = buf.position();
+        byte[] binary = new byte[binaryBytes];
+        buf.flip();
+        buf.get(binary);
+        byte[] serialized = writeSerialized(apartments);
+        int textBytes = 0;
+        for (Apartment a : apartments) {
+            textBytes += a.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        System.out.println("bytes per batch: binary " + binaryBytes + ", serialization " + serialized.length
+                + ", toString " + textBytes);
+
+        runner.run("binary write", () -> {
+            buf.clear();
+            writeBinary(apartments, buf);
+            return buf.position();
+        });
+        runner.run("binary read", () -> {
+            ByteBuffer in = ByteBuffer.wrap(binary);
+            NameDictionary names = new NameDictionary();
+            long rooms = 0;
+            for (int i = 0; i < APARTMENTS; i++) {
+                rooms += Apartment.readFrom(in, names).getNoOfRooms();
+            }
+            return rooms;
+        });
+        runner.run("serialization write", () -> writeSerialized(apartments).length);
+        runner.run("serialization read", () -> {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                SerializedApartment[] batch = (SerializedApartment[]) in.readObject();
+                long rooms = 0;
+                for (SerializedApartment a : batch) {
+                    rooms += a.toApartment().getNoOfRooms();
+                }
+                return rooms;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        runner.finish();
+    }
+
+    private static void writeBinary(Apartment[] apartments, ByteBuffer buf) {
+        NameDictionary names = new NameDictionary();
+        for (Apartment a : apartments) {
+            a.writeTo(buf, names);
+        }
+    }
+
+    private static byte[] writeSerialized(Apartment[] apartments) {
+        SerializedApartment[] batch = new SerializedApartment[apartments.length];
+        for (int i = 0; i < apartments.length; i++) {
+            batch[i] = new SerializedApartment(apartments[i]);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
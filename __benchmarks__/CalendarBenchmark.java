@@ -0,0 +1,73 @@
+/**
+ * CalendarBenchmark compares the CalendarTable lookups with computing the same
+ * values with branches and divisions, as Date did before the table.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out CalendarBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class CalendarBenchmark {
+    private static final int DATES = 1024;
+    private static final int MASK = DATES - 1;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        int[] days = new int[DATES];
+        int[] months = new int[DATES];
+        int[] years = new int[DATES];
+        for (int i = 0; i < DATES; i++) {
+            days[i] = 1 + i * 7 % 28;
+            months[i] = 1 + i * 5 % 12;
+            years[i] = 1000 + i * 37 % 9000;
+        }
+
+        int[] index = new int[1];
+        runner.run("isLeapYear computed", () -> isLeapYear(years[index[0]++ & MASK]) ? 1 : 0);
+        runner.run("isLeapYear table", () -> CalendarTable.isLeapYear(years[index[0]++ & MASK]) ? 1 : 0);
+        runner.run("daysInMonth computed", () -> {
+            int i = index[0]++ & MASK;
+            return daysInMonth(months[i], years[i]);
+        });
+        runner.run("daysInMonth table", () -> {
+            int i = index[0]++ & MASK;
+            return CalendarTable.daysInMonth(months[i], years[i]);
+        });
+        runner.run("epochDay computed", () -> {
+            int i = index[0]++ & MASK;
+            return epochDay(days[i], months[i], years[i]);
+        });
+        runner.run("epochDay table", () -> {
+            int i = index[0]++ & MASK;
+            return CalendarTable.epochDay(days[i], months[i], years[i]);
+        });
+        runner.run("new Date", () -> {
+            int i = index[0]++ & MASK;
+            return new Date(days[i], months[i], years[i]).getDay();
+        });
+        runner.finish();
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || (year % 400 == 0);
+    }
+
+    private static int daysInMonth(int month, int year) {
+        if (month == 2) {
+            return isLeapYear(year) ? 29 : 28;
+        } else if (month == 4 || month == 6 || month == 9 || month == 11) {
+            return 30;
+        } else {
+            return 31;
+        }
+    }
+
+    private static int epochDay(int day, int month, int year) {
+        if (month < 3) {
+            year--;
+            month = month + 12;
+        }
+        return 365 * year + year / 4 - year / 100 + year / 400 + ((month + 1) * 306) / 10 + (day - 62);
+    }
+}
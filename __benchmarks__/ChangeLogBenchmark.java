@@ -0,0 +1,103 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * ChangeLogBenchmark measures the cost ApartmentChangeLog adds to a mutation
+ * with small and large group commit batches, and compares rebuilding the
+ * apartments by replaying the log with running the same operations again.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out ChangeLogBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class ChangeLogBenchmark {
+    private static final int APARTMENTS = 1000;
+    private static final int OPERATIONS = 100_000;
+
+    public static void main(String[] args) throws IOException {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        Path path = Files.createTempFile("changes", ".log");
+        Files.delete(path);
+
+        Apartment[] apartments = create();
+        runner.run("setPrice", () -> {
+            Apartment apartment = apartments[(int) (System.nanoTime() & 511)];
+            apartment.setPrice(apartment.getPrice() + 1);
+            return (long) apartment.getPrice();
+        });
+        for (int batchBytes : new int[] { 1024, 64 * 1024 }) {
+            try (ApartmentChangeLog log = ApartmentChangeLog.open(path, batchBytes, 0)) {
+                for (Apartment apartment : apartments) {
+                    log.track(apartment);
+                }
+                runner.run("setPrice logged, " + batchBytes + " byte batches", () -> {
+                    Apartment apartment = apartments[(int) (System.nanoTime() & 511)];
+                    apartment.setPrice(apartment.getPrice() + 1);
+                    return (long) apartment.getPrice();
+                });
+            }
+            Files.delete(path);
+        }
+
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path, 64 * 1024, 0)) {
+            Apartment[] logged = create();
+            for (Apartment apartment : logged) {
+                log.track(apartment);
+            }
+            run(logged);
+            System.out.println("# log records: " + log.getRecordCount());
+        }
+        runner.finish();
+
+        BenchmarkRunner rebuilds = new BenchmarkRunner(30, 10, 1);
+        rebuilds.run("rebuild by running " + OPERATIONS + " operations", () -> {
+            Apartment[] rebuilt = create();
+            run(rebuilt);
+            return rebuilt[0].getRentalEndDate().getYear();
+        });
+        rebuilds.run("rebuild by replaying the log", () -> {
+            try {
+                return ApartmentChangeLog.replay(path).get(0).getRentalEndDate().getYear();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        rebuilds.finish();
+        Files.delete(path);
+    }
+
+    private static Apartment[] create() {
+        Apartment[] apartments = new Apartment[APARTMENTS];
+        for (int i = 0; i < APARTMENTS; i++) {
+            Person tenant = new Person("Tenant " + i, 1, 1, 1950 + i % 60, "123456789");
+            apartments[i] = new Apartment(3, 80, 5000, tenant, 1, 1, 2020, 1, 1 + i % 12, 2021);
+        }
+        return apartments;
+    }
+
+    /**
+     * Runs the same lease operations on the apartments every time.
+     *
+     * @param apartments
+     */
+    private static void run(Apartment[] apartments) {
+        Random random = new Random(1);
+        Person[] bidders = new Person[64];
+        for (int i = 0; i < bidders.length; i++) {
+            bidders[i] = new Person("Bidder " + i, 1, 1, 1950 + i, "123456789");
+        }
+        for (int i = 0; i < OPERATIONS; i++) {
+            Apartment apartment = apartments[random.nextInt(APARTMENTS)];
+            if (i % 4 == 0) {
+                apartment.extendRentalPeriod(1);
+            } else {
+                Date end = apartment.getRentalEndDate();
+                apartment.changeTenant(end.addDays(-random.nextInt(120)), bidders[random.nextInt(bidders.length)],
+                        apartment.getPrice() + random.nextInt(1000) - 200);
+            }
+        }
+    }
+}
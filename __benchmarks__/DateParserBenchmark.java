@@ -0,0 +1,44 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * DateParserBenchmark compares Date.parse and DateCodec.parse with splitting
+ * the string and calling the Date constructor.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out DateParserBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class DateParserBenchmark {
+    private static final int DATES = 1024;
+    private static final int MASK = DATES - 1;
+    private static final int FORMATTED_LENGTH = 10;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        String[] texts = new String[DATES];
+        ByteBuffer buf = ByteBuffer.allocate(DATES * FORMATTED_LENGTH);
+        for (int i = 0; i < DATES; i++) {
+            texts[i] = new Date(1 + i % 31, 1 + i % 12, 1950 + i).toString();
+            buf.put(texts[i].getBytes(StandardCharsets.US_ASCII));
+        }
+
+        int[] index = new int[1];
+        runner.run("split + new Date", () -> {
+            String[] parts = texts[index[0]++ & MASK].split("/");
+            return new Date(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))
+                    .getDay();
+        });
+        runner.run("Date.parse(CharSequence)", () -> Date.parse(texts[index[0]++ & MASK]).getDay());
+        runner.run("DateCodec.parse(CharSequence)", () -> DateCodec.parse(texts[index[0]++ & MASK]));
+        runner.run("DateCodec.parse(ByteBuffer)", () -> {
+            if (!buf.hasRemaining()) {
+                buf.clear();
+            }
+            return DateCodec.parse(buf);
+        });
+        runner.finish();
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.Random;
+
+/**
+ * DaysLeftKernelBenchmark computes the days left of 10 million rental end
+ * dates against one date, the way an end of month report does. It compares the
+ * branch-free DaysLeftKernel loop with the same loop written with a branch,
+ * with DateCodec keys that are converted to day numbers on every call, and with
+ * Apartment.daysLeft on Apartment objects (1 million of them, to fit the heap).
+ * One operation is a pass over the whole array, so divide by the number of end
+ * dates for the time per date. At 10 million dates both loops are bound by
+ * memory bandwidth, so the branchy one (which C2 also turns into a
+ * conditional move) runs about as fast; the gap is against the per-key and
+ * per-object paths.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out DaysLeftKernelBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class DaysLeftKernelBenchmark {
+    private static final int END_DATES = 10_000_000;
+    private static final int APARTMENTS = 1_000_000;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner(10, 10, 1);
+
+        Random random = new Random(1);
+        int[] keys = new int[END_DATES];
+        for (int i = 0; i < END_DATES; i++) {
+            keys[i] = DateCodec.pack(1 + random.nextInt(28), 1 + random.nextInt(12), 2000 + random.nextInt(50));
+        }
+        int[] endDays = DaysLeftKernel.packKeys(keys);
+        int[] out = new int[END_DATES];
+        Date asOf = new Date(1, 1, 2025);
+        int asOfDay = DaysLeftKernel.pack(asOf);
+        int asOfKey = DateCodec.pack(asOf);
+
+        runner.run("DaysLeftKernel.daysLeft 10M", () -> {
+            DaysLeftKernel.daysLeft(endDays, 0, END_DATES, asOfDay, out);
+            return out[END_DATES - 1];
+        });
+        runner.run("branchy loop 10M", () -> {
+            for (int i = 0; i < END_DATES; i++) {
+                int difference = endDays[i] - asOfDay;
+                out[i] = difference < 0 ? -1 : difference;
+            }
+            return out[END_DATES - 1];
+        });
+        runner.run("DateCodec keys 10M", () -> {
+            for (int i = 0; i < END_DATES; i++) {
+                out[i] = DateCodec.compare(asOfKey, keys[i]) > 0 ? -1 : DateCodec.difference(asOfKey, keys[i]);
+            }
+            return out[END_DATES - 1];
+        });
+        runner.run("DaysLeftKernel.countExpiringWithin 10M", () -> {
+            return DaysLeftKernel.countExpiringWithin(endDays, asOfDay, 90);
+        });
+
+        Person tenant = new Person("Ariel", 21, 2, 1997, "123123123");
+        Apartment[] apartments = new Apartment[APARTMENTS];
+        for (int i = 0; i < APARTMENTS; i++) {
+            apartments[i] = new Apartment(3, 80, 5000, tenant, 1, 1, 1999, DateCodec.dayOf(keys[i]),
+                    DateCodec.monthOf(keys[i]), DateCodec.yearOf(keys[i]));
+        }
+        int[] apartmentEndDays = DaysLeftKernel.packRentalEndDates(apartments);
+        runner.run("DaysLeftKernel.daysLeft 1M", () -> {
+            DaysLeftKernel.daysLeft(apartmentEndDays, 0, APARTMENTS, asOfDay, out);
+            return out[APARTMENTS - 1];
+        });
+        runner.run("Apartment.daysLeft 1M", () -> {
+            for (int i = 0; i < APARTMENTS; i++) {
+                out[i] = apartments[i].daysLeft(asOf);
+            }
+            return out[APARTMENTS - 1];
+        });
+        runner.finish();
+    }
+}
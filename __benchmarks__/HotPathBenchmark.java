@@ -0,0 +1,108 @@
+/**
+ * HotPathBenchmark measures the hot paths of Date, Person and Apartment.
+ * The JMH suite in __benchmarks__/jmh (a Maven module, run with -prof gc)
+ * measures the same operations and is the one to compare regressions with.
+ * This is its javac-only fallback, run it from the project root and compare
+ * the output with baseline.txt:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out HotPathBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class HotPathBenchmark {
+    private static final int DATES = 1024;
+    private static final int MASK = DATES - 1;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        Date[] dates = new Date[DATES];
+        Person[] people = new Person[DATES];
+        for (int i = 0; i < DATES; i++) {
+            dates[i] = new Date(1 + i % 28, 1 + i % 12, 1950 + i % 70);
+            people[i] = new Person("Person " + i, 1 + i % 28, 1 + i % 12, 1950 + i % 70, "123456789");
+        }
+        Apartment apartment = new Apartment(3, 80, 5000, people[0], 1, 7, 2022, 1, 7, 2023);
+        Date bidDate = new Date(1, 6, 2023);
+
+        int[] index = new int[1];
+        runner.run("Date.<init>", () -> {
+            int i = index[0]++ & MASK;
+            return new Date(1 + i % 31, 1 + i % 12, 1990 + i).getDay();
+        });
+        runner.run("Date.<init> invalid", () -> {
+            int i = index[0]++ & MASK;
+            return new Date(29 + i % 3, 2, 1990 + i).getDay();
+        });
+        runner.run("Date.difference", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].difference(dates[(i + 1) & MASK]);
+        });
+        runner.run("Date.before", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].before(dates[(i + 1) & MASK]) ? 1 : 0;
+        });
+        runner.run("Date.after", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].after(dates[(i + 1) & MASK]) ? 1 : 0;
+        });
+        runner.run("Date.addYearsToDate", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].addYearsToDate(1 + i % 4).getYear();
+        });
+        runner.run("Date.toString", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].toString().length();
+        });
+        runner.run("Date.addDays", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].addDays(i).getDay();
+        });
+        runner.run("Date.addMonths", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].addMonths(i).getDay();
+        });
+        DayCursor cursor = DayCursor.days(new Date(1, 1, 1000), new Date(31, 12, 9999));
+        runner.run("DayCursor.next", () -> {
+            if (!cursor.next()) {
+                cursor.reset();
+            }
+            return cursor.getEpochDay();
+        });
+        StringBuilder sb = new StringBuilder();
+        runner.run("Date.appendTo", () -> {
+            int i = index[0]++ & MASK;
+            sb.setLength(0);
+            dates[i].appendTo(sb);
+            return sb.length();
+        });
+        byte[] buf = new byte[512];
+        runner.run("Date.writeTo", () -> {
+            int i = index[0]++ & MASK;
+            return dates[i].writeTo(buf, 0);
+        });
+        runner.run("Person.compareTo", () -> {
+            int i = index[0]++ & MASK;
+            return people[i].compareTo(people[(i + 1) & MASK]);
+        });
+        runner.run("Person.<init>(Person)", () -> {
+            int i = index[0]++ & MASK;
+            return new Person(people[i]).getName().length();
+        });
+        runner.run("Apartment.daysLeft", () -> {
+            int i = index[0]++ & MASK;
+            return apartment.daysLeft(dates[i]);
+        });
+        runner.run("Apartment.changeTenant rejected", () -> {
+            int i = index[0]++ & MASK;
+            return apartment.changeTenant(dates[i], people[i], 4000) ? 1 : 0;
+        });
+        runner.run("Apartment.changeTenant accepted", () -> {
+            Apartment copy = new Apartment(apartment);
+            return copy.changeTenant(bidDate, people[1], 6000) ? 1 : 0;
+        });
+        runner.run("Apartment.toString", () -> apartment.toString().length());
+        runner.run("Apartment.writeTo", () -> apartment.writeTo(buf, 0));
+        runner.finish();
+    }
+}
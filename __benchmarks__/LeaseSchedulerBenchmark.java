@@ -0,0 +1,61 @@
+import java.util.List;
+
+/**
+ * LeaseSchedulerBenchmark compares finding the lease events of a day by
+ * polling daysLeft on every apartment with advancing a LeaseScheduler by a
+ * day. Every rental period is renewed when it ends, so both keep working.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out LeaseSchedulerBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class LeaseSchedulerBenchmark {
+    private static final int APARTMENTS = 100_000;
+    private static final int DAYS_PER_ITERATION = 1000;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner(3, 5, DAYS_PER_ITERATION);
+
+        Person tenant = new Person("Ariel", 21, 2, 1997, "123123123");
+        Apartment[] polled = new Apartment[APARTMENTS];
+        Apartment[] scheduled = new Apartment[APARTMENTS];
+        for (int i = 0; i < APARTMENTS; i++) {
+            polled[i] = new Apartment(3, 80, 5000, tenant, 1, 1, 2020, 1 + i % 28, 1 + i % 12, 2020 + i % 3);
+            scheduled[i] = new Apartment(polled[i]);
+        }
+
+        Date[] today = { new Date(1, 1, 2020) };
+        runner.run("poll daysLeft, 1 day", () -> {
+            today[0] = today[0].addDays(1);
+            long events = 0;
+            for (Apartment apartment : polled) {
+                int daysLeft = apartment.daysLeft(today[0]);
+                if (daysLeft == 90) {
+                    events++;
+                } else if (daysLeft == 0) {
+                    events++;
+                    apartment.extendRentalPeriod(1);
+                }
+            }
+            return events;
+        });
+
+        LeaseScheduler scheduler = new LeaseScheduler(new Date(1, 1, 2020));
+        scheduler.addListener(new LeaseListener() {
+            public void changeTenantWindowOpened(Date day, List<Apartment> apartments) {
+            }
+
+            public void rentalPeriodEnded(Date day, List<Apartment> apartments) {
+                for (Apartment apartment : apartments) {
+                    apartment.extendRentalPeriod(1);
+                }
+            }
+        });
+        for (Apartment apartment : scheduled) {
+            scheduler.add(apartment);
+        }
+        runner.run("LeaseScheduler.advanceBy, 1 day", () -> scheduler.advanceBy(1));
+        runner.finish();
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * MetricsBenchmark measures the lease operations with the metrics of the JVM
+ * it runs in. Run it once as is, where the metrics code is removed by the JIT,
+ * and once with metrics enabled and a LeaseMetrics installed, and compare:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out MetricsBenchmark
+ * java -Dapartment.metrics=true -cp out MetricsBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class MetricsBenchmark {
+    private static final int DATES = 1024;
+    private static final int MASK = DATES - 1;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        LeaseMetrics metrics = new LeaseMetrics();
+        Apartment.setMetrics(metrics);
+        System.out.println("# metrics enabled: " + Apartment.isMetricsEnabled());
+
+        Date[] dates = new Date[DATES];
+        Person[] people = new Person[DATES];
+        for (int i = 0; i < DATES; i++) {
+            dates[i] = new Date(1 + i % 28, 1 + i % 12, 2020 + i % 5);
+            people[i] = new Person("Person " + i, 1 + i % 28, 1 + i % 12, 1950 + i % 70, "123456789");
+        }
+        Apartment apartment = new Apartment(3, 80, 5000, people[0], 1, 7, 2022, 1, 7, 2023);
+
+        int[] index = new int[1];
+        runner.run("Apartment.daysLeft", () -> apartment.daysLeft(dates[index[0]++ & MASK]));
+        runner.run("Apartment.changeTenant rejected", () -> {
+            int i = index[0]++ & MASK;
+            return apartment.changeTenant(dates[i], people[i], 4000) ? 1 : 0;
+        });
+        runner.run("Apartment.extendRentalPeriod", () -> {
+            Apartment copy = new Apartment(apartment);
+            copy.extendRentalPeriod(1 + (index[0]++ & 3));
+            return copy.getRentalEndDate().getYear();
+        });
+        runner.finish();
+        if (Apartment.isMetricsEnabled()) {
+            System.out.println(metrics);
+        }
+    }
+}
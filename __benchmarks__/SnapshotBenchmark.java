@@ -0,0 +1,63 @@
+/**
+ * SnapshotBenchmark measures a read-mostly dashboard workload (reading the
+ * tenant, their birth date and the rental period of many apartments) with the
+ * shared immutable getters, and with the defensive copies the getters used to
+ * make. Every row is kept in a table, like a dashboard does, so the JIT can't
+ * remove the copies. Compare the allocated bytes per operation of the two.
+ * Run it from the project root:
+ * javac -d out *.java __benchmarks__/*.java && java -cp out SnapshotBenchmark
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+public class SnapshotBenchmark {
+    private static final int APARTMENTS = 1024;
+    private static final int MASK = APARTMENTS - 1;
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        Apartment[] apartments = new Apartment[APARTMENTS];
+        ConcurrentApartment[] concurrent = new ConcurrentApartment[APARTMENTS];
+        for (int i = 0; i < APARTMENTS; i++) {
+            Person tenant = new Person("Person " + i, 1 + i % 28, 1 + i % 12, 1950 + i % 70, "123456789");
+            apartments[i] = new Apartment(1 + i % 5, 40 + i % 100, 3000 + i, tenant, 1, 1 + i % 12, 2022, 1,
+                    1 + i % 12, 2023);
+            concurrent[i] = new ConcurrentApartment(apartments[i]);
+        }
+
+        Object[][] table = new Object[APARTMENTS][3];
+        int[] index = new int[1];
+        runner.run("dashboard row shared", () -> {
+            int i = index[0]++ & MASK;
+            Apartment a = apartments[i];
+            return row(table[i], a.getTenant(), a.getRentalStartDate(), a.getRentalEndDate());
+        });
+        runner.run("dashboard row copied", () -> {
+            int i = index[0]++ & MASK;
+            Apartment a = apartments[i];
+            return row(table[i], new Person(a.getTenant()), new Date(a.getRentalStartDate()),
+                    new Date(a.getRentalEndDate()));
+        });
+        runner.run("ConcurrentApartment.getSnapshot shared", () -> {
+            int i = index[0]++ & MASK;
+            Apartment a = concurrent[i].getSnapshot();
+            table[i][0] = a;
+            return a.getPrice() > 0 ? 1 : 0;
+        });
+        runner.run("ConcurrentApartment.getSnapshot copied", () -> {
+            int i = index[0]++ & MASK;
+            Apartment a = new Apartment(concurrent[i].getSnapshot());
+            table[i][0] = a;
+            return a.getPrice() > 0 ? 1 : 0;
+        });
+        runner.finish();
+    }
+
+    private static long row(Object[] row, Person tenant, Date start, Date end) {
+        row[0] = tenant;
+        row[1] = start;
+        row[2] = end;
+        return tenant.getName().length() + tenant.getDateOfBirth().getYear() + start.difference(end);
+    }
+}
@@ -0,0 +1,68 @@
+package apartments;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ApartmentBenchmark measures Apartment.daysLeft and changeTenant, both a
+ * rejected bid and an accepted one (on a fresh copy, so every bid is
+ * accepted).
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApartmentBenchmark {
+    private static final int DATES = 1024;
+    private static final int MASK = DATES - 1;
+
+    private Date[] _dates;
+    private Person[] _people;
+    private Apartment _apartment;
+    private Date _bidDate;
+    private int _index;
+
+    @Setup
+    public void setUp() {
+        _dates = new Date[DATES];
+        _people = new Person[DATES];
+        for (int i = 0; i < DATES; i++) {
+            _dates[i] = new Date(1 + i % 28, 1 + i % 12, 1950 + i % 70);
+            _people[i] = new Person("Person " + i, 1 + i % 28, 1 + i % 12, 1950 + i % 70, "123456789");
+        }
+        _apartment = new Apartment(3, 80, 5000, _people[0], 1, 7, 2022, 1, 7, 2023);
+        _bidDate = new Date(1, 6, 2023);
+    }
+
+    @Benchmark
+    public int daysLeft() {
+        return _apartment.daysLeft(_dates[_index++ & MASK]);
+    }
+
+    @Benchmark
+    public boolean changeTenantRejected() {
+        int i = _index++ & MASK;
+        return _apartment.changeTenant(_dates[i], _people[i], 4000);
+    }
+
+    @Benchmark
+    public boolean changeTenantAccepted() {
+        Apartment copy = new Apartment(_apartment);
+        return copy.changeTenant(_bidDate, _people[1], 6000);
+    }
+}
@@ -0,0 +1,89 @@
+package apartments;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DateBenchmark measures construction (valid and invalid dates), difference,
+ * before / after, addYearsToDate and toString, the same operations as the
+ * Date lines of HotPathBenchmark.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateBenchmark {
+    private static final int DATES = 1024;
+    private static final int MASK = DATES - 1;
+
+    private Date[] _dates;
+    private int _index;
+
+    @Setup
+    public void setUp() {
+        _dates = new Date[DATES];
+        for (int i = 0; i < DATES; i++) {
+            _dates[i] = new Date(1 + i % 28, 1 + i % 12, 1950 + i % 70);
+        }
+    }
+
+    private int next() {
+        return _index++ & MASK;
+    }
+
+    @Benchmark
+    public Date construct() {
+        int i = next();
+        return new Date(1 + i % 31, 1 + i % 12, 1990 + i);
+    }
+
+    @Benchmark
+    public Date constructInvalid() {
+        int i = next();
+        return new Date(29 + i % 3, 2, 1990 + i);
+    }
+
+    @Benchmark
+    public int difference() {
+        int i = next();
+        return _dates[i].difference(_dates[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public boolean before() {
+        int i = next();
+        return _dates[i].before(_dates[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public boolean after() {
+        int i = next();
+        return _dates[i].after(_dates[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public Date addYearsToDate() {
+        int i = next();
+        return _dates[i].addYearsToDate(1 + i % 4);
+    }
+
+    @Benchmark
+    public String toStringDate() {
+        return _dates[next()].toString();
+    }
+}
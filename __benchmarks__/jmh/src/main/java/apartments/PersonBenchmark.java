@@ -0,0 +1,53 @@
+package apartments;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PersonBenchmark measures Person.compareTo and the Person copy constructor.
+ *
+ * @version 12/2023
+ * @author Ariel Aharon 20441
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersonBenchmark {
+    private static final int PEOPLE = 1024;
+    private static final int MASK = PEOPLE - 1;
+
+    private Person[] _people;
+    private int _index;
+
+    @Setup
+    public void setUp() {
+        _people = new Person[PEOPLE];
+        for (int i = 0; i < PEOPLE; i++) {
+            _people[i] = new Person("Person " + i, 1 + i % 28, 1 + i % 12, 1950 + i % 70, "123456789");
+        }
+    }
+
+    @Benchmark
+    public int compareTo() {
+        int i = _index++ & MASK;
+        return _people[i].compareTo(_people[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public Person copy() {
+        return new Person(_people[_index++ & MASK]);
+    }
+}
@@ -0,0 +1,177 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+public class PrivateApartmentChangeLogTester {
+    public static void main(String[] args) throws IOException {
+        Path path = Files.createTempFile("changes", ".log");
+        Files.delete(path);
+        Random random = new Random(1);
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        int[] bids = new int[2];
+
+        System.out.println("********** ApartmentChangeLog **********");
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path, 4096, 0)) {
+            for (int i = 0; i < 100; i++) {
+                Person tenant = new Person("Tenant " + i, 1 + random.nextInt(28), 1 + random.nextInt(12), 1950 + i,
+                        "" + (100000000 + i));
+                Apartment apartment = new Apartment(1 + i % 5, 40 + i, 3000 + i, tenant, 1, 1, 2020, 1,
+                        1 + random.nextInt(12), 2021);
+                apartments.add(apartment);
+                System.out.print(log.track(apartment) == i ? "" : "wrong id " + i + "\n");
+            }
+            for (int i = 0; i < 5000; i++) {
+                Apartment apartment = apartments.get(random.nextInt(apartments.size()));
+                Date end = apartment.getRentalEndDate();
+                switch (random.nextInt(8)) {
+                    case 6:
+                        apartment.setNoOfRooms(random.nextInt(6));
+                        break;
+                    case 7:
+                        apartment.setArea(random.nextInt(150));
+                        break;
+                    case 0:
+                        apartment.setPrice(random.nextInt(10000) - 100);
+                        break;
+                    case 1:
+                        apartment.setTenant(new Person("Name " + i, 1, 1, 1950 + random.nextInt(60), "" + i));
+                        break;
+                    case 2:
+                        apartment.extendRentalPeriod(random.nextInt(3));
+                        break;
+                    case 3:
+                        apartment.setRentalStartDate(end.addDays(-random.nextInt(800)));
+                        break;
+                    case 4:
+                        apartment.setRentalEndDate(end.addDays(random.nextInt(400) - 100));
+                        break;
+                    default:
+                        Person bidder = new Person("Bidder " + i, 1, 1, 1950 + random.nextInt(80), "" + i);
+                        boolean accepted = apartment.changeTenant(end.addDays(-random.nextInt(120)), bidder,
+                                apartment.getPrice() + random.nextInt(2000) - 500);
+                        bids[accepted ? 1 : 0]++;
+                }
+            }
+            System.out.println("records: " + log.getRecordCount());
+        }
+        System.out.println("bids rejected / accepted: " + bids[0] + " / " + bids[1]);
+        System.out.println("replay mismatches: " + mismatches(apartments, ApartmentChangeLog.replay(path)));
+
+        // Replay with a listener sees the recorded changeTenant calls
+        int[] audited = new int[2];
+        ApartmentChangeLog.replay(path, new ApartmentListener() {
+            public void rentalPeriodChanged(Apartment apartment) {
+            }
+
+            public void tenantChangeRequested(Apartment apartment, Date startDate, Person p, double price,
+                    boolean accepted) {
+                audited[accepted ? 1 : 0]++;
+            }
+        });
+        System.out.println("audited rejected / accepted: " + audited[0] + " / " + audited[1]);
+
+        // A torn record at the end is cut when the log is opened
+        long size = Files.size(path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(size);
+            file.write(new byte[] { 0, 0, 0, 40, 2, 0, 0 });
+        }
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path)) {
+            System.out.println("cut torn record: " + (Files.size(path) == size) + ", records: "
+                    + log.getRecordCount());
+
+            // Compaction keeps the state and drops the history
+            log.compact();
+            System.out.println("compacted: " + (Files.size(path) < size) + ", records: " + log.getRecordCount());
+        }
+        System.out.println("replay mismatches after compaction: "
+                + mismatches(apartments, ApartmentChangeLog.replay(path)));
+
+        // Continue the log with the replayed apartments
+        Map<Integer, Apartment> replayed = ApartmentChangeLog.replay(path);
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path, 256, 50)) {
+            for (Map.Entry<Integer, Apartment> entry : replayed.entrySet()) {
+                log.track(entry.getKey(), entry.getValue());
+            }
+            for (int i = 0; i < 1000; i++) {
+                replayed.get(i % 100).setPrice(5000 + i);
+                apartments.get(i % 100).setPrice(5000 + i);
+            }
+            log.untrack(replayed.get(99));
+            System.out.println("tracked: " + log.size() + ", records: " + log.getRecordCount());
+            System.out.println("new id: " + log.track(new Apartment(apartments.get(99))));
+        }
+        Map<Integer, Apartment> last = ApartmentChangeLog.replay(path);
+        System.out.println("replayed: " + last.size() + ", removed 99: " + !last.containsKey(99) + ", 100 equals 99: "
+                + last.get(100).equals(apartments.get(99)));
+        last.put(99, apartments.get(99));
+        System.out.println("replay mismatches after auto compaction: " + mismatches(apartments, last));
+        Files.delete(path);
+
+        // Names of any length are recorded, and the changes after them too
+        String longName = "x".repeat(300);
+        Apartment unit = new Apartment(3, 80, 5000, new Person("Ariel", 1, 1, 1990, "123123123"), 1, 1, 2022, 1,
+                1, 2023);
+        Apartment original = new Apartment(unit);
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path, 64, 0)) {
+            log.track(unit);
+            unit.setTenant(new Person(longName, 1, 1, 1990, "123123123"));
+            unit.setPrice(7777);
+            unit.setNoOfRooms(5);
+        }
+        Apartment replayedUnit = ApartmentChangeLog.replay(path).get(0);
+        System.out.println("long name: " + replayedUnit.getTenant().getName().equals(longName) + ", price "
+                + replayedUnit.getPrice() + " rooms " + replayedUnit.getNoOfRooms());
+        Files.delete(path);
+
+        // A recorded ID that the Person constructor would reject (read from the
+        // binary form) is replayed and compacted as it was recorded
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path, 64, 0)) {
+            log.track(unit);
+            unit.setTenant(ImmutablePerson.restore("Short ID", "12345", 19900101));
+            log.compact();
+        }
+        System.out.println("short ID after compaction: " + ApartmentChangeLog.replay(path).get(0).getTenant().getId());
+        Files.delete(path);
+
+        // A version 1 log (byte lengths) is replayed, and rewritten when opened
+        CRC32 crc = new CRC32();
+        ByteBuffer v1 = ByteBuffer.allocate(128);
+        v1.putInt(0x41434c31).putInt(1);
+        int start = v1.position();
+        v1.putInt(0).put((byte) 1).putInt(0);
+        v1.putInt(3).putDouble(80).putDouble(5000).putInt(20220101).putInt(20230101);
+        v1.put((byte) 5).put("Ariel".getBytes(StandardCharsets.UTF_8));
+        v1.put((byte) 9).put("123123123".getBytes(StandardCharsets.UTF_8)).putInt(19900101);
+        v1.putInt(start, v1.position() - start - 9);
+        crc.update(v1.array(), start + 4, v1.position() - start - 4);
+        v1.putInt((int) crc.getValue());
+        Files.write(path, Arrays.copyOf(v1.array(), v1.position()));
+        System.out.println("version 1 replay: " + ApartmentChangeLog.replay(path).get(0).equals(original));
+        try (ApartmentChangeLog log = ApartmentChangeLog.open(path)) {
+            System.out.println("version 1 opened, records: " + log.getRecordCount());
+        }
+        System.out.println("rewritten replay: " + ApartmentChangeLog.replay(path).get(0).equals(original));
+        Files.delete(path);
+    }
+
+    private static int mismatches(List<Apartment> expected, Map<Integer, Apartment> replayed) {
+        int mismatches = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            Apartment apartment = replayed.get(i);
+            if (apartment == null || !apartment.equals(expected.get(i))) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+}
@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+public class PrivateApartmentLedgerTester {
+    public static void main(String[] args) throws IOException {
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Person david = new Person("David Stampa", 22, 2, 1997, "321321321");
+        Path path = Files.createTempFile("ledger", ".bin");
+        Files.delete(path);
+
+        System.out.println("********** ApartmentLedger **********");
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            ledger.append(new Apartment(4, 81, 6500, ariel, 1, 7, 2022, 1, 7, 2023));
+            ledger.append(new Apartment(3, 70, 5000, david, 29, 2, 2020, 28, 2, 2021));
+            ledger.setPrice(0, 6600);
+            ledger.extendRentalPeriod(1, 4);
+            System.out.println("changeTenant: " + ledger.changeTenant(0, new Date(1, 6, 2023), david, 7000));
+        }
+
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            System.out.println("size: " + ledger.size());
+            System.out.println("apartment 0:\n" + ledger.read(0));
+            System.out.println("apartment 1:\n" + ledger.read(1));
+            System.out.println("tenant 0:\n" + ledger.getTenant(0));
+        }
+
+        // Damage the last record, it should be dropped when the ledger is opened
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(288 + 256 + 4);
+            file.writeDouble(1);
+        }
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            System.out.println("size after damage: " + ledger.size());
+            System.out.println("dropped: " + ledger.getDroppedRecords());
+        }
+        Files.delete(path);
+
+        // A damaged record in the middle is kept as a damaged row, the rows after
+        // it stay
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            for (int i = 0; i < 1000; i++) {
+                ledger.append(new Apartment(3, 70, 5000 + i, david, 1, 1, 2022, 1, 1, 2023));
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(288 + 12);
+            file.writeDouble(9999);
+        }
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            System.out.println("size after torn row 0: " + ledger.size() + " dropped " + ledger.getDroppedRecords()
+                    + " damaged " + ledger.getDamagedRows() + " (row 0: " + ledger.isDamaged(0) + ")");
+            System.out.println("price of row 999: " + ledger.getPrice(999));
+            try {
+                ledger.getPrice(0);
+            } catch (IllegalStateException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+
+        // A crash after the journal was flushed but while the row was being
+        // overwritten: the update is completed when the ledger is opened
+        byte[] record = new byte[256];
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(288 + 256);
+            file.readFully(record);
+            ByteBuffer updated = ByteBuffer.wrap(record);
+            updated.putDouble(12, 7777);
+            CRC32 crc = new CRC32();
+            crc.update(record, 0, 252);
+            updated.putInt(252, (int) crc.getValue());
+            file.seek(16);
+            file.writeInt(1);
+            file.writeInt(~1);
+            file.seek(32);
+            file.write(record);
+            file.seek(288 + 256 + 12);
+            file.writeInt(7777);
+        }
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            System.out.println("price of row 1 after recovery: " + ledger.getPrice(1) + " damaged "
+                    + ledger.getDamagedRows());
+        }
+        Files.delete(path);
+
+        // Tenants are read back as they were written: a 104 letter Hebrew name
+        // and an ID the Person constructor would reject (read from the binary
+        // form)
+        String hebrew = "\u05d0".repeat(104);
+        Person shortId = ImmutablePerson.restore("Short ID", "12345", 19900101);
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            ledger.append(new Apartment(3, 70, 5000, new Person(hebrew, 1, 1, 1990, "123123123"), 1, 1, 2022, 1,
+                    1, 2023));
+            ledger.append(new Apartment(3, 70, 5000, shortId, 1, 1, 2022, 1, 1, 2023));
+            try {
+                ledger.append(new Apartment(3, 70, 5000, new Person(hebrew + "\u05d0", 1, 1, 1990, "123123123"),
+                        1, 1, 2022, 1, 1, 2023));
+            } catch (IllegalArgumentException e) {
+                System.out.println("too long rejected, size: " + ledger.size());
+            }
+        }
+        try (ApartmentLedger ledger = ApartmentLedger.open(path)) {
+            System.out.println("hebrew name: " + ledger.getTenant(0).getName().equals(hebrew) + ", short ID: "
+                    + ledger.getTenant(1).getId());
+        }
+        Files.delete(path);
+    }
+}
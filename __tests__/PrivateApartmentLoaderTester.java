@@ -0,0 +1,70 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PrivateApartmentLoaderTester {
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        for (int i = 0; i < 200000; i++) {
+            Person tenant = new Person("Tenant " + i, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    1950 + random.nextInt(50), "" + (100000000 + i));
+            apartments.add(new Apartment(1 + random.nextInt(6), 30 + random.nextInt(120), 2000 + random.nextInt(8000),
+                    tenant, 1, 1 + random.nextInt(12), 2022, 1, 1 + random.nextInt(12), 2023));
+        }
+        Path path = Files.createTempFile("apartments", ".csv");
+        ApartmentLoader.writeCsv(path, apartments);
+
+        List<Apartment> loaded = new ArrayList<Apartment>();
+        LoadReport report = ApartmentLoader.load(path, loaded::add, 4, 64 * 1024);
+
+        int mismatches = 0;
+        for (int i = 0; i < apartments.size(); i++) {
+            if (!apartments.get(i).toString().equals(loaded.get(i).toString())
+                    || !apartments.get(i).getTenant().toString().equals(loaded.get(i).getTenant().toString())) {
+                mismatches++;
+            }
+        }
+
+        ApartmentStore store = new ApartmentStore();
+        ApartmentLoader.load(path, store);
+        int storeMismatches = 0;
+        for (int i = 0; i < apartments.size(); i++) {
+            if (!apartments.get(i).toString().equals(store.toApartment(i).toString())
+                    || !apartments.get(i).getTenant().toString().equals(store.getTenant(i).toString())) {
+                storeMismatches++;
+            }
+        }
+
+        // Lines the constructors would fix with default values are malformed
+        String[] malformed = { "0,50.0,4000.0,Someone,123456789,01/01/1990,01/01/2022,01/01/2023",
+                "3,50.0,-1.0,Someone,123456789,01/01/1990,01/01/2022,01/01/2023",
+                "3,NaN,4000.0,Someone,123456789,01/01/1990,01/01/2022,01/01/2023",
+                "3,50.0,4000.0,,123456789,01/01/1990,01/01/2022,01/01/2023",
+                "3,50.0,4000.0,Someone,12345,01/01/1990,01/01/2022,01/01/2023",
+                "3,50.0,4000.0,Someone,123456789,31/02/1990,01/01/2022,01/01/2023",
+                "3,50.0,4000.0,Someone,123456789,01/01/1990,01/01/2023,01/01/2022" };
+        int rejected = 0;
+        for (String line : malformed) {
+            Files.writeString(path, ApartmentLoader.HEADER + "\n" + line + "\n");
+            try {
+                ApartmentLoader.load(path, new ApartmentStore());
+            } catch (IllegalArgumentException e) {
+                if (e.getMessage().startsWith("Malformed line")) {
+                    rejected++;
+                }
+            }
+        }
+
+        System.out.println("********** ApartmentLoader **********");
+        System.out.println("rows: " + report.getRows() + ", bytes: " + report.getBytes());
+        System.out.println("rows per second: " + (long) report.getRowsPerSecond());
+        System.out.println("mismatches: " + mismatches);
+        System.out.println("store size: " + store.size() + ", mismatches: " + storeMismatches);
+        System.out.println("malformed lines rejected: " + rejected + " of " + malformed.length);
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class PrivateApartmentSearchTester {
+    public static void main(String[] args) {
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Random random = new Random(1);
+        ApartmentSearch search = new ApartmentSearch();
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        for (int i = 0; i < 3000; i++) {
+            Apartment apartment = new Apartment(1 + random.nextInt(6), 30 + random.nextInt(120),
+                    2000 + random.nextInt(8000), ariel, 1, 1, 2023, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    2023 + random.nextInt(3));
+            apartments.add(apartment);
+            search.add(apartment);
+        }
+
+        // Change and remove some apartments, the indexes should follow
+        for (int i = 0; i < 1000; i++) {
+            Apartment apartment = apartments.get(random.nextInt(apartments.size()));
+            apartment.setNoOfRooms(1 + random.nextInt(6));
+            apartment.setArea(30 + random.nextInt(120));
+            apartment.setPrice(2000 + random.nextInt(8000));
+            apartment.extendRentalPeriod(random.nextInt(2));
+        }
+        for (int i = 0; i < 200; i++) {
+            search.remove(apartments.remove(random.nextInt(apartments.size())));
+        }
+        for (int i = 0; i < 100; i++) {
+            Apartment apartment = new Apartment(3, 80, 5000, ariel, 1, 1, 2023, 1, 1, 2024);
+            apartments.add(apartment);
+            search.add(apartment);
+        }
+
+        System.out.println("********** ApartmentSearch **********");
+        System.out.println("size: " + search.size() + " / " + apartments.size());
+
+        ApartmentQuery query = new ApartmentQuery();
+        query.setNoOfRooms(3, 4);
+        query.setArea(70, 100);
+        query.setPrice(0, 6000);
+        query.setFreeWithin(new Date(1, 6, 2024), 60);
+        System.out.println("3-4 rooms, 70-100 m2, under 6000, free within 60 days: " + search.count(query) + " / "
+                + bruteForce(apartments, query).size());
+
+        int mismatches = 0;
+        Comparator<Apartment> byPricePerMeter = Comparator.comparingDouble(a -> a.getPrice() / a.getArea());
+        for (int i = 0; i < 200; i++) {
+            ApartmentQuery randomQuery = new ApartmentQuery();
+            int rooms = random.nextInt(7);
+            randomQuery.setNoOfRooms(rooms, rooms + random.nextInt(3));
+            double area = 20 + random.nextInt(140);
+            randomQuery.setArea(area, area + random.nextInt(60));
+            if (i % 2 == 0) {
+                double price = 1000 + random.nextInt(9000);
+                randomQuery.setPrice(price, price + random.nextInt(3000));
+            }
+            if (i % 3 == 0) {
+                randomQuery.setFreeWithin(new Date(1, 1 + random.nextInt(12), 2023 + random.nextInt(3)),
+                        random.nextInt(200));
+            }
+
+            List<Apartment> expected = bruteForce(apartments, randomQuery);
+            List<Apartment> found = search.find(randomQuery);
+            if (found.size() != expected.size() || !found.containsAll(expected)) {
+                mismatches++;
+            }
+
+            int k = 1 + random.nextInt(10);
+            expected.sort(byPricePerMeter);
+            List<Apartment> cheapest = search.cheapestPerMeter(randomQuery, k);
+            if (cheapest.size() != Math.min(k, expected.size())) {
+                mismatches++;
+            }
+            for (int j = 0; j < cheapest.size(); j++) {
+                if (byPricePerMeter.compare(cheapest.get(j), expected.get(j)) != 0) {
+                    mismatches++;
+                }
+            }
+        }
+        System.out.println("mismatches: " + mismatches);
+
+        ApartmentQuery empty = new ApartmentQuery();
+        empty.setNoOfRooms(5, 4);
+        System.out.println("empty rooms range: " + search.count(empty));
+        System.out.println("no criteria: " + search.count(new ApartmentQuery()));
+    }
+
+    private static List<Apartment> bruteForce(List<Apartment> apartments, ApartmentQuery query) {
+        List<Apartment> result = new ArrayList<Apartment>();
+        for (Apartment apartment : apartments) {
+            if (query.matches(apartment)) {
+                result.add(apartment);
+            }
+        }
+        return result;
+    }
+}
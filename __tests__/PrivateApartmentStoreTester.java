@@ -0,0 +1,30 @@
+public class PrivateApartmentStoreTester {
+    public static void main(String[] args) {
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Person david = new Person("David Stampa", 22, 2, 1997, "123123123");
+
+        Apartment apartment = new Apartment(4, 81, 6500, ariel, 1, 7, 2022, 1, 7, 2023);
+        ApartmentStore store = new ApartmentStore(1);
+        int row = store.add(apartment);
+        store.add(new Apartment(3, 70, 5000, david, 29, 2, 2020, 28, 2, 2021));
+
+        System.out.println("********** ApartmentStore **********");
+        System.out.println("daysLeft: " + store.daysLeft(row, new Date(1, 6, 2023)) + " / "
+                + apartment.daysLeft(new Date(1, 6, 2023)));
+        System.out.println("changeTenant: " + store.changeTenant(row, new Date(1, 6, 2023), david, 7000) + " / "
+                + apartment.changeTenant(new Date(1, 6, 2023), david, 7000));
+        store.extendRentalPeriod(row, 2);
+        apartment.extendRentalPeriod(2);
+        System.out.println("equals: " + store.toApartment(row).equals(apartment));
+        System.out.println("apartment:\n" + store.toApartment(row));
+
+        // Accepted bids replace the tenant of the row, the table doesn't grow
+        for (int year = 2024; year < 2034; year++) {
+            store.changeTenant(row, new Date(1, 6, year), new Person("Bidder", 1, 1, year, "123123123"), 8000);
+        }
+        System.out.println("tenant after 10 bids: " + store.getTenant(row).getName() + ", "
+                + store.getTenant(row).getDateOfBirth());
+        System.out.println();
+        System.out.println(store);
+    }
+}
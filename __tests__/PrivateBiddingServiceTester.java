@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+public class PrivateBiddingServiceTester {
+    public static void main(String[] args) throws Exception {
+        int clients = 8;
+        Random random = new Random(1);
+        Person tenant = new Person("Ariel", 21, 2, 1980, "123123123");
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        List<Apartment> expected = new ArrayList<Apartment>();
+        for (int i = 0; i < 1000; i++) {
+            apartments.add(new Apartment(3, 80, 5000, tenant, 1, 7, 2022, 1, 7, 2023));
+            expected.add(new Apartment(apartments.get(i)));
+        }
+
+        // Every apartment gets its bids from a single client, so their order is known
+        List<TenantBid> bids = new ArrayList<TenantBid>();
+        int expectedAccepted = 0;
+        for (int j = 0; j < 50000; j++) {
+            int unit = random.nextInt(apartments.size() / clients) * clients + j % clients;
+            Person bidder = new Person("Bidder " + j, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    1980 + random.nextInt(20), "000000000");
+            Date start = new Date(1 + random.nextInt(28), 1 + random.nextInt(12), 2023 + random.nextInt(3));
+            double price = 4500 + random.nextInt(2000);
+            bids.add(new TenantBid(apartments.get(unit), start, bidder, price));
+            expectedAccepted += expected.get(unit).changeTenant(start, bidder, price) ? 1 : 0;
+        }
+
+        System.out.println("********** BiddingService **********");
+        BiddingService service = new BiddingService(4, 64);
+        BiddingLoadReport report = BiddingLoadGenerator.run(service, bids, clients);
+        int mismatches = 0;
+        for (int i = 0; i < apartments.size(); i++) {
+            if (!apartments.get(i).equals(expected.get(i))) {
+                mismatches++;
+            }
+        }
+        System.out.println("bids: " + report.getBids() + ", accepted as sequential: "
+                + (report.getAccepted() == expectedAccepted));
+        System.out.println("mismatches: " + mismatches);
+        System.out.println("pending after run: " + service.getPending());
+
+        // A result of a single bid
+        Apartment unit = new Apartment(3, 80, 5000, tenant, 1, 7, 2022, 1, 7, 2023);
+        Person younger = new Person("Younger", 1, 1, 1999, "000000000");
+        CompletableFuture<Boolean> result = service.submit(new TenantBid(unit, new Date(1, 6, 2023), younger, 5000));
+        System.out.println("accepted bid: " + result.get() + ", tenant: " + unit.getTenant().getName());
+        service.close();
+        try {
+            service.submit(new TenantBid(unit, new Date(1, 6, 2023), younger, 5000));
+        } catch (IllegalStateException e) {
+            System.out.println("closed: " + e.getMessage());
+        }
+
+        // Backpressure: block the only pool thread and fill the service
+        BiddingService small = new BiddingService(1, 4);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Apartment blocking = new Apartment(3, 80, 5000, tenant, 1, 7, 2022, 1, 7, 2023);
+        blocking.addListener(new ApartmentListener() {
+            public void rentalPeriodChanged(Apartment a) {
+            }
+
+            public void tenantChangeRequested(Apartment a, Date startDate, Person p, double price,
+                    boolean accepted) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        small.submit(new TenantBid(blocking, new Date(1, 1, 2020), younger, 5000));
+        entered.await();
+        int submitted = 1;
+        while (small.trySubmit(new TenantBid(unit, new Date(1, 1, 2020), younger, 5000)) != null) {
+            submitted++;
+        }
+        System.out.println("submitted before full: " + submitted + ", pending: " + small.getPending());
+        release.countDown();
+        small.awaitIdle();
+        System.out.println("pending after release: " + small.getPending() + ", rejected: " + small.getRejected());
+        small.close();
+
+        // Bids submitted while the service closes are either applied or refused
+        int leaked = 0;
+        int unfinished = 0;
+        for (int round = 0; round < 200; round++) {
+            BiddingService closing = new BiddingService(2, 8);
+            List<CompletableFuture<Boolean>> results = new ArrayList<CompletableFuture<Boolean>>();
+            Thread client = new Thread(() -> {
+                try {
+                    while (true) {
+                        CompletableFuture<Boolean> future = closing
+                                .submit(new TenantBid(unit, new Date(1, 1, 2020), younger, 5000));
+                        synchronized (results) {
+                            results.add(future);
+                        }
+                    }
+                } catch (IllegalStateException | InterruptedException e) {
+                    // Closed
+                }
+            });
+            client.start();
+            Thread.sleep(0, 1000 * (round % 10));
+            closing.close();
+            client.join();
+            leaked += closing.getPending();
+            for (CompletableFuture<Boolean> future : results) {
+                unfinished += future.isDone() ? 0 : 1;
+            }
+        }
+        System.out.println("closed while submitting, leaked permits: " + leaked + ", unfinished bids: "
+                + unfinished);
+    }
+}
@@ -0,0 +1,182 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class PrivateBinaryCodecTester {
+    public static void main(String[] args) {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+
+        System.out.println("********** Date **********");
+        int mismatches = 0;
+        int twoBytes = 0;
+        int threeBytes = 0;
+        Date d = new Date(1, 1, 1000);
+        Date last = new Date(31, 12, 9999);
+        while (true) {
+            buf.clear();
+            d.writeTo(buf);
+            int size = buf.position();
+            twoBytes += size == 2 ? 1 : 0;
+            threeBytes += size == 3 ? 1 : 0;
+            buf.flip();
+            Date read = Date.readFrom(buf);
+            if (!read.equals(d) || buf.hasRemaining() || (size == 2) != (d.getYear() >= 1956 && d.getYear() <= 2043
+                    || size == 2 && (d.getYear() == 1955 || d.getYear() == 2044))) {
+                mismatches++;
+            }
+            if (d.equals(last)) {
+                break;
+            }
+            d = d.addDays(1);
+        }
+        System.out.println("mismatches: " + mismatches + ", 2 bytes: " + twoBytes + ", 3 bytes: " + threeBytes);
+
+        System.out.println("********** Person **********");
+        Random random = new Random(1);
+        mismatches = 0;
+        String[] ids = { "123456789", "000000000", "999999999", "12345678a", "ab-cd-efg" };
+        String[] names = { "Ariel", "\u05d0\u05e8\u05d9\u05d0\u05dc", "Someone", "A very long name " + "x".repeat(300), "Ariel \ud83c\udfe0" };
+        for (int i = 0; i < 10000; i++) {
+            Person p = new Person(names[random.nextInt(names.length)] + (i % 3 == 0 ? i : ""),
+                    1 + random.nextInt(28), 1 + random.nextInt(12), 1000 + random.nextInt(9000),
+                    ids[random.nextInt(ids.length)]);
+            buf.clear();
+            p.writeTo(buf);
+            buf.flip();
+            Person read = Person.readFrom(buf);
+            if (!read.equals(p) || !read.getId().equals(p.getId()) || buf.hasRemaining()) {
+                mismatches++;
+            }
+        }
+        System.out.println("mismatches: " + mismatches);
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        buf.clear();
+        ariel.writeTo(buf);
+        System.out.println("bytes: " + buf.position() + " vs toString " + ariel.toString()
+                .getBytes(StandardCharsets.UTF_8).length);
+
+        System.out.println("********** Apartment **********");
+        mismatches = 0;
+        double[] values = { 80, 80.5, 0.1, 1.0 / 3, 5000, 4999.99, 1e17, Double.MAX_VALUE, 12.345 };
+        for (int i = 0; i < 10000; i++) {
+            Person tenant = new Person(names[random.nextInt(names.length)], 1 + random.nextInt(28),
+                    1 + random.nextInt(12), 1000 + random.nextInt(9000), ids[random.nextInt(ids.length)]);
+            Apartment a = new Apartment(1 + random.nextInt(1000), values[random.nextInt(values.length)],
+                    values[random.nextInt(values.length)], tenant, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    1000 + random.nextInt(4000), 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    5000 + random.nextInt(5000));
+            buf.clear();
+            a.writeTo(buf);
+            buf.flip();
+            Apartment read = Apartment.readFrom(buf);
+            if (!read.equals(a) || !read.toString().equals(a.toString())
+                    || !read.getTenant().equals(a.getTenant()) || buf.hasRemaining()) {
+                mismatches++;
+            }
+        }
+        System.out.println("mismatches: " + mismatches);
+        Apartment apartment = new Apartment(3, 80, 5000, ariel, 1, 7, 2022, 1, 7, 2023);
+        buf.clear();
+        apartment.writeTo(buf);
+        System.out.println("bytes: " + buf.position() + " vs toString " + apartment.toString()
+                .getBytes(StandardCharsets.UTF_8).length);
+
+        System.out.println("********** NameDictionary **********");
+        Person[] tenants = new Person[50];
+        for (int i = 0; i < tenants.length; i++) {
+            tenants[i] = new Person("Tenant " + i, 1 + i % 28, 1 + i % 12, 1950 + i, "1234567" + (10 + i));
+        }
+        Apartment[] apartments = new Apartment[1000];
+        for (int i = 0; i < apartments.length; i++) {
+            apartments[i] = new Apartment(1 + i % 5, 40 + i % 100, 3000 + i, tenants[random.nextInt(tenants.length)],
+                    1, 1 + i % 12, 2022, 1, 1 + i % 12, 2023);
+        }
+        buf.clear();
+        for (Apartment a : apartments) {
+            a.writeTo(buf);
+        }
+        int plain = buf.position();
+        buf.clear();
+        NameDictionary writeNames = new NameDictionary();
+        for (Apartment a : apartments) {
+            a.writeTo(buf, writeNames);
+        }
+        int withDictionary = buf.position();
+        buf.flip();
+        NameDictionary readNames = new NameDictionary();
+        mismatches = 0;
+        for (Apartment a : apartments) {
+            if (!Apartment.readFrom(buf, readNames).equals(a)) {
+                mismatches++;
+            }
+        }
+        System.out.println("mismatches: " + mismatches + ", names: " + readNames.size() + ", remaining: "
+                + buf.remaining());
+        System.out.println("bytes per apartment: " + plain / apartments.length + " plain, "
+                + withDictionary / apartments.length + " with dictionary");
+
+        // A full dictionary writes new names in full on both sides
+        buf.clear();
+        NameDictionary small = new NameDictionary(2);
+        for (int i = 0; i < 10; i++) {
+            tenants[i % 4].writeTo(buf, small);
+        }
+        buf.flip();
+        NameDictionary smallRead = new NameDictionary(2);
+        mismatches = 0;
+        for (int i = 0; i < 10; i++) {
+            if (!Person.readFrom(buf, smallRead).equals(tenants[i % 4])) {
+                mismatches++;
+            }
+        }
+        System.out.println("full dictionary mismatches: " + mismatches + ", names: " + smallRead.size());
+
+        // Errors
+        buf.clear();
+        apartment.writeTo(buf);
+        buf.flip();
+        buf.limit(buf.limit() - 1);
+        try {
+            Apartment.readFrom(buf);
+        } catch (BufferUnderflowException e) {
+            System.out.println("truncated: BufferUnderflowException");
+        }
+        buf.clear();
+        NameDictionary once = new NameDictionary();
+        ariel.writeTo(buf, once);
+        ariel.writeTo(buf, once);
+        buf.flip();
+        Person.readFrom(buf);
+        try {
+            Person.readFrom(buf);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            Date.readFrom(ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF }));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+        // Rooms, area and price must be positive: 0 rooms, NaN area, -1 rooms
+        int[] rooms = { 0, 3, -1 };
+        double[] areas = { 70, Double.NaN, 70 };
+        for (int i = 0; i < rooms.length; i++) {
+            buf.clear();
+            BinaryFormat.putVarint(buf, rooms[i]);
+            BinaryFormat.putDecimal(buf, areas[i]);
+            BinaryFormat.putDecimal(buf, 5000);
+            ariel.writeTo(buf);
+            buf.flip();
+            try {
+                Apartment.readFrom(buf);
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        buf.clear();
+        apartment.writeTo(buf);
+        buf.flip();
+        System.out.println("immutable tenant: " + (Apartment.readFrom(buf).getTenant() instanceof ImmutablePerson));
+    }
+}
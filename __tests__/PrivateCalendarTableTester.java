@@ -0,0 +1,35 @@
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+public class PrivateCalendarTableTester {
+    public static void main(String[] args) {
+        // Check Date's validation and day numbers against java.time over the whole range
+        Date base = new Date(1, 1, 2000);
+        long baseEpochDay = LocalDate.of(2000, 1, 1).toEpochDay();
+        int mismatches = 0;
+        for (int year = 999; year <= 10000; year++) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    Date d = new Date(day, month, year);
+                    LocalDate expected;
+                    try {
+                        expected = year >= 1000 && year <= 9999 ? LocalDate.of(year, month, day) : null;
+                    } catch (DateTimeException e) {
+                        expected = null;
+                    }
+                    if (expected == null) {
+                        expected = LocalDate.of(2000, 1, 1);
+                    }
+                    boolean sameDate = d.getDay() == expected.getDayOfMonth() && d.getMonth() == expected
+                            .getMonthValue() && d.getYear() == expected.getYear();
+                    boolean sameDifference = d.difference(base) == Math.abs(expected.toEpochDay() - baseEpochDay);
+                    if (!sameDate || !sameDifference || CalendarTable.isLeapYear(year) != java.time.Year.isLeap(year)) {
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        System.out.println("********** CalendarTable **********");
+        System.out.println("mismatches: " + mismatches);
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PrivateConcurrentApartmentTester {
+    public static void main(String[] args) throws InterruptedException {
+        final int threads = 8;
+        final int extensionsPerThread = 400;
+        Person tenant = new Person("6000", 1, 1, 1950, "123123123");
+        final ConcurrentApartment apartment = new ConcurrentApartment(
+                new Apartment(3, 80, 6000, tenant, 1, 7, 2022, 1, 7, 2023));
+        final AtomicLong bids = new AtomicLong();
+        final AtomicBoolean torn = new AtomicBoolean();
+        final AtomicLong reports = new AtomicLong();
+        Apartment.setMetrics(new ApartmentMetrics() {
+            public void tenantChangeAccepted(long nanos) {
+                reports.incrementAndGet();
+            }
+
+            public void tenantChangeRejected(long nanos, boolean startDateNotAfter, boolean outsideWindow,
+                    boolean priceTooLow, boolean tenantNotYounger) {
+                reports.incrementAndGet();
+            }
+
+            public void daysLeftMeasured(long nanos) {
+            }
+
+            public void rentalPeriodExtended(long nanos) {
+                reports.incrementAndGet();
+            }
+        });
+
+        Thread[] workers = new Thread[threads];
+        long startTime = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < extensionsPerThread; i++) {
+                    apartment.extendRentalPeriod(1);
+
+                    // The bidder's name is the price, so a snapshot must always match them
+                    Date end = apartment.getRentalEndDate();
+                    int price = 6000 + id * 1000 + i;
+                    Person bidder = new Person("" + price, 1, 1, 1951 + i % 40, "000000000");
+                    apartment.changeTenant(new Date(end.getDay(), end.getMonth(), end.getYear()), bidder, price);
+                    bids.incrementAndGet();
+
+                    Apartment snapshot = apartment.getSnapshot();
+                    if (Double.parseDouble(snapshot.getTenant().getName()) != snapshot.getPrice()) {
+                        torn.set(true);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        Apartment.setMetrics(null);
+
+        // Changes that leave the state as it was don't swap a new snapshot in
+        ImmutableApartment before = apartment.getSnapshot();
+        apartment.setPrice(-1);
+        apartment.setNoOfRooms(before.getNoOfRooms());
+        apartment.changeTenant(new Date(1, 1, 2000), new Person("Late", 1, 1, 2000, "000000000"), 1);
+        boolean unchanged = apartment.getSnapshot() == before;
+
+        System.out.println("********** ConcurrentApartment **********");
+        System.out.println("torn tenant / price: " + torn.get());
+        System.out.println("throughput: " + (long) (bids.get() * 2 / seconds) + " ops/s");
+        System.out.println("unchanged snapshot kept: " + unchanged);
+        // Only measured with -Dapartment.metrics=true
+        if (Apartment.isMetricsEnabled()) {
+            System.out.println("reports: " + reports.get() + " of " + bids.get() * 2 + " calls");
+        }
+        System.out.println(apartment);
+    }
+}
@@ -0,0 +1,43 @@
+public class PrivateDateCacheTester {
+    public static void main(String[] args) {
+        DateCache cache = new DateCache(2);
+        Date d1 = cache.intern(1, 7, 2022);
+        Date d2 = cache.intern(1, 7, 2022);
+        cache.intern(2, 7, 2022);
+        cache.intern(3, 7, 2022);
+        Date d3 = cache.intern(1, 7, 2022);
+
+        System.out.println("********** DateCache **********");
+        System.out.println("same instance: " + (d1 == d2));
+        System.out.println("evicted: " + (d1 != d3));
+        System.out.println("invalid: " + cache.intern(31, 2, 2022));
+        System.out.println(cache);
+
+        try {
+            d1.setDay(2);
+        } catch (UnsupportedOperationException e) {
+            System.out.println("setDay: " + e.getMessage());
+        }
+
+        // Dates a multiple of the number of sets apart share a set but not a way
+        DateCache large = new DateCache(16384);
+        int day = DateCodec.toEpochDay(DateCodec.pack(1, 1, 2000));
+        int[] keys = { DateCodec.pack(1, 1, 2000), CalendarTable.fromEpochDay(day + 16384),
+                CalendarTable.fromEpochDay(day + 32768) };
+        for (int i = 0; i < 1000; i++) {
+            int key = keys[i % 2];
+            large.intern(DateCodec.dayOf(key), DateCodec.monthOf(key), DateCodec.yearOf(key));
+        }
+        System.out.println("dates 16384 days apart, hits: " + large.getHits() + ", misses: " + large.getMisses());
+
+        // A third date of the set replaces the one used less recently
+        large.intern(1, 1, 2000);
+        large.intern(DateCodec.dayOf(keys[2]), DateCodec.monthOf(keys[2]), DateCodec.yearOf(keys[2]));
+        Date kept = large.intern(1, 1, 2000);
+        System.out.println("recently used kept: " + (large.getMisses() == 3) + ", " + kept);
+
+                Person p1 = new Person("Ariel", 21, 2, 1997, "123123123");
+        Person p2 = new Person("David Stampa", 21, 2, 1997, "123123123");
+        System.out.println("shared birth date: " + (p1.getDateOfBirth() == p2.getDateOfBirth()));
+    }
+}
@@ -0,0 +1,30 @@
+public class PrivateDateCodecTester {
+    public static void main(String[] args) {
+        System.out.println("********** DateCodec **********");
+        int key = DateCodec.pack(29, 2, 2024);
+        System.out.println("key: " + key);
+        System.out.println("unpack: " + DateCodec.unpack(key));
+        System.out.println("addYears(1): " + DateCodec.unpack(DateCodec.addYears(key, 1)));
+        System.out.println("invalid: " + DateCodec.pack(31, 4, 2024));
+
+        // Cross check every key against Date over a range of years
+        int mismatches = 0;
+        for (int year = 1899; year <= 2101; year++) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    Date d = new Date(day, month, year);
+                    int k = DateCodec.pack(day, month, year);
+                    Date other = new Date(1, 7, 2022);
+                    int otherKey = DateCodec.pack(other);
+                    if (k != DateCodec.pack(d)
+                            || DateCodec.pack(d.addYearsToDate(3)) != DateCodec.addYears(k, 3)
+                            || d.difference(other) != DateCodec.difference(k, otherKey)
+                            || d.before(other) != (DateCodec.compare(k, otherKey) < 0)) {
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        System.out.println("mismatches: " + mismatches);
+    }
+}
@@ -0,0 +1,37 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class PrivateDateParserTester {
+    public static void main(String[] args) {
+        System.out.println("********** Date.parse **********");
+        System.out.println("29/02/2024: " + Date.parse("29/02/2024"));
+        System.out.println("29/02/2023: " + Date.parse("29/02/2023"));
+        System.out.println("31/04/2023: " + Date.parse("31/04/2023"));
+        System.out.println("01/01/0999: " + Date.parse("01/01/0999"));
+        try {
+            Date.parse("1/1/2000");
+        } catch (IllegalArgumentException e) {
+            System.out.println("1/1/2000: " + e.getMessage());
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap("13/10/1998;01/07/2022".getBytes(StandardCharsets.US_ASCII));
+        Date first = Date.parse(buf);
+        buf.get();
+        Date second = Date.parse(buf);
+        System.out.println("buffer: " + first + ", " + second + ", remaining " + buf.remaining());
+
+        // Every formatted date must parse back to the same date
+        int mismatches = 0;
+        for (int year = 1000; year <= 9999; year += 7) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 1; day <= 31; day++) {
+                    Date d = new Date(day, month, year);
+                    if (!Date.parse(d.toString()).equals(d)) {
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        System.out.println("mismatches: " + mismatches);
+    }
+}
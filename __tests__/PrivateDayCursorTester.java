@@ -0,0 +1,55 @@
+import java.time.LocalDate;
+
+public class PrivateDayCursorTester {
+    public static void main(String[] args) {
+        System.out.println("********** Date arithmetic **********");
+        Date d = new Date(31, 1, 2024);
+        System.out.println(d + " + 1 month: " + d.addMonths(1));
+        System.out.println(d + " + 13 months: " + d.addMonths(13));
+        System.out.println("30/04/2023 + 1 month: " + new Date(30, 4, 2023).addMonths(1));
+        System.out.println("28/02/2023 + 12 months: " + new Date(28, 2, 2023).addMonths(12) + " / "
+                + new Date(28, 2, 2023).addYearsToDate(1));
+        System.out.println(d + " + 30 days: " + d.addDays(30));
+        System.out.println(d + " - 365 days: " + d.addDays(-365));
+        System.out.println("31/12/9999 + 1 day: " + new Date(31, 12, 9999).addDays(1));
+        System.out.println(d + " day of week: " + d.dayOfWeek());
+
+        // Check addDays and dayOfWeek against java.time
+        int mismatches = 0;
+        Date start = new Date(1, 1, 1000);
+        LocalDate expected = LocalDate.of(1000, 1, 1);
+        for (int i = 0; i < 9000 * 366; i += 97) {
+            Date actual = start.addDays(i);
+            LocalDate e = expected.plusDays(i);
+            if (e.getYear() > 9999) {
+                break;
+            }
+            if (actual.getDay() != e.getDayOfMonth() || actual.getMonth() != e.getMonthValue()
+                    || actual.getYear() != e.getYear() || actual.dayOfWeek() != e.getDayOfWeek().getValue()) {
+                mismatches++;
+            }
+        }
+        System.out.println("mismatches: " + mismatches);
+
+        DayCursor days = DayCursor.days(new Date(25, 2, 2024), new Date(3, 3, 2024));
+        StringBuilder sb = new StringBuilder();
+        while (days.next()) {
+            sb.append(days.getDay()).append('/').append(days.getMonth()).append(' ');
+        }
+        System.out.println("days: " + sb);
+
+        DayCursor months = DayCursor.months(new Date(31, 1, 2024), new Date(1, 7, 2024));
+        sb.setLength(0);
+        while (months.next()) {
+            sb.append(months.toDate()).append(' ');
+        }
+        System.out.println("months: " + sb);
+
+        DayCursor last = DayCursor.months(new Date(1, 1, 9999), new Date(31, 12, 9999));
+        int count = 0;
+        while (last.next()) {
+            count++;
+        }
+        System.out.println("months of 9999: " + count);
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.Random;
+
+public class PrivateDaysLeftKernelTester {
+    public static void main(String[] args) {
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Random random = new Random(1);
+        Apartment[] apartments = new Apartment[10000];
+        for (int i = 0; i < apartments.length; i++) {
+            apartments[i] = new Apartment(3, 80, 5000, ariel, 1, 1, 1000 + random.nextInt(8000),
+                    1 + random.nextInt(31), 1 + random.nextInt(12), 1000 + random.nextInt(9000));
+        }
+        int[] endDays = DaysLeftKernel.packRentalEndDates(apartments);
+
+        System.out.println("********** DaysLeftKernel **********");
+        int mismatches = 0;
+        int expired = 0;
+        for (int i = 0; i < 50; i++) {
+            Date asOf = new Date(1 + random.nextInt(31), 1 + random.nextInt(12), 1000 + random.nextInt(9000));
+            int[] daysLeft = DaysLeftKernel.daysLeft(endDays, asOf);
+            int expiring = 0;
+            for (int j = 0; j < apartments.length; j++) {
+                int expected = apartments[j].daysLeft(asOf);
+                if (daysLeft[j] != expected) {
+                    mismatches++;
+                }
+                expired += expected == -1 ? 1 : 0;
+                expiring += expected >= 0 && expected <= 365 ? 1 : 0;
+            }
+            if (DaysLeftKernel.countExpiringWithin(endDays, DaysLeftKernel.pack(asOf), 365) != expiring) {
+                mismatches++;
+            }
+        }
+        System.out.println("mismatches: " + mismatches + ", expired seen: " + (expired > 0));
+
+        // Edges: the end date itself, the day after and keys from ApartmentStore
+        Date end = apartments[0].getRentalEndDate();
+        int[] one = { endDays[0] };
+        System.out.println("on end date: " + DaysLeftKernel.daysLeft(one, end)[0]);
+        System.out.println("day after: " + DaysLeftKernel.daysLeft(one, end.addDays(1))[0]);
+        System.out.println("year before: " + DaysLeftKernel.daysLeft(one, end.addDays(-365))[0] + " / "
+                + apartments[0].daysLeft(end.addDays(-365)));
+        int[] keys = { DateCodec.pack(end), DateCodec.pack(1, 1, 2000) };
+        System.out.println("keys: " + (DaysLeftKernel.packKeys(keys)[0] == endDays[0]));
+        System.out.println("negative window: " + DaysLeftKernel.countExpiringWithin(endDays, endDays[0], -1));
+
+        int[] out = new int[endDays.length];
+        DaysLeftKernel.daysLeft(endDays, 10, 20, DaysLeftKernel.pack(end), out);
+        System.out.println("range only: " + (out[9] == 0 && out[20] == 0 && out[10] == apartments[10].daysLeft(end)));
+        try {
+            DaysLeftKernel.daysLeft(endDays, 0, endDays.length + 1, 0, out);
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("out of bounds: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+public class PrivateImmutableSnapshotTester {
+    public static void main(String[] args) {
+        Person tenant = new Person("Ariel", 21, 2, 1997, "123123123");
+        Apartment apartment = new Apartment(3, 80, 5000, tenant, 1, 7, 2022, 1, 7, 2023);
+
+        System.out.println("********** ImmutablePerson **********");
+        System.out.println("shared tenant: " + (apartment.getTenant() == apartment.getTenant()));
+        tenant.setName("David Stampa");
+        System.out.println("tenant after caller's change: " + apartment.getTenant().getName());
+        try {
+            apartment.getTenant().setName("David Stampa");
+        } catch (UnsupportedOperationException e) {
+            System.out.println("setName: " + e.getMessage());
+        }
+        ImmutablePerson frozen = ImmutablePerson.of(tenant);
+        System.out.println("of(immutable) is the same: " + (ImmutablePerson.of(frozen) == frozen));
+        Person thawed = new Person(frozen);
+        thawed.setName("Ariel");
+        System.out.println("mutable copy: " + thawed.getName() + " / " + frozen.getName());
+        System.out.println("equal after copy: " + new Person(frozen).equals(frozen));
+
+        System.out.println("********** ImmutableApartment **********");
+        ImmutableApartment snapshot = ImmutableApartment.of(apartment);
+        System.out.println("of(immutable) is the same: " + (ImmutableApartment.of(snapshot) == snapshot));
+        System.out.println("shares tenant: " + (snapshot.getTenant() == apartment.getTenant()));
+        apartment.setPrice(6000);
+        System.out.println("snapshot price after change: " + snapshot.getPrice());
+        try {
+            snapshot.setPrice(7000);
+        } catch (UnsupportedOperationException e) {
+            System.out.println("setPrice: " + e.getMessage());
+        }
+        try {
+            snapshot.extendRentalPeriod(1);
+        } catch (UnsupportedOperationException e) {
+            System.out.println("extendRentalPeriod: " + e.getMessage());
+        }
+        try {
+            snapshot.changeTenant(new Date(1, 6, 2023), new Person("Dana", 1, 1, 2000, "000000000"), 6000);
+        } catch (UnsupportedOperationException e) {
+            System.out.println("changeTenant: " + e.getMessage());
+        }
+
+        Apartment draft = new Apartment(snapshot);
+        draft.extendRentalPeriod(2);
+        ImmutableApartment next = ImmutableApartment.of(draft);
+        System.out.println("next: " + next.getRentalEndDate() + ", snapshot: " + snapshot.getRentalEndDate());
+
+        ConcurrentApartment concurrent = new ConcurrentApartment(apartment);
+        System.out.println("shared snapshot: " + (concurrent.getSnapshot() == concurrent.getSnapshot()));
+        ImmutableApartment before = concurrent.getSnapshot();
+        concurrent.setPrice(8000);
+        System.out.println("new snapshot on change: " + (concurrent.getSnapshot() != before) + ", old price: "
+                + before.getPrice() + ", new price: " + concurrent.getPrice());
+    }
+}
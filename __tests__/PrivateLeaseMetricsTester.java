@@ -0,0 +1,98 @@
+public class PrivateLeaseMetricsTester {
+    public static void main(String[] args) throws InterruptedException {
+        // Must be set before Apartment is loaded
+        System.setProperty("apartment.metrics", "true");
+
+        System.out.println("********** LatencyHistogram **********");
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        System.out.println("count: " + histogram.getCount() + ", max: " + histogram.getMax());
+        System.out.println("p50 within 3%: " + (Math.abs(histogram.getValueAtPercentile(50) - 50000) <= 1500));
+        System.out.println("p99 within 3%: " + (Math.abs(histogram.getValueAtPercentile(99) - 99000) <= 2970));
+        System.out.println("p100: " + histogram.getValueAtPercentile(100) + ", p0: " + histogram.getValueAtPercentile(0));
+        System.out.println("small values exact: " + smallValuesExact());
+        histogram.record(Long.MAX_VALUE);
+        System.out.println("max long: " + (histogram.getValueAtPercentile(100) == Long.MAX_VALUE));
+
+        System.out.println("********** LeaseMetrics **********");
+        System.out.println("enabled: " + Apartment.isMetricsEnabled());
+        LeaseMetrics metrics = new LeaseMetrics();
+        Apartment.setMetrics(metrics);
+
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Person older = new Person("Older", 1, 1, 1990, "000000000");
+        Person younger = new Person("Younger", 1, 1, 2000, "000000000");
+        Apartment apartment = new Apartment(3, 80, 5000, ariel, 1, 7, 2022, 1, 7, 2023);
+
+        // Outside the window and too cheap
+        apartment.changeTenant(new Date(1, 1, 2023), younger, 4000);
+        // Not after the start date, outside the window and an older tenant
+        apartment.changeTenant(new Date(1, 6, 2022), older, 6000);
+        // Older tenant only
+        apartment.changeTenant(new Date(1, 6, 2023), older, 6000);
+        // Accepted
+        apartment.changeTenant(new Date(1, 6, 2023), younger, 6000);
+        apartment.extendRentalPeriod(1);
+        apartment.extendRentalPeriod(0);
+
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                Date d = new Date(1, 1, 2024);
+                for (int i = 0; i < 10000; i++) {
+                    apartment.daysLeft(d);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        LeaseMetricsSnapshot snapshot = metrics.getSnapshot();
+        System.out.println("accepted / rejected: " + snapshot.getAccepted() + " / " + snapshot.getRejected());
+        System.out.println("start date not after: " + snapshot.getStartDateNotAfter());
+        System.out.println("outside window: " + snapshot.getOutsideWindow());
+        System.out.println("price too low: " + snapshot.getPriceTooLow());
+        System.out.println("tenant not younger: " + snapshot.getTenantNotYounger());
+        System.out.println("changeTenant calls: " + snapshot.getChangeTenant().getCount());
+        System.out.println("extendRentalPeriod calls: " + snapshot.getExtendRentalPeriod().getCount());
+        System.out.println("daysLeft calls: " + snapshot.getDaysLeft().getCount());
+        System.out.println("dump lines: " + metrics.toString().split("\n").length);
+
+        // A slow listener isn't part of the measured latency
+        metrics.reset();
+        ApartmentListener slow = a -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        apartment.addListener(slow);
+        apartment.extendRentalPeriod(1);
+        apartment.removeListener(slow);
+        System.out.println("listener not measured: "
+                + (metrics.getSnapshot().getExtendRentalPeriod().getMax() < 50_000_000L));
+
+        metrics.reset();
+        Apartment.setMetrics(null);
+        apartment.daysLeft(new Date(1, 1, 2024));
+        System.out.println("after reset and uninstall: " + metrics.getSnapshot().getDaysLeft().getCount() + ", "
+                + (Apartment.getMetrics() == ApartmentMetrics.NO_OP));
+    }
+
+    private static boolean smallValuesExact() {
+        for (int value = 0; value < 64; value++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            if (histogram.getValueAtPercentile(50) != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class PrivateLeaseSchedulerTester {
+    public static void main(String[] args) {
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Random random = new Random(1);
+        List<Apartment> scheduled = new ArrayList<Apartment>();
+        List<Apartment> polled = new ArrayList<Apartment>();
+        for (int i = 0; i < 1000; i++) {
+            Apartment apartment = new Apartment(3, 80, 5000, ariel, 1, 1, 2020, 1 + random.nextInt(28),
+                    1 + random.nextInt(12), 2020 + random.nextInt(4));
+            scheduled.add(apartment);
+            polled.add(new Apartment(apartment));
+        }
+
+        // Every third apartment is renewed for a year when its rental period ends
+        Date today = new Date(1, 1, 2020);
+        LeaseScheduler scheduler = new LeaseScheduler(today);
+        List<String> fired = new ArrayList<String>();
+        LeaseListener recorder = new LeaseListener() {
+            public void changeTenantWindowOpened(Date day, List<Apartment> apartments) {
+                for (Apartment apartment : apartments) {
+                    fired.add(day + " window " + scheduled.indexOf(apartment));
+                }
+            }
+
+            public void rentalPeriodEnded(Date day, List<Apartment> apartments) {
+                for (Apartment apartment : apartments) {
+                    int id = scheduled.indexOf(apartment);
+                    fired.add(day + " ended " + id);
+                    if (id % 3 == 0) {
+                        apartment.extendRentalPeriod(1);
+                    }
+                }
+            }
+        };
+        scheduler.addListener(recorder);
+        for (Apartment apartment : scheduled) {
+            scheduler.add(apartment);
+        }
+        System.out.println("********** LeaseScheduler **********");
+        System.out.println("apartments: " + scheduler.size() + ", pending: " + scheduler.getPending());
+
+        // Poll every apartment every day with daysLeft, and move some rental periods on the way.
+        // A window is reported once per rental period, the first day it is open.
+        List<String> expected = new ArrayList<String>();
+        boolean[] windowReported = new boolean[polled.size()];
+        Date d = today;
+        int events = 0;
+        for (int day = 1; day <= 6 * 365; day++) {
+            d = d.addDays(1);
+            for (int i = 0; i < polled.size(); i++) {
+                int daysLeft = polled.get(i).daysLeft(d);
+                if (daysLeft >= 0 && daysLeft <= 90 && !windowReported[i]) {
+                    expected.add(d + " window " + i);
+                    windowReported[i] = true;
+                }
+            }
+            for (int i = 0; i < polled.size(); i++) {
+                if (polled.get(i).daysLeft(d) == 0) {
+                    expected.add(d + " ended " + i);
+                    if (i % 3 == 0) {
+                        polled.get(i).extendRentalPeriod(1);
+                        windowReported[i] = false;
+                    }
+                }
+            }
+            events += day % 7 == 0 ? scheduler.advanceTo(d) : 0;
+
+            if (day % 100 == 0) {
+                events += scheduler.advanceTo(d);
+                int i = random.nextInt(polled.size());
+                Date end = d.addDays(1 + random.nextInt(400));
+                scheduled.get(i).setRentalEndDate(end);
+                polled.get(i).setRentalEndDate(end);
+                windowReported[i] = false;
+            }
+        }
+        events += scheduler.advanceTo(d);
+
+        // Events of the same day may fire in any order
+        Collections.sort(fired);
+        Collections.sort(expected);
+        System.out.println("events: " + fired.size() + " / " + expected.size() + ", returned: " + events);
+        System.out.println("same events: " + fired.equals(expected));
+        System.out.println("today: " + scheduler.getToday() + ", pending: " + scheduler.getPending());
+
+        scheduler.remove(scheduled.get(0));
+        System.out.println("after remove: " + scheduler.size() + ", pending: " + scheduler.getPending());
+        scheduler.removeListener(recorder);
+        scheduler.advanceBy(Integer.MAX_VALUE);
+        System.out.println("advance past 9999: " + scheduler.getToday() + ", pending: " + scheduler.getPending());
+
+        // A lease added inside its changeTenant window gets the window on the next day
+        LeaseScheduler late = new LeaseScheduler(today);
+        List<String> opened = new ArrayList<String>();
+        late.addListener(new LeaseListener() {
+            public void changeTenantWindowOpened(Date day, List<Apartment> apartments) {
+                opened.add("window " + day);
+            }
+
+            public void rentalPeriodEnded(Date day, List<Apartment> apartments) {
+                opened.add("ended " + day);
+            }
+        });
+        late.add(new Apartment(3, 80, 5000, ariel, 1, 1, 2019, 31, 1, 2020));
+        late.add(new Apartment(3, 80, 5000, ariel, 1, 1, 2019, 1, 1, 2020));
+        late.advanceBy(1);
+        System.out.println("inside the window: " + opened + ", pending: " + late.getPending());
+    }
+}
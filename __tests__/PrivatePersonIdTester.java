@@ -0,0 +1,39 @@
+public class PrivatePersonIdTester {
+    public static void main(String[] args) {
+        System.out.println("********** PersonId **********");
+        Person numeric = new Person("Ariel", 21, 2, 1997, "012345678");
+        Person text = new Person("David", 21, 2, 1997, "ABCDEFGHI");
+        System.out.println(numeric);
+        System.out.println("id number: " + numeric.getIdNumber());
+        System.out.println(text);
+        System.out.println("id number: " + text.getIdNumber());
+        System.out.println("check digit 000000018: " + PersonId.isValidCheckDigit("000000018"));
+        System.out.println("check digit 000000019: " + PersonId.isValidCheckDigit("000000019"));
+
+        Person invalid = Person.withCheckedId("Ariel", 21, 2, 1997, "000000019");
+        Person valid = Person.withCheckedId("Ariel", 21, 2, 1997, "000000018");
+        Person unchecked = new Person("Ariel", 21, 2, 1997, "000000019");
+        System.out.println("checked ID: " + invalid.getId() + ", " + valid.getId() + ", unchecked: "
+                + unchecked.getId());
+
+        // Memory retained per person with a unique ID
+        final int people = 1_000_000;
+        Person[] array = new Person[people];
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        for (int i = 0; i < people; i++) {
+            array[i] = new Person("Tenant", 1, 1, 1990, String.format("%09d", i));
+        }
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        String[] ids = new String[people];
+        for (int i = 0; i < people; i++) {
+            ids[i] = array[i].getId();
+        }
+        System.gc();
+        long withStrings = runtime.totalMemory() - runtime.freeMemory();
+        System.out.println("bytes per person: " + (after - before) / people);
+        System.out.println("bytes per ID String: " + (withStrings - after) / people);
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.Random;
+
+public class PrivatePersonRegistryTester {
+    public static void main(String[] args) {
+        PersonRegistry registry = new PersonRegistry();
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            registry.register(new Person("Person " + i, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    1950 + random.nextInt(50), String.format("%09d", i * 7919)));
+        }
+        for (int i = 0; i < 10000; i += 3) {
+            registry.remove(String.format("%09d", i * 7919));
+        }
+
+        int mismatches = 0;
+        for (int i = 0; i < 10000; i++) {
+            Person p = registry.get(String.format("%09d", i * 7919));
+            if ((p == null) != (i % 3 == 0) || p != null && !p.getName().equals("Person " + i)) {
+                mismatches++;
+            }
+        }
+
+        Person tenant = new Person("Tenant", 1, 1, 1995, "123456789");
+        int younger = registry.youngerThan(tenant).size();
+        int expected = 0;
+        for (int i = 0; i < 10000; i++) {
+            Person p = registry.get(String.format("%09d", i * 7919));
+            if (p != null && p.compareTo(tenant) == -1) {
+                expected++;
+            }
+        }
+
+        System.out.println("********** PersonRegistry **********");
+        System.out.println("size: " + registry.size());
+        System.out.println("mismatches: " + mismatches);
+        System.out.println("younger than tenant: " + younger + " / " + expected);
+        System.out.println("youngest:\n" + registry.youngest());
+        System.out.println("oldest:\n" + registry.oldest());
+
+        Person a = new Person(new String("Ariel"), 21, 2, 1997, "123123123");
+        Person b = new Person(new String("Ariel"), 21, 2, 1997, "123123123");
+        System.out.println("equals: " + a.equals(b) + ", equals(Object): " + a.equals((Object) b)
+                + ", same hashCode: " + (a.hashCode() == b.hashCode()));
+    }
+}
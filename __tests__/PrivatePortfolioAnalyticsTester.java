@@ -0,0 +1,26 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PrivatePortfolioAnalyticsTester {
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        Person tenant = new Person("Ariel", 21, 2, 1997, "123123123");
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        for (int i = 0; i < 200000; i++) {
+            apartments.add(new Apartment(1 + random.nextInt(6), 30 + random.nextDouble() * 120,
+                    2000 + random.nextDouble() * 8000, tenant, 1, 1 + random.nextInt(12), 2022,
+                    1, 1 + random.nextInt(12), 2023 + random.nextInt(2)));
+        }
+
+        PortfolioSummary sequential = PortfolioAnalytics.analyzeSequential(apartments);
+        PortfolioSummary parallel = PortfolioAnalytics.analyze(apartments);
+        PortfolioSummary twoThreads = PortfolioAnalytics.analyze(apartments, new ForkJoinPool(2));
+
+        System.out.println("********** PortfolioAnalytics **********");
+        System.out.println(sequential);
+        System.out.println("parallel equals sequential: " + parallel.equals(sequential));
+        System.out.println("two threads equals sequential: " + twoThreads.equals(sequential));
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PrivateRentalIndexTester {
+    public static void main(String[] args) {
+        Person ariel = new Person("Ariel", 21, 2, 1997, "123123123");
+        Person david = new Person("David Stampa", 22, 2, 1998, "321321321");
+        Random random = new Random(1);
+        RentalIndex index = new RentalIndex();
+        List<Apartment> apartments = new ArrayList<Apartment>();
+
+        for (int i = 0; i < 2000; i++) {
+            Apartment apartment = new Apartment(3, 80, 5000, ariel, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    2020, 1 + random.nextInt(28), 1 + random.nextInt(12), 2021 + random.nextInt(3));
+            apartments.add(apartment);
+            index.add(apartment);
+        }
+
+        // Mutate some apartments, the index should follow
+        for (int i = 0; i < 500; i++) {
+            Apartment apartment = apartments.get(random.nextInt(apartments.size()));
+            apartment.extendRentalPeriod(1);
+            apartment.setRentalStartDate(new Date(1, 1 + random.nextInt(12), 2019));
+        }
+        Apartment changed = apartments.get(0);
+        changed.changeTenant(new Date(changed.getRentalEndDate().getDay(), changed.getRentalEndDate().getMonth(),
+                changed.getRentalEndDate().getYear()), david, 9000);
+
+        int mismatches = 0;
+        for (int i = 0; i < 100; i++) {
+            Date d = new Date(1 + random.nextInt(28), 1 + random.nextInt(12), 2019 + random.nextInt(6));
+            int expiring = 0;
+            int active = 0;
+            for (Apartment apartment : apartments) {
+                int daysLeft = apartment.daysLeft(d);
+                if (daysLeft >= 0 && daysLeft <= 90) {
+                    expiring++;
+                }
+                if (!d.before(apartment.getRentalStartDate()) && daysLeft >= 0) {
+                    active++;
+                }
+            }
+            if (expiring != index.expiringWithin(d, 90).size() || active != index.activeOn(d).size()) {
+                mismatches++;
+            }
+        }
+
+        System.out.println("********** RentalIndex **********");
+        System.out.println("size: " + index.size());
+        System.out.println("mismatches: " + mismatches);
+        index.remove(changed);
+        System.out.println("size after remove: " + index.size());
+    }
+}
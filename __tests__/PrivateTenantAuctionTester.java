@@ -0,0 +1,41 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PrivateTenantAuctionTester {
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        List<Apartment> apartments = new ArrayList<Apartment>();
+        List<TenantBid> bids = new ArrayList<TenantBid>();
+        Person tenant = new Person("Ariel", 21, 2, 1990, "123123123");
+
+        for (int i = 0; i < 1000; i++) {
+            apartments.add(new Apartment(3, 80, 5000, tenant, 1, 7, 2022, 1, 7, 2023));
+        }
+        for (int i = 0; i < 10000; i++) {
+            Person bidder = new Person("Bidder " + i, 1 + random.nextInt(28), 1 + random.nextInt(12),
+                    1980 + random.nextInt(20), "000000000");
+            Date start = new Date(1 + random.nextInt(28), 1 + random.nextInt(12), 2023);
+            bids.add(new TenantBid(apartments.get(random.nextInt(apartments.size())), start, bidder,
+                    4500 + random.nextInt(1000)));
+        }
+
+        TenantAuctionReport report = TenantAuction.run(bids);
+
+        // Every changed unit's tenant must be the youngest eligible bidder
+        int mismatches = 0;
+        for (TenantAuctionReport.Outcome outcome : report.getOutcomes()) {
+            if (outcome.isChanged() != (outcome.getEligibleBids() > 0)) {
+                mismatches++;
+            }
+            if (outcome.isChanged() && outcome.getApartment().getTenant().compareTo(
+                    outcome.getWinner().getBidder()) != 0) {
+                mismatches++;
+            }
+        }
+
+        System.out.println("********** TenantAuction **********");
+        System.out.println(report);
+        System.out.println("mismatches: " + mismatches);
+    }
+}
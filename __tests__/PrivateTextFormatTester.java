@@ -0,0 +1,37 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+public class PrivateTextFormatTester {
+    public static void main(String[] args) throws IOException {
+        Person ariel = new Person("\u05D0\u05E8\u05D9\u05D0\u05DC Ariel \uD83C\uDFE0", 21, 2, 1997, "123123123");
+        Apartment apartment = new Apartment(4, 81.5, 6500, ariel, 1, 7, 2022, 1, 7, 2023);
+        byte[] buf = new byte[512];
+
+        System.out.println("********** TextFormat **********");
+        Object[] values = { new Date(9, 3, 1998), ariel, apartment };
+        for (Object value : values) {
+            StringWriter writer = new StringWriter();
+            StringBuilder sb = new StringBuilder();
+            int length;
+            if (value instanceof Date) {
+                ((Date) value).appendTo(writer);
+                ((Date) value).appendTo(sb);
+                length = ((Date) value).writeTo(buf, 0);
+            } else if (value instanceof Person) {
+                ((Person) value).appendTo(writer);
+                ((Person) value).appendTo(sb);
+                length = ((Person) value).writeTo(buf, 0);
+            } else {
+                ((Apartment) value).appendTo(writer);
+                ((Apartment) value).appendTo(sb);
+                length = ((Apartment) value).writeTo(buf, 0);
+            }
+            String expected = value.toString();
+            System.out.println(value.getClass().getName() + " appendTo(Appendable): "
+                    + expected.equals(writer.toString()) + ", appendTo(StringBuilder): "
+                    + expected.equals(sb.toString()) + ", writeTo: "
+                    + expected.equals(new String(buf, 0, length, StandardCharsets.UTF_8)));
+        }
+    }
+}